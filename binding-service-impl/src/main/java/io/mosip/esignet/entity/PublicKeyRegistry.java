@@ -5,6 +5,7 @@
  */
 package io.mosip.esignet.entity;
 
+import java.io.Serializable;
 import java.time.LocalDateTime;
 
 import javax.persistence.Column;
@@ -12,6 +13,8 @@ import javax.persistence.Entity;
 import javax.persistence.Id;
 import javax.persistence.IdClass;
 import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -22,7 +25,7 @@ import lombok.NoArgsConstructor;
 @IdClass(RegistryId.class)
 @NoArgsConstructor
 @AllArgsConstructor
-public class PublicKeyRegistry {
+public class PublicKeyRegistry implements Serializable {
 	
 	@Id
 	@NotBlank
@@ -53,11 +56,36 @@ public class PublicKeyRegistry {
 	@Column(name = "public_key_hash")
 	private String publicKeyHash;
 
-	@NotBlank
+	/**
+	 * DER encoded signed certificate
+	 */
+	@NotNull
+	@Size(min = 1)
 	@Column(name = "certificate")
-	private String certificate;
+	private byte[] certificate;
+
+	/**
+	 * DER encoded SubjectPublicKeyInfo of the certified public key, used to build the verification key
+	 * without parsing the certificate. Null for the entries bound before it was stored and not backfilled.
+	 */
+	@Column(name = "public_key_spki")
+	private byte[] publicKeySpki;
 
 	@Column(name = "cr_dtimes")
 	private LocalDateTime createdtimes;
 
+	/**
+	 * Binding details required to validate the binding, see
+	 * {@link io.mosip.esignet.repository.PublicKeyRegistryRepository#findByIdHashAndAuthFactorInAndExpiredtimesGreaterThan}
+	 */
+	public PublicKeyRegistry(String idHash, String authFactor, String publicKey, LocalDateTime expiredtimes,
+							 String publicKeyHash, byte[] certificate, byte[] publicKeySpki) {
+		this.idHash = idHash;
+		this.authFactor = authFactor;
+		this.publicKey = publicKey;
+		this.expiredtimes = expiredtimes;
+		this.publicKeyHash = publicKeyHash;
+		this.certificate = certificate;
+		this.publicKeySpki = publicKeySpki;
+	}
 }
@@ -12,24 +12,68 @@ import java.util.Set;
 
 import io.mosip.esignet.entity.PublicKeyRegistry;
 import io.mosip.esignet.entity.RegistryId;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface PublicKeyRegistryRepository extends JpaRepository<PublicKeyRegistry, RegistryId> {
 
+	/**
+	 * Active bindings of the individual with only the columns required to validate the binding, psu_token,
+	 * wallet_binding_id and cr_dtimes are not read. The public key JWK is read only for the entries without
+	 * public_key_spki, as the verification key is built from it only then.
+	 */
+	@Query("SELECT new io.mosip.esignet.entity.PublicKeyRegistry(pkr.idHash, pkr.authFactor, " +
+			"CASE WHEN pkr.publicKeySpki IS NULL THEN pkr.publicKey ELSE NULL END, pkr.expiredtimes, pkr.publicKeyHash, " +
+			"pkr.certificate, pkr.publicKeySpki) FROM PublicKeyRegistry pkr " +
+			"WHERE pkr.idHash = :idHash AND pkr.authFactor IN :authFactor AND pkr.expiredtimes > :currentDateTime")
 	List<PublicKeyRegistry> findByIdHashAndAuthFactorInAndExpiredtimesGreaterThan(String idHash, Set<String> authFactor, LocalDateTime currentDateTime);
 
-	@Query(value = "SELECT * FROM public_key_registry WHERE psu_token= :psuToken and auth_factor= :authFactor ORDER BY expire_dtimes DESC LIMIT 1", nativeQuery = true)
-	Optional<PublicKeyRegistry> findLatestByPsuTokenAndAuthFactor(String psuToken, String authFactor);
+	/**
+	 * Upserts the binding entry of the individual (id_hash, auth_factor) in a single statement.
+	 * The wallet_binding_id of the latest entry with the same psu_token and auth_factor is carried forward, if none
+	 * exists then the provided walletBindingId is used. Other entries with the same psu_token and auth_factor are
+	 * updated with the new public key, certificate, public key SPKI and expiry.
+	 * Nothing is written if the public key is already bound to a different psu_token.
+	 * @return [id_hash, wallet_binding_id] of the upserted and all the other updated entries,
+	 * empty if the public key is bound to a different psu_token
+	 */
+	@Transactional
+	@Query(value = "WITH duplicate_key AS (SELECT 1 FROM public_key_registry WHERE public_key_hash= :publicKeyHash AND psu_token<> :psuToken LIMIT 1), " +
+			"latest_entry AS (SELECT wallet_binding_id FROM public_key_registry WHERE psu_token= :psuToken AND auth_factor= :authFactor ORDER BY expire_dtimes DESC LIMIT 1), " +
+			"other_entries AS (UPDATE public_key_registry SET public_key= :publicKey, public_key_hash= :publicKeyHash, expire_dtimes= :expireDTimes, certificate= :certificate, public_key_spki= :publicKeySpki " +
+			"WHERE psu_token= :psuToken AND auth_factor= :authFactor AND id_hash<> :idHash AND NOT EXISTS (SELECT 1 FROM duplicate_key) " +
+			"RETURNING id_hash, wallet_binding_id), " +
+			"upserted_entry AS (INSERT INTO public_key_registry (id_hash, auth_factor, psu_token, public_key, expire_dtimes, wallet_binding_id, public_key_hash, certificate, public_key_spki, cr_dtimes) " +
+			"SELECT :idHash, :authFactor, :psuToken, :publicKey, :expireDTimes, COALESCE((SELECT wallet_binding_id FROM latest_entry), :walletBindingId), :publicKeyHash, :certificate, :publicKeySpki, :createdDTimes " +
+			"WHERE NOT EXISTS (SELECT 1 FROM duplicate_key) " +
+			"ON CONFLICT (id_hash, auth_factor) DO UPDATE SET psu_token= EXCLUDED.psu_token, public_key= EXCLUDED.public_key, expire_dtimes= EXCLUDED.expire_dtimes, " +
+			"wallet_binding_id= EXCLUDED.wallet_binding_id, public_key_hash= EXCLUDED.public_key_hash, certificate= EXCLUDED.certificate, public_key_spki= EXCLUDED.public_key_spki, cr_dtimes= EXCLUDED.cr_dtimes " +
+			"RETURNING id_hash, wallet_binding_id) " +
+			"SELECT id_hash, wallet_binding_id FROM upserted_entry UNION ALL SELECT id_hash, wallet_binding_id FROM other_entries", nativeQuery = true)
+	List<Object[]> upsertPublicKeyRegistry(String idHash, String authFactor, String psuToken, String publicKey, String publicKeyHash,
+										   LocalDateTime expireDTimes, byte[] certificate, byte[] publicKeySpki, String walletBindingId,
+										   LocalDateTime createdDTimes);
 
-    Optional<PublicKeyRegistry> findOptionalByPublicKeyHashAndPsuTokenNot(String publicKeyHash, String psuToken);
+	@Query("SELECT MIN(pkr.expiredtimes) FROM PublicKeyRegistry pkr WHERE pkr.expiredtimes < :expiredBefore")
+	LocalDateTime findOldestExpiredtimes(LocalDateTime expiredBefore);
 
+	/**
+	 * Expiry of the entries expired after the provided expiry in ascending order, the range is read from
+	 * idx_pkr_expire_dtimes starting after the provided expiry.
+	 */
+	@Query("SELECT pkr.expiredtimes FROM PublicKeyRegistry pkr WHERE pkr.expiredtimes > :expiredAfter AND " +
+			"pkr.expiredtimes < :expiredBefore ORDER BY pkr.expiredtimes")
+	List<LocalDateTime> findExpiredtimes(LocalDateTime expiredAfter, LocalDateTime expiredBefore, Pageable pageable);
+
+	@Transactional
 	@Modifying
-	@Query("UPDATE PublicKeyRegistry  pkr set pkr.publicKey= :publicKey , pkr.publicKeyHash= :publicKeyHash , pkr.expiredtimes= :expireDTimes, " +
-			"pkr.certificate= :certificate where pkr.psuToken= :psuToken and pkr.authFactor= :authFactor")
-	int updatePublicKeyRegistry(String publicKey, String publicKeyHash, LocalDateTime expireDTimes, String psuToken, String certificate, String authFactor);
+	@Query("DELETE FROM PublicKeyRegistry pkr WHERE pkr.expiredtimes > :expiredAfter AND pkr.expiredtimes <= :expiredUpTo " +
+			"AND pkr.expiredtimes < :expiredBefore")
+	int deleteExpiredEntries(LocalDateTime expiredAfter, LocalDateTime expiredUpTo, LocalDateTime expiredBefore);
 }
@@ -1,11 +1,9 @@
 package io.mosip.esignet.services;
 
 import com.nimbusds.jose.JWSAlgorithm;
-import com.nimbusds.jose.jwk.JWKSet;
 import com.nimbusds.jose.jwk.RSAKey;
-import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
 import com.nimbusds.jose.proc.JWSKeySelector;
-import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SingleKeyJWSKeySelector;
 import com.nimbusds.jwt.JWT;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.JWTParser;
@@ -19,22 +17,30 @@ import io.mosip.esignet.api.exception.KycAuthException;
 import io.mosip.esignet.api.spi.KeyBindingValidator;
 import io.mosip.esignet.entity.PublicKeyRegistry;
 import io.mosip.esignet.repository.PublicKeyRegistryRepository;
+import io.mosip.esignet.core.constants.Constants;
 import io.mosip.esignet.core.constants.ErrorConstants;
-import io.mosip.kernel.keymanagerservice.util.KeymanagerUtil;
+import io.mosip.esignet.core.util.IdentityProviderUtil;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Component;
 import org.springframework.util.CollectionUtils;
 
-import java.security.cert.X509Certificate;
+import java.security.KeyFactory;
+import java.security.MessageDigest;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.X509EncodedKeySpec;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static io.mosip.esignet.core.constants.ErrorConstants.*;
+import static io.mosip.esignet.core.util.IdentityProviderUtil.ALGO_SHA_256;
 
 @ConditionalOnProperty(value = "mosip.esignet.integration.binding-validator", havingValue = "BindingValidatorServiceImpl")
 @Component
@@ -48,11 +54,17 @@ public class BindingValidatorServiceImpl implements KeyBindingValidator {
     private PublicKeyRegistryRepository publicKeyRegistryRepository;
 
     @Autowired
-    private KeymanagerUtil keymanagerUtil;
+    private CacheManager cacheManager;
 
     @Value("${mosip.esignet.binding.audience-id}")
     private String bindingAudienceId;
 
+    /**
+     * Processor only depends on the bound public key, claims and the certificate thumbprint are verified per request.
+     */
+    @Autowired
+    private WLATokenProcessorCache wlaTokenProcessorCache;
+
     private static Set<String> REQUIRED_WLA_CLAIMS;
 
     static {
@@ -71,8 +83,7 @@ public class BindingValidatorServiceImpl implements KeyBindingValidator {
         Map<String,String> providedAuthFactorTypes = challengeList.stream()
                 .collect(Collectors.toMap(AuthChallenge::getAuthFactorType, AuthChallenge::getFormat));
 
-        List<PublicKeyRegistry> publicKeyRegistryEntries = publicKeyRegistryRepository.findByIdHashAndAuthFactorInAndExpiredtimesGreaterThan(individualIdHash,
-                providedAuthFactorTypes.keySet(), LocalDateTime.now(ZoneOffset.UTC));
+        List<PublicKeyRegistry> publicKeyRegistryEntries = getActiveBindings(individualIdHash, providedAuthFactorTypes.keySet());
         if (CollectionUtils.isEmpty(publicKeyRegistryEntries))
             throw new KycAuthException(ErrorConstants.KEY_BINDING_NOT_FOUND);
 
@@ -80,9 +91,11 @@ public class BindingValidatorServiceImpl implements KeyBindingValidator {
         if(publicKeyRegistryEntries.size() < providedAuthFactorTypes.size())
             throw new KycAuthException(ErrorConstants.UNBOUND_AUTH_FACTOR);
 
+        Map<String, PublicKeyRegistry> bindingsByAuthFactor = publicKeyRegistryEntries.stream()
+                .collect(Collectors.toMap(PublicKeyRegistry::getAuthFactor, Function.identity()));
         boolean result = challengeList.stream()
                 .allMatch(authChallenge -> validateChallenge(individualId, authChallenge,
-                        publicKeyRegistryEntries.stream().filter( e -> e.getAuthFactor().equals(authChallenge.getAuthFactorType())).findFirst()));
+                        Optional.ofNullable(bindingsByAuthFactor.get(authChallenge.getAuthFactorType()))));
 
         if(result) {
             return new BindingAuthResult(transactionId, individualId);
@@ -91,6 +104,36 @@ public class BindingValidatorServiceImpl implements KeyBindingValidator {
         throw new KycAuthException(ErrorConstants.INVALID_CHALLENGE);
     }
 
+    /**
+     * Read-through the bindings cache, only the auth factors missing in the cache are fetched from the registry.
+     * Cached entries past their expire_dtimes are treated as missing.
+     */
+    private List<PublicKeyRegistry> getActiveBindings(String individualIdHash, Set<String> authFactors) {
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        Cache bindingsCache = cacheManager.getCache(Constants.BINDINGS_CACHE);
+        List<PublicKeyRegistry> activeBindings = new ArrayList<>();
+        Set<String> missingAuthFactors = new HashSet<>();
+        for(String authFactor : authFactors) {
+            PublicKeyRegistry publicKeyRegistry = bindingsCache.get(KeyBindingHelperService.getBindingCacheKey(individualIdHash, authFactor),
+                    PublicKeyRegistry.class); //NOSONAR getCache() will not be returning null here.
+            if(publicKeyRegistry != null && publicKeyRegistry.getExpiredtimes().isAfter(now))
+                activeBindings.add(publicKeyRegistry);
+            else
+                missingAuthFactors.add(authFactor);
+        }
+
+        if(missingAuthFactors.isEmpty())
+            return activeBindings;
+
+        List<PublicKeyRegistry> entries = publicKeyRegistryRepository.findByIdHashAndAuthFactorInAndExpiredtimesGreaterThan(individualIdHash,
+                missingAuthFactors, now);
+        for(PublicKeyRegistry publicKeyRegistry : entries) {
+            bindingsCache.put(KeyBindingHelperService.getBindingCacheKey(individualIdHash, publicKeyRegistry.getAuthFactor()), publicKeyRegistry);
+            activeBindings.add(publicKeyRegistry);
+        }
+        return activeBindings;
+    }
+
     private boolean validateChallenge(String individualId, AuthChallenge authChallenge, Optional<PublicKeyRegistry> publicKeyRegistry) {
         if(!publicKeyRegistry.isPresent())
             return false;
@@ -110,23 +153,27 @@ public class BindingValidatorServiceImpl implements KeyBindingValidator {
         switch (format) {
             case "jwt" :
                 try {
-                    X509Certificate x509Certificate = (X509Certificate) keymanagerUtil.convertToCertificate(publicKeyRegistry.getCertificate());
-                    JWSKeySelector keySelector = new JWSVerificationKeySelector(JWSAlgorithm.RS256,
-                            new ImmutableJWKSet(new JWKSet(RSAKey.parse(x509Certificate))));
-
                     JWT jwt = JWTParser.parse(wlaToken);
                     if(!jwt.getHeader().toJSONObject().containsKey("x5t#S256"))
                         throw new KycAuthException(SHA256_THUMBPRINT_HEADER_MISSING);
 
+                    //token must be issued with the bound certificate, thumbprint is computed on the stored DER bytes
+                    String thumbprint = IdentityProviderUtil.b64Encode(MessageDigest.getInstance(ALGO_SHA_256)
+                            .digest(publicKeyRegistry.getCertificate()));
+                    if(!thumbprint.equals(jwt.getHeader().toJSONObject().get("x5t#S256"))) {
+                        log.error("x5t#S256 header does not match the bound certificate");
+                        throw new KycAuthException(ErrorConstants.INVALID_WLA_TOKEN);
+                    }
+
+                    ConfigurableJWTProcessor jwtProcessor = wlaTokenProcessorCache.get(publicKeyRegistry.getPublicKeyHash(),
+                            () -> buildWLATokenProcessor(publicKeyRegistry));
+                    JWTClaimsSet claimsSet = jwtProcessor.process(jwt, null); //If invalid throws exception
+
                     JWTClaimsSetVerifier claimsSetVerifier = new DefaultJWTClaimsVerifier(new JWTClaimsSet.Builder()
                             .audience(bindingAudienceId)
                             .subject(individualId)
                             .build(), REQUIRED_WLA_CLAIMS);
-
-                    ConfigurableJWTProcessor jwtProcessor = new DefaultJWTProcessor();
-                    jwtProcessor.setJWSKeySelector(keySelector);
-                    jwtProcessor.setJWTClaimsSetVerifier(claimsSetVerifier);
-                    jwtProcessor.process(jwt, null); //If invalid throws exception
+                    claimsSetVerifier.verify(claimsSet, null); //If invalid throws exception
                     return true;
                 } catch (KycAuthException e) {
                     throw e;
@@ -137,4 +184,18 @@ public class BindingValidatorServiceImpl implements KeyBindingValidator {
            default: throw new KycAuthException(UNKNOWN_WLA_FORMAT);
         }
     }
+
+    private ConfigurableJWTProcessor buildWLATokenProcessor(PublicKeyRegistry publicKeyRegistry) throws Exception {
+        //certified public key is stored as SPKI, no need to decode and parse the whole certificate.
+        //SPKI is null for entries bound before it was stored and not backfilled by the upgrade script, bound JWK is used then.
+        RSAPublicKey publicKey = publicKeyRegistry.getPublicKeySpki() != null ?
+                (RSAPublicKey) KeyFactory.getInstance("RSA").generatePublic(new X509EncodedKeySpec(publicKeyRegistry.getPublicKeySpki())) :
+                RSAKey.parse(publicKeyRegistry.getPublicKey()).toRSAPublicKey();
+        JWSKeySelector keySelector = new SingleKeyJWSKeySelector(JWSAlgorithm.RS256, publicKey);
+        ConfigurableJWTProcessor jwtProcessor = new DefaultJWTProcessor();
+        jwtProcessor.setJWSKeySelector(keySelector);
+        //claims are subject specific, verified on each request
+        jwtProcessor.setJWTClaimsSetVerifier(null);
+        return jwtProcessor;
+    }
 }
@@ -0,0 +1,127 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.mosip.esignet.repository.PublicKeyRegistryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Periodically removes the expired entries from public_key_registry in small batches, each batch is deleted in
+ * its own transaction to keep the locks short. Expired entries are already ignored on binding validation, they
+ * are only retained for the configured number of days.
+ *
+ * Batches are consecutive expire_dtimes ranges, each batch starts after the expiry the previous batch ended with,
+ * so the already purged range is not read again. A batch is extended with the entries sharing its last expiry.
+ * Purge runs on one replica at a time, the run is skipped when the session advisory lock is held by another replica.
+ */
+@ConditionalOnProperty(value = "mosip.esignet.binding.purge.enabled", havingValue = "true")
+@Component
+@Slf4j
+public class ExpiredBindingPurgeService {
+
+    private static final String TRY_LOCK_SQL = "SELECT pg_try_advisory_lock(hashtext('esignet-binding-purge'))";
+    private static final String UNLOCK_SQL = "SELECT pg_advisory_unlock(hashtext('esignet-binding-purge'))";
+
+    @Autowired
+    private PublicKeyRegistryRepository publicKeyRegistryRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Value("${mosip.esignet.binding.purge.batch-size:500}")
+    private int batchSize;
+
+    @Value("${mosip.esignet.binding.purge.retention-days:7}")
+    private int retentionDays;
+
+    private Counter purgedEntriesCounter;
+    private final AtomicLong lastRunPurgedEntries = new AtomicLong();
+    private final AtomicLong lastRunEpochSeconds = new AtomicLong();
+
+    @PostConstruct
+    private void init() {
+        purgedEntriesCounter = Counter.builder("esignet.binding.purge.entries")
+                .description("Number of expired key binding entries purged")
+                .register(meterRegistry);
+        Gauge.builder("esignet.binding.purge.last-run.entries", lastRunPurgedEntries, AtomicLong::get)
+                .description("Number of expired key binding entries purged in the last run")
+                .register(meterRegistry);
+        Gauge.builder("esignet.binding.purge.last-run.timestamp", lastRunEpochSeconds, AtomicLong::get)
+                .description("Epoch seconds of the last completed purge run")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${mosip.esignet.binding.purge.cron:0 0 2 * * *}")
+    public void purgeExpiredBindings() {
+        //Lock is held by the session, the dedicated connection is kept open until the run completes
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            if(!tryLock(statement)) {
+                log.info("Skipped purging expired key bindings, purge is running on another replica");
+                return;
+            }
+            try {
+                purge();
+            } finally {
+                statement.execute(UNLOCK_SQL);
+            }
+        } catch (SQLException e) {
+            log.error("Failed to purge expired key bindings", e);
+        }
+    }
+
+    private void purge() {
+        LocalDateTime expiredBefore = LocalDateTime.now(ZoneOffset.UTC).minusDays(retentionDays);
+        log.info("Started purging key bindings expired before {}", expiredBefore);
+        long totalPurged = 0;
+        LocalDateTime oldestExpiredtimes = publicKeyRegistryRepository.findOldestExpiredtimes(expiredBefore);
+        //Exclusive lower bound of the first batch
+        LocalDateTime expiredAfter = oldestExpiredtimes == null ? null : oldestExpiredtimes.minusSeconds(1);
+        while (expiredAfter != null) {
+            List<LocalDateTime> batchEnd = publicKeyRegistryRepository.findExpiredtimes(expiredAfter, expiredBefore,
+                    PageRequest.of(batchSize - 1, 1));
+            LocalDateTime expiredUpTo = batchEnd.isEmpty() ? expiredBefore : batchEnd.get(0);
+            int purged = publicKeyRegistryRepository.deleteExpiredEntries(expiredAfter, expiredUpTo, expiredBefore);
+            purgedEntriesCounter.increment(purged);
+            totalPurged += purged;
+            log.info("Purged {} expired key binding entries, {} purged so far", purged, totalPurged);
+            expiredAfter = batchEnd.isEmpty() ? null : expiredUpTo;
+        }
+
+        lastRunPurgedEntries.set(totalPurged);
+        lastRunEpochSeconds.set(LocalDateTime.now(ZoneOffset.UTC).toEpochSecond(ZoneOffset.UTC));
+        log.info("Completed purging expired key bindings, total purged entries : {}", totalPurged);
+    }
+
+    private boolean tryLock(Statement statement) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery(TRY_LOCK_SQL)) {
+            return resultSet.next() && resultSet.getBoolean(1);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package io.mosip.esignet.services;
 
 import io.mosip.esignet.entity.PublicKeyRegistry;
 import io.mosip.esignet.repository.PublicKeyRegistryRepository;
+import io.mosip.esignet.core.constants.Constants;
 import io.mosip.esignet.core.exception.EsignetException;
 import io.mosip.esignet.core.constants.ErrorConstants;
 import io.mosip.esignet.core.util.IdentityProviderUtil;
@@ -9,15 +10,24 @@ import io.mosip.kernel.keymanagerservice.util.KeymanagerUtil;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
 
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.security.cert.CertificateEncodingException;
 import java.security.cert.X509Certificate;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static io.mosip.esignet.core.constants.ErrorConstants.DUPLICATE_PUBLIC_KEY;
 import static io.mosip.esignet.core.util.IdentityProviderUtil.ALGO_SHA3_256;
@@ -33,6 +43,12 @@ public class KeyBindingHelperService {
     @Autowired
     private KeymanagerUtil keymanagerUtil;
 
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private WLATokenProcessorCache wlaTokenProcessorCache;
+
     @Value("${mosip.esignet.binding.salt-length}")
     private int saltLength;
 
@@ -40,29 +56,15 @@ public class KeyBindingHelperService {
         return IdentityProviderUtil.generateB64EncodedHash(ALGO_SHA3_256, individualId);
     }
 
+    @Transactional
     public PublicKeyRegistry storeKeyBindingDetailsInRegistry(String individualId, String partnerSpecificUserToken, String publicKey,
                                                                String certificateData, String authFactor) throws EsignetException {
         String publicKeyHash = IdentityProviderUtil.generateB64EncodedHash(ALGO_SHA3_256, publicKey);
-        //check if any entry exists with same public key for different PSU-token
-        Optional<PublicKeyRegistry> optionalPublicKeyRegistryForDuplicateCheck = publicKeyRegistryRepository
-                .findOptionalByPublicKeyHashAndPsuTokenNot(publicKeyHash, partnerSpecificUserToken);
-        if (optionalPublicKeyRegistryForDuplicateCheck.isPresent())
-            throw new EsignetException(DUPLICATE_PUBLIC_KEY);
-
         X509Certificate certificate = (X509Certificate)keymanagerUtil.convertToCertificate(certificateData);
         LocalDateTime expireDTimes = certificate.getNotAfter().toInstant().atZone(ZoneOffset.UTC).toLocalDateTime();
-        //same individual can be bound to different public keys each with different auth-factor-type.
-        Optional<PublicKeyRegistry> optionalPublicKeyRegistry = publicKeyRegistryRepository.findLatestByPsuTokenAndAuthFactor(partnerSpecificUserToken, authFactor);
-        String walletBindingId = null;
-        //Entry exists, consider to use same wallet-binding-id. Only update public-key & expireDT
-        if (optionalPublicKeyRegistry.isPresent()) {
-            walletBindingId = optionalPublicKeyRegistry.get().getWalletBindingId();
-            int noOfUpdatedRecords = publicKeyRegistryRepository.updatePublicKeyRegistry(publicKey, publicKeyHash,
-                    expireDTimes, partnerSpecificUserToken, certificateData, authFactor);
-            log.info("Number of records updated successfully {}", noOfUpdatedRecords);
-        }
+        byte[] encodedCertificate = getEncodedCertificate(certificate);
+        byte[] publicKeySpki = certificate.getPublicKey().getEncoded();
 
-        //Upsert one entry for the provided individual-id
         PublicKeyRegistry publicKeyRegistry = new PublicKeyRegistry();
         publicKeyRegistry.setIdHash(getIndividualIdHash(individualId));
         publicKeyRegistry.setAuthFactor(authFactor);
@@ -70,15 +72,79 @@ public class KeyBindingHelperService {
         publicKeyRegistry.setPublicKey(publicKey);
         publicKeyRegistry.setPublicKeyHash(publicKeyHash);
         publicKeyRegistry.setExpiredtimes(expireDTimes);
-        publicKeyRegistry.setWalletBindingId(walletBindingId == null ? generateWalletBindingId(partnerSpecificUserToken) : walletBindingId);
-        publicKeyRegistry.setCertificate(certificateData);
+        publicKeyRegistry.setCertificate(encodedCertificate);
+        publicKeyRegistry.setPublicKeySpki(publicKeySpki);
         publicKeyRegistry.setCreatedtimes(LocalDateTime.now(ZoneId.of("UTC")));
-        publicKeyRegistry = publicKeyRegistryRepository.save(publicKeyRegistry);
+
+        //same individual can be bound to different public keys each with different auth-factor-type.
+        //Duplicate public key check, wallet-binding-id carry forward and the upsert are all done in one statement,
+        //generated wallet-binding-id is used only if there is no existing entry for the psu-token & auth-factor.
+        List<Object[]> updatedEntries = publicKeyRegistryRepository.upsertPublicKeyRegistry(publicKeyRegistry.getIdHash(),
+                authFactor, partnerSpecificUserToken, publicKey, publicKeyHash, expireDTimes, encodedCertificate, publicKeySpki,
+                generateWalletBindingId(partnerSpecificUserToken), publicKeyRegistry.getCreatedtimes());
+        //check if any entry exists with same public key for different PSU-token
+        Optional<Object[]> upsertedEntry = updatedEntries.stream()
+                .filter(entry -> publicKeyRegistry.getIdHash().equals(entry[0]))
+                .findFirst();
+        if (!upsertedEntry.isPresent())
+            throw new EsignetException(DUPLICATE_PUBLIC_KEY);
+
+        publicKeyRegistry.setWalletBindingId((String) upsertedEntry.get()[1]);
+        List<String> updatedIdHashes = updatedEntries.stream()
+                .map(entry -> (String) entry[0])
+                .filter(idHash -> !publicKeyRegistry.getIdHash().equals(idHash))
+                .collect(Collectors.toList());
+        //WLA token processor of the bound key is dropped now and again once committed, as it could be built back
+        //from the old state before the commit. Bindings cache is updated once committed.
+        wlaTokenProcessorCache.evict(publicKeyHash);
+        runAfterCommit(() -> {
+            wlaTokenProcessorCache.evict(publicKeyHash);
+            Cache bindingsCache = cacheManager.getCache(Constants.BINDINGS_CACHE);
+            bindingsCache.put(getBindingCacheKey(publicKeyRegistry.getIdHash(), authFactor), publicKeyRegistry); //NOSONAR getCache() will not be returning null here.
+            updatedIdHashes.forEach(idHash -> bindingsCache.evict(getBindingCacheKey(idHash, authFactor)));
+        });
         log.info("Saved PublicKeyRegistry details successfully");
         return publicKeyRegistry;
     }
 
-    private String generateWalletBindingId(final String partnerSpecificUserToken) {
+    /**
+     * DER encoding of the certificate, stored in the registry instead of the PEM text
+     * @param certificate signed certificate
+     * @return DER encoded certificate
+     */
+    public byte[] getEncodedCertificate(X509Certificate certificate) {
+        try {
+            return certificate.getEncoded();
+        } catch (CertificateEncodingException e) {
+            log.error("Failed to encode the certificate", e);
+            throw new EsignetException(ErrorConstants.KEY_BINDING_FAILED);
+        }
+    }
+
+    /**
+     * Key of the active binding entry in the bindings cache
+     * @param idHash individual id hash
+     * @param authFactor bound auth factor type
+     * @return cache key
+     */
+    public static String getBindingCacheKey(String idHash, String authFactor) {
+        return idHash + ":" + authFactor;
+    }
+
+    private void runAfterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    public String generateWalletBindingId(final String partnerSpecificUserToken) {
         MessageDigest messageDigest = null;
         try {
             messageDigest = MessageDigest.getInstance(ALGO_SHA3_256);
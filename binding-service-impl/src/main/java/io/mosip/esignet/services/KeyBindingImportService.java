@@ -0,0 +1,250 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.mosip.esignet.core.constants.Constants;
+import io.mosip.esignet.core.dto.KeyBindingImportRecord;
+import io.mosip.esignet.core.util.IdentityProviderUtil;
+import io.mosip.kernel.keymanagerservice.util.KeymanagerUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.binary.Hex;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.cert.X509Certificate;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import static io.mosip.esignet.core.util.IdentityProviderUtil.ALGO_SHA3_256;
+
+/**
+ * Offline bulk import of existing wallet bindings. Import file is read in batches, hashes and wallet binding ids
+ * of each batch are computed in parallel and the batch is streamed into public_key_registry_import staging table
+ * with COPY. Each staged batch is merged into public_key_registry with set based statements applying the same rules
+ * as the wallet-binding endpoint and committed:
+ *  - entries with a public key already bound to a different psu token are skipped
+ *  - wallet binding id of an existing entry with the same psu token and auth factor is carried forward
+ *  - existing entries of the same psu token and auth factor are updated with the imported key
+ */
+@Component
+@Slf4j
+public class KeyBindingImportService {
+
+    private static final String COPY_SQL = "COPY public_key_registry_import (id_hash, auth_factor, psu_token, public_key, " +
+            "expire_dtimes, wallet_binding_id, public_key_hash, certificate, public_key_spki, cr_dtimes) FROM STDIN WITH (FORMAT csv)";
+
+    //Staged entries with a public key bound to a different psu token, in the registry or in the same batch, are skipped
+    private static final String STAGED_ENTRIES_SQL = "SELECT * FROM public_key_registry_import s " +
+            "WHERE NOT EXISTS (SELECT 1 FROM public_key_registry r WHERE r.public_key_hash=s.public_key_hash AND r.psu_token<>s.psu_token) " +
+            "AND NOT EXISTS (SELECT 1 FROM public_key_registry_import d WHERE d.public_key_hash=s.public_key_hash AND d.psu_token<>s.psu_token)";
+
+    private static final String COUNT_STAGED_ENTRIES_SQL = "SELECT COUNT(*) FROM (" + STAGED_ENTRIES_SQL + ") s";
+
+    private static final String MERGE_SQL = "INSERT INTO public_key_registry (id_hash, auth_factor, psu_token, public_key, " +
+            "expire_dtimes, wallet_binding_id, public_key_hash, certificate, public_key_spki, cr_dtimes) " +
+            "SELECT DISTINCT ON (s.id_hash, s.auth_factor) s.id_hash, s.auth_factor, s.psu_token, s.public_key, s.expire_dtimes, " +
+            "COALESCE((SELECT r.wallet_binding_id FROM public_key_registry r WHERE r.psu_token=s.psu_token AND r.auth_factor=s.auth_factor " +
+            "ORDER BY r.expire_dtimes DESC LIMIT 1), MIN(s.wallet_binding_id) OVER (PARTITION BY s.psu_token, s.auth_factor)), " +
+            "s.public_key_hash, s.certificate, s.public_key_spki, s.cr_dtimes FROM (" + STAGED_ENTRIES_SQL + ") s " +
+            "ORDER BY s.id_hash, s.auth_factor, s.expire_dtimes DESC " +
+            "ON CONFLICT (id_hash, auth_factor) DO UPDATE SET psu_token=EXCLUDED.psu_token, public_key=EXCLUDED.public_key, " +
+            "expire_dtimes=EXCLUDED.expire_dtimes, wallet_binding_id=EXCLUDED.wallet_binding_id, public_key_hash=EXCLUDED.public_key_hash, " +
+            "certificate=EXCLUDED.certificate, public_key_spki=EXCLUDED.public_key_spki, cr_dtimes=EXCLUDED.cr_dtimes";
+
+    private static final String UPDATE_OTHER_ENTRIES_SQL = "UPDATE public_key_registry r SET public_key=s.public_key, " +
+            "public_key_hash=s.public_key_hash, expire_dtimes=s.expire_dtimes, certificate=s.certificate, public_key_spki=s.public_key_spki " +
+            "FROM (SELECT DISTINCT ON (s.psu_token, s.auth_factor) * FROM (" + STAGED_ENTRIES_SQL + ") s " +
+            "ORDER BY s.psu_token, s.auth_factor, s.expire_dtimes DESC) s " +
+            "WHERE r.psu_token=s.psu_token AND r.auth_factor=s.auth_factor AND r.public_key_hash<>s.public_key_hash";
+
+    private static final String TRUNCATE_SQL = "TRUNCATE public_key_registry_import";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private KeymanagerUtil keymanagerUtil;
+
+    @Autowired
+    private KeyBindingHelperService keyBindingHelperService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Value("${mosip.esignet.binding.import.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${mosip.esignet.binding.import.parallelism:4}")
+    private int parallelism;
+
+    /**
+     * Imports all the bindings in the provided JSON lines file, invalid lines are logged and skipped. Every batch is
+     * merged and committed on its own, a failed import can be run again with the same file.
+     * @param importFile file with one {@link KeyBindingImportRecord} per line
+     * @return number of entries inserted or updated in public_key_registry
+     */
+    public long importBindings(Path importFile) throws IOException, SQLException {
+        ForkJoinPool forkJoinPool = new ForkJoinPool(parallelism);
+        try (Connection connection = dataSource.getConnection();
+             BufferedReader reader = Files.newBufferedReader(importFile, StandardCharsets.UTF_8)) {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(TRUNCATE_SQL);
+                connection.commit();
+            }
+
+            ImportCounts counts = new ImportCounts();
+            List<String> lines = new ArrayList<>(batchSize);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+                if (lines.size() == batchSize) {
+                    importBatch(forkJoinPool, connection, lines, counts);
+                    lines.clear();
+                }
+            }
+            importBatch(forkJoinPool, connection, lines, counts);
+            log.info("Key binding import completed, {}", counts);
+            return counts.merged;
+        } finally {
+            forkJoinPool.shutdown();
+            cacheManager.getCache(Constants.BINDINGS_CACHE).clear(); //NOSONAR getCache() will not be returning null here.
+        }
+    }
+
+    private void importBatch(ForkJoinPool forkJoinPool, Connection connection, List<String> lines, ImportCounts counts)
+            throws IOException, SQLException {
+        if (lines.isEmpty())
+            return;
+
+        List<String> rows = toStagingRows(forkJoinPool, lines);
+        try {
+            CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL);
+            try {
+                byte[] data = String.join("", rows).getBytes(StandardCharsets.UTF_8);
+                copyIn.writeToCopy(data, 0, data.length);
+                copyIn.endCopy();
+            } finally {
+                if (copyIn.isActive())
+                    copyIn.cancelCopy();
+            }
+
+            try (Statement statement = connection.createStatement()) {
+                long eligible;
+                try (ResultSet resultSet = statement.executeQuery(COUNT_STAGED_ENTRIES_SQL)) {
+                    resultSet.next();
+                    eligible = resultSet.getLong(1);
+                }
+                int merged = statement.executeUpdate(MERGE_SQL);
+                int updated = statement.executeUpdate(UPDATE_OTHER_ENTRIES_SQL);
+                statement.execute(TRUNCATE_SQL);
+                connection.commit();
+
+                counts.invalid += lines.size() - rows.size();
+                counts.duplicate += rows.size() - eligible;
+                counts.superseded += eligible - merged;
+                counts.merged += merged;
+                counts.updated += updated;
+                log.info("Imported batch of {} key bindings, {}", lines.size(), counts);
+            }
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        }
+    }
+
+    private List<String> toStagingRows(ForkJoinPool forkJoinPool, List<String> lines) throws IOException {
+        try {
+            return forkJoinPool.submit(() -> lines.parallelStream()
+                    .map(this::toStagingRow)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList())).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while preparing the key bindings", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to prepare the key bindings", e);
+        }
+    }
+
+    /**
+     * Converts one import line to a CSV row of the staging table
+     * @return CSV row terminated with a new line, null if the line is invalid
+     */
+    String toStagingRow(String line) {
+        if (line.isBlank())
+            return null;
+        try {
+            KeyBindingImportRecord record = objectMapper.readValue(line, KeyBindingImportRecord.class);
+            String publicKey = IdentityProviderUtil.getJWKString(record.getPublicKey());
+            X509Certificate certificate = (X509Certificate) keymanagerUtil.convertToCertificate(record.getCertificate());
+            LocalDateTime expireDTimes = certificate.getNotAfter().toInstant().atZone(ZoneOffset.UTC).toLocalDateTime();
+            return String.join(",",
+                    csv(keyBindingHelperService.getIndividualIdHash(record.getIndividualId())),
+                    csv(record.getAuthFactorType()),
+                    csv(record.getPartnerSpecificUserToken()),
+                    csv(publicKey),
+                    csv(expireDTimes.toString()),
+                    csv(keyBindingHelperService.generateWalletBindingId(record.getPartnerSpecificUserToken())),
+                    csv(IdentityProviderUtil.generateB64EncodedHash(ALGO_SHA3_256, publicKey)),
+                    csv(bytea(certificate.getEncoded())),
+                    csv(bytea(certificate.getPublicKey().getEncoded())),
+                    csv(LocalDateTime.now(ZoneId.of("UTC")).toString())) + "\n";
+        } catch (Exception e) {
+            log.error("Skipping invalid key binding entry", e);
+        }
+        return null;
+    }
+
+    //bytea hex input format
+    private static String bytea(byte[] value) {
+        return "\\x" + Hex.encodeHexString(value);
+    }
+
+    private static String csv(String value) {
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    private static class ImportCounts {
+        private long merged;
+        private long updated;
+        private long duplicate;
+        private long superseded;
+        private long invalid;
+
+        @Override
+        public String toString() {
+            return String.format("merged: %d, skipped as public key bound to other psu token: %d, " +
+                    "superseded by another entry of the same individual: %d, invalid: %d, other entries of the psu token updated: %d",
+                    merged, duplicate, superseded, invalid, updated);
+        }
+    }
+}
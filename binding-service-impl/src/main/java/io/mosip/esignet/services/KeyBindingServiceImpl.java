@@ -29,7 +29,6 @@ import org.jose4j.lang.JoseException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import io.mosip.esignet.entity.PublicKeyRegistry;
 import io.mosip.esignet.core.spi.KeyBindingService;
@@ -38,7 +37,6 @@ import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 @Service
-@Transactional
 public class KeyBindingServiceImpl implements KeyBindingService {
 
 	@Autowired
@@ -104,6 +102,7 @@ public class KeyBindingServiceImpl implements KeyBindingService {
 		}
 
 		//We will always keep this in binding-service control, as future features will be based on this registry.
+		//Only the registry update is transactional, no connection is held while the wrapper calls are in progress.
 		PublicKeyRegistry publicKeyRegistry = keyBindingHelperService.storeKeyBindingDetailsInRegistry(walletBindingRequest.getIndividualId(),
 				keyBindingResult.getPartnerSpecificUserToken(), publicKey, keyBindingResult.getCertificate(),
 				walletBindingRequest.getAuthFactorType());
@@ -0,0 +1,54 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.services;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.nimbusds.jwt.proc.ConfigurableJWTProcessor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WLA token processors keyed by public_key_hash. Entry of a public key hash is evicted when the key is bound again,
+ * entries expire after the configured time from their creation so that the processors on other nodes are also
+ * refreshed.
+ */
+@Component
+public class WLATokenProcessorCache {
+
+    @Value("${mosip.esignet.binding.verifier-cache.size:10000}")
+    private int verifierCacheSize;
+
+    @Value("${mosip.esignet.binding.verifier-cache.expire-in-seconds:3600}")
+    private int verifierCacheExpireInSeconds;
+
+    private Cache<String, ConfigurableJWTProcessor> processors;
+
+    @PostConstruct
+    public void init() {
+        processors = CacheBuilder.newBuilder()
+                .maximumSize(verifierCacheSize)
+                .expireAfterWrite(verifierCacheExpireInSeconds, TimeUnit.SECONDS)
+                .build();
+    }
+
+    public ConfigurableJWTProcessor get(String publicKeyHash, Callable<ConfigurableJWTProcessor> loader) throws ExecutionException {
+        return processors.get(publicKeyHash, loader);
+    }
+
+    public void evict(String publicKeyHash) {
+        processors.invalidate(publicKeyHash);
+    }
+
+    public long size() {
+        return processors.size();
+    }
+}
@@ -9,12 +9,13 @@ import io.mosip.esignet.entity.PublicKeyRegistry;
 import io.mosip.esignet.repository.PublicKeyRegistryRepository;
 import io.mosip.esignet.api.dto.AuthChallenge;
 import io.mosip.esignet.core.exception.EsignetException;
+import io.mosip.esignet.core.constants.Constants;
 import io.mosip.esignet.core.constants.ErrorConstants;
 import io.mosip.esignet.core.util.IdentityProviderUtil;
 import io.mosip.esignet.services.BindingValidatorServiceImpl;
 import io.mosip.esignet.services.KeyBindingHelperService;
+import io.mosip.esignet.services.WLATokenProcessorCache;
 import io.mosip.kernel.keymanagerservice.util.KeymanagerUtil;
-import org.bouncycastle.openssl.jcajce.JcaPEMWriter;
 import org.bouncycastle.x509.X509V3CertificateGenerator;
 import org.jose4j.jws.JsonWebSignature;
 import org.json.simple.JSONObject;
@@ -26,14 +27,15 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import javax.security.auth.x500.X500Principal;
-import java.io.IOException;
-import java.io.StringWriter;
 import java.math.BigInteger;
 import java.security.cert.X509Certificate;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.Arrays;
 import java.util.Date;
 
@@ -41,6 +43,8 @@ import static io.mosip.esignet.KeyBindingServiceTest.generateJWK_RSA;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -58,6 +62,8 @@ public class BindingValidatorServiceImplTest {
     @Mock
     KeymanagerUtil keymanagerUtil;
 
+    private WLATokenProcessorCache wlaTokenProcessorCache = new WLATokenProcessorCache();
+
     private JWK clientJWK = generateJWK_RSA();
 
     private String audienceId = "esignet-binding";
@@ -66,6 +72,11 @@ public class BindingValidatorServiceImplTest {
     public void setUp() {
         MockitoAnnotations.initMocks(this);
         ReflectionTestUtils.setField(bindingValidatorServiceImpl, "bindingAudienceId", audienceId);
+        ReflectionTestUtils.setField(bindingValidatorServiceImpl, "cacheManager", new ConcurrentMapCacheManager(Constants.BINDINGS_CACHE));
+        ReflectionTestUtils.setField(wlaTokenProcessorCache, "verifierCacheSize", 10);
+        ReflectionTestUtils.setField(wlaTokenProcessorCache, "verifierCacheExpireInSeconds", 60);
+        wlaTokenProcessorCache.init();
+        ReflectionTestUtils.setField(bindingValidatorServiceImpl, "wlaTokenProcessorCache", wlaTokenProcessorCache);
 
         keyBindingHelperService = mock(KeyBindingHelperService.class);
         ReflectionTestUtils.setField(keyBindingHelperService, "saltLength", 10);
@@ -74,7 +85,6 @@ public class BindingValidatorServiceImplTest {
 
 		when(keyBindingHelperService.getIndividualIdHash(anyString())).thenReturn("id-hash");
         ReflectionTestUtils.setField(bindingValidatorServiceImpl, "keyBindingHelperService", keyBindingHelperService);
-		ReflectionTestUtils.setField(bindingValidatorServiceImpl, "keymanagerUtil", keymanagerUtil);
     }
 
     @Test
@@ -91,15 +101,142 @@ public class BindingValidatorServiceImplTest {
 
 		PublicKeyRegistry publicKeyRegistry = new PublicKeyRegistry("id-hash", "WLA", "test-psu-token", clientJWK.toJSONString(),
 				LocalDateTime.now().plusDays(4), "test-binding-id", "test-public-key-hash",
-				getPemData(certificate), LocalDateTime.now());
+				certificate.getEncoded(), certificate.getPublicKey().getEncoded(), LocalDateTime.now());
 		when(publicKeyRegistryRepository.findByIdHashAndAuthFactorInAndExpiredtimesGreaterThan(anyString(), any(), any()))
 				.thenReturn(Arrays.asList(publicKeyRegistry));
-		when(keymanagerUtil.convertToCertificate(anyString())).thenReturn(certificate);
 
 		BindingAuthResult bindingAuthResult = bindingValidatorServiceImpl.validateBindingAuth(transactionId, individualId, Arrays.asList(authChallenge));
 		Assert.assertEquals(bindingAuthResult.getTransactionId(), transactionId);
 	}
 
+	@Test
+	public void validateBinding_withoutPublicKeySpki_thenValidatedWithBoundPublicKey() throws Exception {
+		String transactionId = "909422113";
+		String individualId  = "8267411571";
+		AuthChallenge authChallenge = new AuthChallenge();
+		authChallenge.setAuthFactorType("WLA");
+		authChallenge.setFormat("jwt");
+
+		X509Certificate certificate = getCertificate(clientJWK);
+		authChallenge.setChallenge(signJwt(individualId, certificate, true));
+
+		PublicKeyRegistry publicKeyRegistry = new PublicKeyRegistry("id-hash", "WLA", "test-psu-token", clientJWK.toPublicJWK().toJSONString(),
+				LocalDateTime.now().plusDays(4), "test-binding-id", "test-public-key-hash",
+				certificate.getEncoded(), null, LocalDateTime.now());
+		when(publicKeyRegistryRepository.findByIdHashAndAuthFactorInAndExpiredtimesGreaterThan(anyString(), any(), any()))
+				.thenReturn(Arrays.asList(publicKeyRegistry));
+
+		BindingAuthResult bindingAuthResult = bindingValidatorServiceImpl.validateBindingAuth(transactionId, individualId, Arrays.asList(authChallenge));
+		Assert.assertEquals(transactionId, bindingAuthResult.getTransactionId());
+	}
+
+	@Test
+	public void validateBinding_withRepeatedLogin_thenProcessorBuiltOnce() throws Exception {
+		String individualId  = "8267411571";
+		X509Certificate certificate = getCertificate(clientJWK);
+		PublicKeyRegistry publicKeyRegistry = new PublicKeyRegistry("id-hash", "WLA", "test-psu-token", clientJWK.toJSONString(),
+				LocalDateTime.now().plusDays(4), "test-binding-id", "test-public-key-hash",
+				certificate.getEncoded(), certificate.getPublicKey().getEncoded(), LocalDateTime.now());
+		when(publicKeyRegistryRepository.findByIdHashAndAuthFactorInAndExpiredtimesGreaterThan(anyString(), any(), any()))
+				.thenReturn(Arrays.asList(publicKeyRegistry));
+
+		for(String transactionId : Arrays.asList("909422113", "909422114")) {
+			AuthChallenge authChallenge = new AuthChallenge();
+			authChallenge.setAuthFactorType("WLA");
+			authChallenge.setFormat("jwt");
+			authChallenge.setChallenge(signJwt(individualId, certificate, true));
+			BindingAuthResult bindingAuthResult = bindingValidatorServiceImpl.validateBindingAuth(transactionId, individualId, Arrays.asList(authChallenge));
+			Assert.assertEquals(transactionId, bindingAuthResult.getTransactionId());
+		}
+		Assert.assertEquals(1, wlaTokenProcessorCache.size());
+
+		//claims are still verified per request on the cached processor
+		AuthChallenge authChallenge = new AuthChallenge();
+		authChallenge.setAuthFactorType("WLA");
+		authChallenge.setFormat("jwt");
+		authChallenge.setChallenge(signJwt("other-individual-id", certificate, true));
+		try {
+			bindingValidatorServiceImpl.validateBindingAuth("909422115", individualId, Arrays.asList(authChallenge));
+			Assert.fail();
+		} catch (KycAuthException e) {
+			Assert.assertEquals(ErrorConstants.INVALID_CHALLENGE, e.getErrorCode());
+		}
+	}
+
+	@Test
+	public void validateBinding_withCachedBinding_thenRegistryNotQueried() throws Exception {
+		String individualId  = "8267411571";
+		X509Certificate certificate = getCertificate(clientJWK);
+		PublicKeyRegistry publicKeyRegistry = new PublicKeyRegistry("id-hash", "WLA", "test-psu-token", clientJWK.toJSONString(),
+				LocalDateTime.now().plusDays(4), "test-binding-id", "test-public-key-hash",
+				certificate.getEncoded(), certificate.getPublicKey().getEncoded(), LocalDateTime.now());
+		when(publicKeyRegistryRepository.findByIdHashAndAuthFactorInAndExpiredtimesGreaterThan(anyString(), any(), any()))
+				.thenReturn(Arrays.asList(publicKeyRegistry));
+
+		for(String transactionId : Arrays.asList("909422113", "909422114")) {
+			AuthChallenge authChallenge = new AuthChallenge();
+			authChallenge.setAuthFactorType("WLA");
+			authChallenge.setFormat("jwt");
+			authChallenge.setChallenge(signJwt(individualId, certificate, true));
+			bindingValidatorServiceImpl.validateBindingAuth(transactionId, individualId, Arrays.asList(authChallenge));
+		}
+		verify(publicKeyRegistryRepository, times(1)).findByIdHashAndAuthFactorInAndExpiredtimesGreaterThan(anyString(), any(), any());
+	}
+
+	@Test
+	public void validateBinding_withExpiredCachedBinding_thenRegistryQueried() throws Exception {
+		String individualId  = "8267411571";
+		X509Certificate certificate = getCertificate(clientJWK);
+		PublicKeyRegistry expiredEntry = new PublicKeyRegistry("id-hash", "WLA", "test-psu-token", clientJWK.toJSONString(),
+				LocalDateTime.now(ZoneOffset.UTC).minusMinutes(1), "test-binding-id", "test-public-key-hash",
+				certificate.getEncoded(), certificate.getPublicKey().getEncoded(), LocalDateTime.now());
+		CacheManager cacheManager = (CacheManager) ReflectionTestUtils.getField(bindingValidatorServiceImpl, "cacheManager");
+		cacheManager.getCache(Constants.BINDINGS_CACHE).put(KeyBindingHelperService.getBindingCacheKey("id-hash", "WLA"), expiredEntry);
+		when(publicKeyRegistryRepository.findByIdHashAndAuthFactorInAndExpiredtimesGreaterThan(anyString(), any(), any()))
+				.thenReturn(Arrays.asList());
+
+		AuthChallenge authChallenge = new AuthChallenge();
+		authChallenge.setAuthFactorType("WLA");
+		authChallenge.setFormat("jwt");
+		authChallenge.setChallenge(signJwt(individualId, certificate, true));
+		try {
+			bindingValidatorServiceImpl.validateBindingAuth("909422113", individualId, Arrays.asList(authChallenge));
+			Assert.fail();
+		} catch (KycAuthException e) {
+			Assert.assertEquals(ErrorConstants.KEY_BINDING_NOT_FOUND, e.getErrorCode());
+		}
+	}
+
+	@Test
+	public void validateBinding_withMultipleChallengesAndOneInvalid_thenFail() throws Exception {
+		String individualId  = "8267411571";
+		X509Certificate certificate = getCertificate(clientJWK);
+		AuthChallenge wlaChallenge = new AuthChallenge();
+		wlaChallenge.setAuthFactorType("WLA");
+		wlaChallenge.setFormat("jwt");
+		wlaChallenge.setChallenge(signJwt(individualId, certificate, true));
+		AuthChallenge pinChallenge = new AuthChallenge();
+		pinChallenge.setAuthFactorType("PIN");
+		pinChallenge.setFormat("number");
+		pinChallenge.setChallenge("111111");
+
+		PublicKeyRegistry wlaEntry = new PublicKeyRegistry("id-hash", "WLA", "test-psu-token", clientJWK.toJSONString(),
+				LocalDateTime.now().plusDays(4), "test-binding-id", "test-public-key-hash",
+				certificate.getEncoded(), certificate.getPublicKey().getEncoded(), LocalDateTime.now());
+		PublicKeyRegistry pinEntry = new PublicKeyRegistry("id-hash", "PIN", "test-psu-token", clientJWK.toJSONString(),
+				LocalDateTime.now().plusDays(4), "test-binding-id", "test-public-key-hash",
+				certificate.getEncoded(), certificate.getPublicKey().getEncoded(), LocalDateTime.now());
+		when(publicKeyRegistryRepository.findByIdHashAndAuthFactorInAndExpiredtimesGreaterThan(anyString(), any(), any()))
+				.thenReturn(Arrays.asList(wlaEntry, pinEntry));
+
+		try {
+			bindingValidatorServiceImpl.validateBindingAuth("909422113", individualId, Arrays.asList(wlaChallenge, pinChallenge));
+			Assert.fail();
+		} catch (KycAuthException e) {
+			Assert.assertEquals(ErrorConstants.INVALID_CHALLENGE, e.getErrorCode());
+		}
+	}
+
 	@Test
 	public void validateBinding_withInvalidSha256Thumbprint_thenFail() throws Exception {
 		String transactionId = "909422113";
@@ -118,10 +255,9 @@ public class BindingValidatorServiceImplTest {
 
 		PublicKeyRegistry publicKeyRegistry = new PublicKeyRegistry("id-hash", "WLA", "test-psu-token", clientJWK.toJSONString(),
 				LocalDateTime.now().plusDays(4), "test-binding-id", "test-public-key-hash",
-				getPemData(certificate), LocalDateTime.now());
+				certificate.getEncoded(), certificate.getPublicKey().getEncoded(), LocalDateTime.now());
 		when(publicKeyRegistryRepository.findByIdHashAndAuthFactorInAndExpiredtimesGreaterThan(anyString(), any(), any()))
 				.thenReturn(Arrays.asList(publicKeyRegistry));
-		when(keymanagerUtil.convertToCertificate(anyString())).thenReturn(certificate);
 
 		try {
 			bindingValidatorServiceImpl.validateBindingAuth(transactionId, individualId, Arrays.asList(authChallenge));
@@ -131,6 +267,31 @@ public class BindingValidatorServiceImplTest {
 		}
 	}
 
+	@Test
+	public void validateBinding_withOtherCertificateThumbprint_thenFail() throws Exception {
+		String individualId  = "8267411571";
+		X509Certificate certificate = getCertificate(clientJWK);
+		Thread.sleep(5); //serial number is based on the current time
+		X509Certificate otherCertificate = getCertificate(clientJWK);
+		AuthChallenge authChallenge = new AuthChallenge();
+		authChallenge.setAuthFactorType("WLA");
+		authChallenge.setFormat("jwt");
+		authChallenge.setChallenge(signJwt(individualId, otherCertificate, true));
+
+		PublicKeyRegistry publicKeyRegistry = new PublicKeyRegistry("id-hash", "WLA", "test-psu-token", clientJWK.toJSONString(),
+				LocalDateTime.now().plusDays(4), "test-binding-id", "test-public-key-hash",
+				certificate.getEncoded(), certificate.getPublicKey().getEncoded(), LocalDateTime.now());
+		when(publicKeyRegistryRepository.findByIdHashAndAuthFactorInAndExpiredtimesGreaterThan(anyString(), any(), any()))
+				.thenReturn(Arrays.asList(publicKeyRegistry));
+
+		try {
+			bindingValidatorServiceImpl.validateBindingAuth("909422113", individualId, Arrays.asList(authChallenge));
+			Assert.fail();
+		} catch (KycAuthException e) {
+			Assert.assertEquals(ErrorConstants.INVALID_CHALLENGE, e.getErrorCode());
+		}
+	}
+
 	@Test
 	public void validateBinding_withoutSha256Thumbprint_thenFail() throws Exception {
 		String transactionId = "909422113";
@@ -145,10 +306,9 @@ public class BindingValidatorServiceImplTest {
 
 		PublicKeyRegistry publicKeyRegistry = new PublicKeyRegistry("id-hash", "WLA", "test-psu-token", clientJWK.toJSONString(),
 				LocalDateTime.now().plusDays(4), "test-binding-id", "test-public-key-hash",
-				getPemData(certificate), LocalDateTime.now());
+				certificate.getEncoded(), certificate.getPublicKey().getEncoded(), LocalDateTime.now());
 		when(publicKeyRegistryRepository.findByIdHashAndAuthFactorInAndExpiredtimesGreaterThan(anyString(), any(), any()))
 				.thenReturn(Arrays.asList(publicKeyRegistry));
-		when(keymanagerUtil.convertToCertificate(anyString())).thenReturn(certificate);
 
 		try {
 			bindingValidatorServiceImpl.validateBindingAuth(transactionId, individualId, Arrays.asList(authChallenge));
@@ -181,7 +341,7 @@ public class BindingValidatorServiceImplTest {
 	public void validateBinding_withUnBoundAuthFactors_thenFail() throws EsignetException {
 		PublicKeyRegistry publicKeyRegistry = new PublicKeyRegistry("id-hash", "WLA", "test-psu-token", clientJWK.toJSONString(),
 				LocalDateTime.now().plusDays(4), "test-binding-id", "test-public-key-hash",
-				"certificate", LocalDateTime.now());
+				"certificate".getBytes(), "public-key-spki".getBytes(), LocalDateTime.now());
 		when(publicKeyRegistryRepository.findByIdHashAndAuthFactorInAndExpiredtimesGreaterThan(anyString(), any(), any())).thenReturn(Arrays.asList(publicKeyRegistry));
 
 		String transactionId = "909422113";
@@ -207,7 +367,7 @@ public class BindingValidatorServiceImplTest {
 	public void validateBinding_withInvalidChallenge_thenFail() throws EsignetException {
         PublicKeyRegistry publicKeyRegistry = new PublicKeyRegistry("id-hash", "WLA", "test-psu-token", clientJWK.toJSONString(),
                 LocalDateTime.now().plusDays(4), "test-binding-id", "test-public-key-hash",
-                "certificate", LocalDateTime.now());
+                "certificate".getBytes(), "public-key-spki".getBytes(), LocalDateTime.now());
         when(publicKeyRegistryRepository.findByIdHashAndAuthFactorInAndExpiredtimesGreaterThan(anyString(), any(), any())).thenReturn(Arrays.asList(publicKeyRegistry));
 
 		String transactionId = "909422113";
@@ -257,13 +417,4 @@ public class BindingValidatorServiceImplTest {
 		jwSign.setDoKeyValidation(false);
 		return jwSign.getCompactSerialization();
 	}
-
-	private String getPemData(Object anyObject) throws IOException {
-		StringWriter stringWriter = new StringWriter();
-		try (JcaPEMWriter pemWriter = new JcaPEMWriter(stringWriter)) {
-			pemWriter.writeObject(anyObject);
-			pemWriter.flush();
-			return stringWriter.toString();
-		}
-	}
 }
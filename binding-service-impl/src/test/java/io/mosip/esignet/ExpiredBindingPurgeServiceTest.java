@@ -0,0 +1,120 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.mosip.esignet.repository.PublicKeyRegistryRepository;
+import io.mosip.esignet.services.ExpiredBindingPurgeService;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ExpiredBindingPurgeServiceTest {
+
+    @InjectMocks
+    private ExpiredBindingPurgeService expiredBindingPurgeService;
+
+    @Mock
+    private PublicKeyRegistryRepository publicKeyRegistryRepository;
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private Statement statement;
+
+    @Mock
+    private ResultSet resultSet;
+
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Before
+    public void setUp() throws Exception {
+        ReflectionTestUtils.setField(expiredBindingPurgeService, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(expiredBindingPurgeService, "batchSize", 2);
+        ReflectionTestUtils.setField(expiredBindingPurgeService, "retentionDays", 7);
+        ReflectionTestUtils.invokeMethod(expiredBindingPurgeService, "init");
+
+        Mockito.when(dataSource.getConnection()).thenReturn(connection);
+        Mockito.when(connection.createStatement()).thenReturn(statement);
+        Mockito.when(statement.executeQuery(Mockito.contains("pg_try_advisory_lock"))).thenReturn(resultSet);
+        Mockito.when(resultSet.next()).thenReturn(true);
+        Mockito.when(resultSet.getBoolean(1)).thenReturn(true);
+    }
+
+    @Test
+    public void purgeExpiredBindings_withMultipleBatches_thenPurgeAll() throws Exception {
+        LocalDateTime oldest = LocalDateTime.now().minusDays(30);
+        LocalDateTime firstBatchEnd = oldest.plusDays(5);
+        Mockito.when(publicKeyRegistryRepository.findOldestExpiredtimes(Mockito.any())).thenReturn(oldest);
+        Mockito.when(publicKeyRegistryRepository.findExpiredtimes(Mockito.any(), Mockito.any(), Mockito.any(Pageable.class)))
+                .thenReturn(Arrays.asList(firstBatchEnd), Collections.emptyList());
+        Mockito.when(publicKeyRegistryRepository.deleteExpiredEntries(Mockito.any(), Mockito.any(), Mockito.any()))
+                .thenReturn(3, 1);
+
+        expiredBindingPurgeService.purgeExpiredBindings();
+
+        ArgumentCaptor<LocalDateTime> expiredAfter = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> expiredUpTo = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> expiredBefore = ArgumentCaptor.forClass(LocalDateTime.class);
+        Mockito.verify(publicKeyRegistryRepository, Mockito.times(2)).deleteExpiredEntries(expiredAfter.capture(),
+                expiredUpTo.capture(), expiredBefore.capture());
+        Assert.assertTrue(expiredAfter.getAllValues().get(0).isBefore(oldest));
+        Assert.assertEquals(firstBatchEnd, expiredUpTo.getAllValues().get(0));
+        //Next batch starts after the expiry the previous batch ended with, last batch ends with the purge cutoff
+        Assert.assertEquals(firstBatchEnd, expiredAfter.getAllValues().get(1));
+        Assert.assertEquals(expiredBefore.getAllValues().get(1), expiredUpTo.getAllValues().get(1));
+        Assert.assertEquals(4, meterRegistry.counter("esignet.binding.purge.entries").count(), 0);
+        Assert.assertEquals(4, meterRegistry.get("esignet.binding.purge.last-run.entries").gauge().value(), 0);
+        Mockito.verify(statement).execute(Mockito.contains("pg_advisory_unlock"));
+        Mockito.verify(connection).close();
+    }
+
+    @Test
+    public void purgeExpiredBindings_withNoExpiredEntries_thenNoDelete() throws Exception {
+        Mockito.when(publicKeyRegistryRepository.findOldestExpiredtimes(Mockito.any())).thenReturn(null);
+
+        expiredBindingPurgeService.purgeExpiredBindings();
+
+        Mockito.verify(publicKeyRegistryRepository, Mockito.never()).deleteExpiredEntries(Mockito.any(), Mockito.any(), Mockito.any());
+        Assert.assertEquals(0, meterRegistry.get("esignet.binding.purge.last-run.entries").gauge().value(), 0);
+        Assert.assertTrue(meterRegistry.get("esignet.binding.purge.last-run.timestamp").gauge().value() > 0);
+        Mockito.verify(statement).execute(Mockito.contains("pg_advisory_unlock"));
+    }
+
+    @Test
+    public void purgeExpiredBindings_withLockHeldByOtherReplica_thenSkipped() throws Exception {
+        Mockito.when(resultSet.getBoolean(1)).thenReturn(false);
+
+        expiredBindingPurgeService.purgeExpiredBindings();
+
+        Mockito.verifyNoInteractions(publicKeyRegistryRepository);
+        Mockito.verify(statement, Mockito.never()).execute(Mockito.anyString());
+        Assert.assertEquals(0, meterRegistry.get("esignet.binding.purge.last-run.timestamp").gauge().value(), 0);
+        Mockito.verify(connection).close();
+    }
+}
@@ -3,21 +3,27 @@ package io.mosip.esignet;
 import com.nimbusds.jose.jwk.JWK;
 import com.nimbusds.jose.jwk.KeyUse;
 import com.nimbusds.jose.jwk.RSAKey;
+import io.mosip.esignet.core.constants.Constants;
 import io.mosip.esignet.core.exception.EsignetException;
 import io.mosip.esignet.entity.PublicKeyRegistry;
 import io.mosip.esignet.repository.PublicKeyRegistryRepository;
 import io.mosip.esignet.services.KeyBindingHelperService;
+import io.mosip.esignet.services.WLATokenProcessorCache;
 import io.mosip.kernel.keymanagerservice.util.KeymanagerUtil;
 import org.bouncycastle.x509.X509V3CertificateGenerator;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import javax.security.auth.x500.X500Principal;
@@ -27,8 +33,9 @@ import java.security.KeyPairGenerator;
 import java.security.cert.X509Certificate;
 import java.security.interfaces.RSAPrivateKey;
 import java.security.interfaces.RSAPublicKey;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
-import java.util.Optional;
 import java.util.UUID;
 
 import static io.mosip.esignet.core.constants.ErrorConstants.DUPLICATE_PUBLIC_KEY;
@@ -45,10 +52,16 @@ public class KeyBindingHelperServiceTest {
     @Mock
     private PublicKeyRegistryRepository publicKeyRegistryRepository;
 
+    @Mock
+    private WLATokenProcessorCache wlaTokenProcessorCache;
+
+    private CacheManager cacheManager = new ConcurrentMapCacheManager(Constants.BINDINGS_CACHE);
+
     @Before
     public void setUp() {
         MockitoAnnotations.initMocks(this);
         ReflectionTestUtils.setField(keyBindingHelperService, "saltLength", 10);
+        ReflectionTestUtils.setField(keyBindingHelperService, "cacheManager", cacheManager);
     }
 
     @Test
@@ -59,25 +72,35 @@ public class KeyBindingHelperServiceTest {
     @Test
     public void storeKeyBindingDetailsInRegistry_withValidValue_thenPass() throws Exception {
         X509Certificate certificate = getCertificate(generateJWK_RSA());
-        Mockito.when(publicKeyRegistryRepository
-                .findOptionalByPublicKeyHashAndPsuTokenNot(Mockito.anyString(), Mockito.anyString())).thenReturn(Optional.empty());
         Mockito.when(keymanagerUtil.convertToCertificate(Mockito.anyString())).thenReturn(certificate);
-        PublicKeyRegistry publicKeyRegistry = new PublicKeyRegistry();
-        publicKeyRegistry.setWalletBindingId("wallet-binding-id");
-        Mockito.when(publicKeyRegistryRepository.findLatestByPsuTokenAndAuthFactor(Mockito.anyString(),
-                Mockito.anyString())).thenReturn(Optional.of(publicKeyRegistry));
-        Mockito.when(publicKeyRegistryRepository.save(Mockito.any(PublicKeyRegistry.class))).thenReturn(publicKeyRegistry);
-
-        publicKeyRegistry = keyBindingHelperService.storeKeyBindingDetailsInRegistry("individualId", "psut", "publicKey",
+        Mockito.when(publicKeyRegistryRepository.upsertPublicKeyRegistry(Mockito.anyString(), Mockito.anyString(),
+                Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.any(), Mockito.any(byte[].class),
+                Mockito.any(byte[].class), Mockito.anyString(), Mockito.any())).thenAnswer(invocation -> Arrays.asList(
+                        new Object[]{invocation.getArgument(0), "wallet-binding-id"}, new Object[]{"other-id-hash", "wallet-binding-id"}));
+        Cache bindingsCache = cacheManager.getCache(Constants.BINDINGS_CACHE);
+        bindingsCache.put(KeyBindingHelperService.getBindingCacheKey("other-id-hash", "WLA"), new PublicKeyRegistry());
+
+        PublicKeyRegistry publicKeyRegistry = keyBindingHelperService.storeKeyBindingDetailsInRegistry("individualId", "psut", "publicKey",
                 "certificate", "WLA");
         Assert.assertNotNull(publicKeyRegistry);
+        Assert.assertEquals("wallet-binding-id", publicKeyRegistry.getWalletBindingId());
+        Assert.assertEquals("psut", publicKeyRegistry.getPsuToken());
+        Assert.assertNotNull(publicKeyRegistry.getExpiredtimes());
+        Assert.assertArrayEquals(certificate.getEncoded(), publicKeyRegistry.getCertificate());
+        Assert.assertArrayEquals(certificate.getPublicKey().getEncoded(), publicKeyRegistry.getPublicKeySpki());
+        Mockito.verify(wlaTokenProcessorCache, Mockito.atLeastOnce()).evict(publicKeyRegistry.getPublicKeyHash());
+        Assert.assertEquals(publicKeyRegistry, bindingsCache.get(KeyBindingHelperService.getBindingCacheKey(publicKeyRegistry.getIdHash(), "WLA"),
+                PublicKeyRegistry.class));
+        Assert.assertNull(bindingsCache.get(KeyBindingHelperService.getBindingCacheKey("other-id-hash", "WLA")));
     }
 
     @Test
-    public void storeKeyBindingDetailsInRegistry_withDuplicatePublicKey_thenFail() {
-        PublicKeyRegistry publicKeyRegistry = new PublicKeyRegistry();
-        Mockito.when(publicKeyRegistryRepository
-                .findOptionalByPublicKeyHashAndPsuTokenNot(Mockito.anyString(), Mockito.anyString())).thenReturn(Optional.of(publicKeyRegistry));
+    public void storeKeyBindingDetailsInRegistry_withDuplicatePublicKey_thenFail() throws Exception {
+        X509Certificate certificate = getCertificate(generateJWK_RSA());
+        Mockito.when(keymanagerUtil.convertToCertificate(Mockito.anyString())).thenReturn(certificate);
+        Mockito.when(publicKeyRegistryRepository.upsertPublicKeyRegistry(Mockito.anyString(), Mockito.anyString(),
+                Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.any(), Mockito.any(byte[].class),
+                Mockito.any(byte[].class), Mockito.anyString(), Mockito.any())).thenReturn(Collections.emptyList());
         try {
             keyBindingHelperService.storeKeyBindingDetailsInRegistry("individualId", "psut", "publicKey",
                     "certificate", "WLA");
@@ -90,14 +113,17 @@ public class KeyBindingHelperServiceTest {
     @Test
     public void storeKeyBindingDetailsInRegistry_withFirstTimeBinding_thenPass() throws Exception {
         X509Certificate certificate = getCertificate(generateJWK_RSA());
-        Mockito.when(publicKeyRegistryRepository
-                .findOptionalByPublicKeyHashAndPsuTokenNot(Mockito.anyString(), Mockito.anyString())).thenReturn(Optional.empty());
         Mockito.when(keymanagerUtil.convertToCertificate(Mockito.anyString())).thenReturn(certificate);
-        Mockito.when(publicKeyRegistryRepository.findLatestByPsuTokenAndAuthFactor(Mockito.anyString(),
-                Mockito.anyString())).thenReturn(Optional.empty());
-        Mockito.when(publicKeyRegistryRepository.save(Mockito.any(PublicKeyRegistry.class))).thenReturn(new PublicKeyRegistry());
-        Assert.assertNotNull(keyBindingHelperService.storeKeyBindingDetailsInRegistry("individualId", "psut", "publicKey",
-                "certificate", "WLA"));
+        ArgumentCaptor<String> walletBindingIdCaptor = ArgumentCaptor.forClass(String.class);
+        Mockito.when(publicKeyRegistryRepository.upsertPublicKeyRegistry(Mockito.anyString(), Mockito.anyString(),
+                Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.any(), Mockito.any(byte[].class),
+                Mockito.any(byte[].class), walletBindingIdCaptor.capture(), Mockito.any())).thenAnswer(invocation -> Collections.singletonList(
+                        new Object[]{invocation.getArgument(0), invocation.getArgument(8)}));
+
+        PublicKeyRegistry publicKeyRegistry = keyBindingHelperService.storeKeyBindingDetailsInRegistry("individualId", "psut", "publicKey",
+                "certificate", "WLA");
+        Assert.assertNotNull(walletBindingIdCaptor.getValue());
+        Assert.assertEquals(walletBindingIdCaptor.getValue(), publicKeyRegistry.getWalletBindingId());
     }
 
     private X509Certificate getCertificate(JWK jwk) throws Exception {
@@ -0,0 +1,255 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.mosip.esignet.core.dto.KeyBindingImportRecord;
+import io.mosip.esignet.core.util.IdentityProviderUtil;
+import io.mosip.esignet.services.KeyBindingHelperService;
+import io.mosip.esignet.services.KeyBindingImportService;
+import io.mosip.kernel.keymanagerservice.util.KeymanagerUtil;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.PublicKey;
+import java.security.cert.X509Certificate;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static io.mosip.esignet.core.constants.Constants.BINDINGS_CACHE;
+import static io.mosip.esignet.core.util.IdentityProviderUtil.ALGO_SHA3_256;
+
+/**
+ * Runs the bulk key binding import (COPY into the staging table and the merge statements) against PostgreSQL.
+ * Tables are created with the DDL scripts of the release. Skipped when docker is not available, except on CI
+ * (CI environment variable set) where the build fails instead of leaving the import untested.
+ */
+public class KeyBindingImportServicePostgresTest {
+
+	private static final String[] DDL_SCRIPTS = {"../db_scripts/mosip_esignet/ddl/esignet-public_key_registry.sql",
+			"../db_scripts/mosip_esignet/ddl/esignet-public_key_registry_import.sql"};
+
+	private static PostgreSQLContainer<?> postgres;
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private KeyBindingImportService keyBindingImportService;
+
+	private DriverManagerDataSource dataSource;
+
+	private ObjectMapper objectMapper = new ObjectMapper();
+
+	@BeforeClass
+	public static void startPostgres() throws Exception {
+		Assume.assumeTrue("Docker is not available", System.getenv("CI") != null ||
+				DockerClientFactory.instance().isDockerAvailable());
+		postgres = new PostgreSQLContainer<>("postgres:13-alpine");
+		postgres.start();
+		try (Connection connection = DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(),
+				postgres.getPassword())) {
+			for (String script : DDL_SCRIPTS)
+				ScriptUtils.executeSqlScript(connection, new FileSystemResource(script));
+		}
+	}
+
+	@AfterClass
+	public static void stopPostgres() {
+		if (postgres != null)
+			postgres.stop();
+	}
+
+	@Before
+	public void setUp() throws Exception {
+		dataSource = new DriverManagerDataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+		try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+			statement.execute("TRUNCATE public_key_registry, public_key_registry_import");
+		}
+
+		KeymanagerUtil keymanagerUtil = Mockito.mock(KeymanagerUtil.class);
+		Mockito.when(keymanagerUtil.convertToCertificate(Mockito.anyString())).thenAnswer(invocation -> {
+			String pem = invocation.getArgument(0);
+			X509Certificate certificate = Mockito.mock(X509Certificate.class);
+			PublicKey publicKey = Mockito.mock(PublicKey.class);
+			Mockito.when(certificate.getNotAfter()).thenReturn(Date.from(LocalDateTime.now().plusDays(10).toInstant(ZoneOffset.UTC)));
+			Mockito.when(certificate.getEncoded()).thenReturn(("certificate_" + pem).getBytes());
+			Mockito.when(certificate.getPublicKey()).thenReturn(publicKey);
+			Mockito.when(publicKey.getEncoded()).thenReturn(("public_key_spki_" + pem).getBytes());
+			return certificate;
+		});
+		KeyBindingHelperService keyBindingHelperService = Mockito.mock(KeyBindingHelperService.class);
+		Mockito.when(keyBindingHelperService.getIndividualIdHash(Mockito.anyString()))
+				.thenAnswer(invocation -> "id_hash_" + invocation.getArgument(0));
+		Mockito.when(keyBindingHelperService.generateWalletBindingId(Mockito.anyString()))
+				.thenAnswer(invocation -> "wallet_binding_id_" + invocation.getArgument(0));
+
+		keyBindingImportService = new KeyBindingImportService();
+		ReflectionTestUtils.setField(keyBindingImportService, "dataSource", dataSource);
+		ReflectionTestUtils.setField(keyBindingImportService, "objectMapper", objectMapper);
+		ReflectionTestUtils.setField(keyBindingImportService, "keymanagerUtil", keymanagerUtil);
+		ReflectionTestUtils.setField(keyBindingImportService, "keyBindingHelperService", keyBindingHelperService);
+		ReflectionTestUtils.setField(keyBindingImportService, "cacheManager", new ConcurrentMapCacheManager(BINDINGS_CACHE));
+		ReflectionTestUtils.setField(keyBindingImportService, "batchSize", 2);
+		ReflectionTestUtils.setField(keyBindingImportService, "parallelism", 2);
+	}
+
+	@Test
+	public void importBindings_withNewBindings_thenMerged() throws Exception {
+		Map<String, Object> publicKey1 = publicKey();
+		Path importFile = importFile(record("individual_1", "psu_token_1", publicKey1, "cert_1"), "{\"individualId\":",
+				record("individual_2", "psu_token_2", publicKey(), "cert_2"),
+				record("individual_3", "psu_token_3", publicKey(), "cert_3"));
+
+		Assert.assertEquals(3, keyBindingImportService.importBindings(importFile));
+
+		Map<String, Object> entry = find("id_hash_individual_1");
+		Assert.assertEquals("psu_token_1", entry.get("psu_token"));
+		Assert.assertEquals(IdentityProviderUtil.getJWKString(publicKey1), entry.get("public_key"));
+		Assert.assertEquals(publicKeyHash(publicKey1), entry.get("public_key_hash"));
+		Assert.assertEquals("wallet_binding_id_psu_token_1", entry.get("wallet_binding_id"));
+		Assert.assertArrayEquals("certificate_cert_1".getBytes(), (byte[]) entry.get("certificate"));
+		Assert.assertArrayEquals("public_key_spki_cert_1".getBytes(), (byte[]) entry.get("public_key_spki"));
+		Assert.assertNotNull(find("id_hash_individual_2"));
+		Assert.assertNotNull(find("id_hash_individual_3"));
+		Assert.assertEquals(0, count("public_key_registry_import"));
+	}
+
+	@Test
+	public void importBindings_withExistingEntryOfPsuToken_thenWalletBindingIdCarriedForwardAndOtherEntriesUpdated() throws Exception {
+		insert("id_hash_individual_1", "psu_token_1", publicKey(), "existing_wallet_binding_id");
+		Map<String, Object> publicKey = publicKey();
+		Path importFile = importFile(record("individual_2", "psu_token_1", publicKey, "cert_2"));
+
+		Assert.assertEquals(1, keyBindingImportService.importBindings(importFile));
+
+		Assert.assertEquals("existing_wallet_binding_id", find("id_hash_individual_2").get("wallet_binding_id"));
+		Map<String, Object> otherEntry = find("id_hash_individual_1");
+		Assert.assertEquals(IdentityProviderUtil.getJWKString(publicKey), otherEntry.get("public_key"));
+		Assert.assertEquals(publicKeyHash(publicKey), otherEntry.get("public_key_hash"));
+		Assert.assertArrayEquals("certificate_cert_2".getBytes(), (byte[]) otherEntry.get("certificate"));
+		Assert.assertEquals("existing_wallet_binding_id", otherEntry.get("wallet_binding_id"));
+	}
+
+	@Test
+	public void importBindings_withPublicKeyBoundToOtherPsuToken_thenSkipped() throws Exception {
+		Map<String, Object> boundPublicKey = publicKey();
+		insert("id_hash_individual_1", "psu_token_1", boundPublicKey, "existing_wallet_binding_id");
+		Map<String, Object> sharedPublicKey = publicKey();
+		//same public key for different psu tokens in one batch, then a public key already bound to other psu token
+		Path importFile = importFile(record("individual_3", "psu_token_3", sharedPublicKey, "cert_3"),
+				record("individual_4", "psu_token_4", sharedPublicKey, "cert_4"),
+				record("individual_2", "psu_token_2", boundPublicKey, "cert_2"));
+
+		Assert.assertEquals(0, keyBindingImportService.importBindings(importFile));
+
+		Assert.assertNull(find("id_hash_individual_2"));
+		Assert.assertNull(find("id_hash_individual_3"));
+		Assert.assertNull(find("id_hash_individual_4"));
+		Assert.assertEquals("psu_token_1", find("id_hash_individual_1").get("psu_token"));
+	}
+
+	@Test
+	public void importBindings_withRebindInLaterBatch_thenLatestKeyBound() throws Exception {
+		Map<String, Object> publicKey = publicKey();
+		Path importFile = importFile(record("individual_1", "psu_token_1", publicKey(), "cert_1"),
+				record("individual_2", "psu_token_2", publicKey(), "cert_2"),
+				record("individual_1", "psu_token_1", publicKey, "cert_3"));
+
+		Assert.assertEquals(3, keyBindingImportService.importBindings(importFile));
+
+		Map<String, Object> entry = find("id_hash_individual_1");
+		Assert.assertEquals(IdentityProviderUtil.getJWKString(publicKey), entry.get("public_key"));
+		Assert.assertEquals("wallet_binding_id_psu_token_1", entry.get("wallet_binding_id"));
+		Assert.assertEquals(2, count("public_key_registry"));
+	}
+
+	private Map<String, Object> publicKey() throws Exception {
+		return objectMapper.readValue(KeyBindingServiceTest.generateJWK_RSA().toPublicJWK().toJSONString(), HashMap.class);
+	}
+
+	private String record(String individualId, String psuToken, Map<String, Object> publicKey, String certificate)
+			throws Exception {
+		return objectMapper.writeValueAsString(new KeyBindingImportRecord(individualId, psuToken, "WLA", publicKey, certificate));
+	}
+
+	private Path importFile(String... lines) throws Exception {
+		Path importFile = temporaryFolder.newFile().toPath();
+		Files.write(importFile, List.of(lines), StandardCharsets.UTF_8);
+		return importFile;
+	}
+
+	private String publicKeyHash(Map<String, Object> publicKey) {
+		return IdentityProviderUtil.generateB64EncodedHash(ALGO_SHA3_256, IdentityProviderUtil.getJWKString(publicKey));
+	}
+
+	private void insert(String idHash, String psuToken, Map<String, Object> publicKey, String walletBindingId) throws Exception {
+		try (Connection connection = dataSource.getConnection();
+			 PreparedStatement statement = connection.prepareStatement("INSERT INTO public_key_registry (id_hash, auth_factor, " +
+					 "psu_token, public_key, expire_dtimes, wallet_binding_id, public_key_hash, certificate, public_key_spki, cr_dtimes) " +
+					 "VALUES (?, 'WLA', ?, ?, ?, ?, ?, ?, ?, ?)")) {
+			statement.setString(1, idHash);
+			statement.setString(2, psuToken);
+			statement.setString(3, IdentityProviderUtil.getJWKString(publicKey));
+			statement.setTimestamp(4, Timestamp.valueOf(LocalDateTime.now().plusDays(5)));
+			statement.setString(5, walletBindingId);
+			statement.setString(6, publicKeyHash(publicKey));
+			statement.setBytes(7, "certificate".getBytes());
+			statement.setBytes(8, "public_key_spki".getBytes());
+			statement.setTimestamp(9, Timestamp.valueOf(LocalDateTime.now()));
+			statement.executeUpdate();
+		}
+	}
+
+	private Map<String, Object> find(String idHash) throws Exception {
+		try (Connection connection = dataSource.getConnection();
+			 PreparedStatement statement = connection.prepareStatement("SELECT * FROM public_key_registry WHERE id_hash=? AND auth_factor='WLA'")) {
+			statement.setString(1, idHash);
+			try (ResultSet resultSet = statement.executeQuery()) {
+				if (!resultSet.next())
+					return null;
+				Map<String, Object> entry = new HashMap<>();
+				for (int i = 1; i <= resultSet.getMetaData().getColumnCount(); i++)
+					entry.put(resultSet.getMetaData().getColumnName(i), resultSet.getObject(i));
+				return entry;
+			}
+		}
+	}
+
+	private long count(String table) throws Exception {
+		try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement();
+			 ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM " + table)) {
+			resultSet.next();
+			return resultSet.getLong(1);
+		}
+	}
+}
@@ -0,0 +1,97 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nimbusds.jose.jwk.JWK;
+import io.mosip.esignet.services.KeyBindingHelperService;
+import io.mosip.esignet.services.KeyBindingImportService;
+import io.mosip.kernel.keymanagerservice.util.KeymanagerUtil;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.PublicKey;
+import java.security.cert.X509Certificate;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+@RunWith(MockitoJUnitRunner.class)
+public class KeyBindingImportServiceTest {
+
+    @InjectMocks
+    private KeyBindingImportService keyBindingImportService;
+
+    @Mock
+    private KeymanagerUtil keymanagerUtil;
+
+    @Mock
+    private KeyBindingHelperService keyBindingHelperService;
+
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    private JWK clientJWK = KeyBindingServiceTest.generateJWK_RSA();
+
+    @Before
+    public void setUp() {
+        ReflectionTestUtils.setField(keyBindingImportService, "objectMapper", objectMapper);
+    }
+
+    @Test
+    public void toStagingRow_withValidEntry_thenPass() throws Exception {
+        Map<String, Object> record = new HashMap<>();
+        record.put("individualId", "8267411571");
+        record.put("partnerSpecificUserToken", "psu\"token");
+        record.put("authFactorType", "WLA");
+        record.put("publicKey", objectMapper.readValue(clientJWK.toJSONString(), HashMap.class));
+        record.put("certificate", "-----BEGIN CERTIFICATE-----\ncert\n-----END CERTIFICATE-----");
+
+        X509Certificate certificate = Mockito.mock(X509Certificate.class);
+        PublicKey publicKey = Mockito.mock(PublicKey.class);
+        Mockito.when(certificate.getNotAfter()).thenReturn(new Date());
+        Mockito.when(certificate.getEncoded()).thenReturn(new byte[]{0x30, 0x01});
+        Mockito.when(certificate.getPublicKey()).thenReturn(publicKey);
+        Mockito.when(publicKey.getEncoded()).thenReturn(new byte[]{0x30, 0x02});
+        Mockito.when(keymanagerUtil.convertToCertificate(Mockito.anyString())).thenReturn(certificate);
+        Mockito.when(keyBindingHelperService.getIndividualIdHash("8267411571")).thenReturn("id-hash");
+        Mockito.when(keyBindingHelperService.generateWalletBindingId("psu\"token")).thenReturn("wallet-binding-id");
+
+        String row = ReflectionTestUtils.invokeMethod(keyBindingImportService, "toStagingRow",
+                objectMapper.writeValueAsString(record));
+        Assert.assertNotNull(row);
+        Assert.assertTrue(row.endsWith("\n"));
+        Assert.assertTrue(row.startsWith("\"id-hash\",\"WLA\",\"psu\"\"token\","));
+        Assert.assertTrue(row.contains("\"wallet-binding-id\""));
+        Assert.assertTrue(row.contains("\"\\x3001\",\"\\x3002\""));
+    }
+
+    @Test
+    public void toStagingRow_withInvalidEntry_thenSkip() {
+        Assert.assertNull(ReflectionTestUtils.invokeMethod(keyBindingImportService, "toStagingRow", "{\"individualId\":"));
+        Assert.assertNull(ReflectionTestUtils.invokeMethod(keyBindingImportService, "toStagingRow", "  "));
+    }
+
+    @Test
+    public void toStagingRow_withInvalidCertificate_thenSkip() throws Exception {
+        Map<String, Object> record = new HashMap<>();
+        record.put("individualId", "8267411571");
+        record.put("partnerSpecificUserToken", "psu-token");
+        record.put("authFactorType", "WLA");
+        record.put("publicKey", objectMapper.readValue(clientJWK.toJSONString(), HashMap.class));
+        record.put("certificate", "invalid");
+        Mockito.when(keymanagerUtil.convertToCertificate("invalid")).thenThrow(new RuntimeException("invalid certificate"));
+
+        Assert.assertNull(ReflectionTestUtils.invokeMethod(keyBindingImportService, "toStagingRow",
+                objectMapper.writeValueAsString(record)));
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet;
+
+import io.mosip.esignet.entity.PublicKeyRegistry;
+import io.mosip.esignet.entity.RegistryId;
+import io.mosip.esignet.repository.PublicKeyRegistryRepository;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Runs the native public_key_registry upsert against PostgreSQL, H2 does not support the data-modifying CTE and
+ * ON CONFLICT. Table is created with the DDL script of the release. Skipped when docker is not available, except on
+ * CI (CI environment variable set) where the build fails instead of leaving the upsert untested.
+ */
+@RunWith(SpringRunner.class)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class PublicKeyRegistryRepositoryPostgresTest {
+
+	private static final String DDL_SCRIPT = "../db_scripts/mosip_esignet/ddl/esignet-public_key_registry.sql";
+
+	private static PostgreSQLContainer<?> postgres;
+
+	@Autowired
+	private PublicKeyRegistryRepository publicKeyRegistryRepository;
+
+	@Autowired
+	private TestEntityManager testEntityManager;
+
+	@BeforeClass
+	public static void startPostgres() throws Exception {
+		Assume.assumeTrue("Docker is not available", System.getenv("CI") != null ||
+				DockerClientFactory.instance().isDockerAvailable());
+		postgres = new PostgreSQLContainer<>("postgres:13-alpine");
+		postgres.start();
+		try (Connection connection = DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(),
+				postgres.getPassword())) {
+			ScriptUtils.executeSqlScript(connection, new FileSystemResource(DDL_SCRIPT));
+		}
+	}
+
+	@AfterClass
+	public static void stopPostgres() {
+		if (postgres != null)
+			postgres.stop();
+	}
+
+	@DynamicPropertySource
+	static void datasourceProperties(DynamicPropertyRegistry registry) {
+		registry.add("spring.datasource.url", () -> postgres.getJdbcUrl());
+		registry.add("spring.datasource.username", () -> postgres.getUsername());
+		registry.add("spring.datasource.password", () -> postgres.getPassword());
+		registry.add("spring.datasource.driverClassName", () -> "org.postgresql.Driver");
+	}
+
+	@Test
+	public void upsertPublicKeyRegistry_withFirstTimeBinding_thenInserted() {
+		List<Object[]> result = upsert("id_hash_1", "psu_token_1", "public_key_1", "wallet_binding_id_1");
+		Assert.assertEquals(1, result.size());
+		Assert.assertEquals("id_hash_1", result.get(0)[0]);
+		Assert.assertEquals("wallet_binding_id_1", result.get(0)[1]);
+
+		PublicKeyRegistry publicKeyRegistry = find("id_hash_1");
+		Assert.assertEquals("psu_token_1", publicKeyRegistry.getPsuToken());
+		Assert.assertEquals("public_key_1", publicKeyRegistry.getPublicKey());
+		Assert.assertArrayEquals("certificate_public_key_1".getBytes(), publicKeyRegistry.getCertificate());
+	}
+
+	@Test
+	public void upsertPublicKeyRegistry_withRebind_thenUpdatedWithSameWalletBindingId() {
+		upsert("id_hash_1", "psu_token_1", "public_key_1", "wallet_binding_id_1");
+
+		List<Object[]> result = upsert("id_hash_1", "psu_token_1", "public_key_2", "wallet_binding_id_2");
+		Assert.assertEquals(1, result.size());
+		Assert.assertEquals("wallet_binding_id_1", result.get(0)[1]);
+
+		PublicKeyRegistry publicKeyRegistry = find("id_hash_1");
+		Assert.assertEquals("public_key_2", publicKeyRegistry.getPublicKey());
+		Assert.assertEquals("public_key_hash_public_key_2", publicKeyRegistry.getPublicKeyHash());
+		Assert.assertEquals("wallet_binding_id_1", publicKeyRegistry.getWalletBindingId());
+	}
+
+	@Test
+	public void upsertPublicKeyRegistry_withOtherEntriesOfPsuToken_thenOtherEntriesUpdated() {
+		upsert("id_hash_1", "psu_token_1", "public_key_1", "wallet_binding_id_1");
+
+		List<Object[]> result = upsert("id_hash_2", "psu_token_1", "public_key_2", "wallet_binding_id_2");
+		Assert.assertEquals(2, result.size());
+		Assert.assertEquals("id_hash_2", result.get(0)[0]);
+		Assert.assertEquals("wallet_binding_id_1", result.get(0)[1]);
+		Assert.assertEquals("id_hash_1", result.get(1)[0]);
+
+		Assert.assertEquals("wallet_binding_id_1", find("id_hash_2").getWalletBindingId());
+		PublicKeyRegistry otherEntry = find("id_hash_1");
+		Assert.assertEquals("public_key_2", otherEntry.getPublicKey());
+		Assert.assertArrayEquals("certificate_public_key_2".getBytes(), otherEntry.getCertificate());
+	}
+
+	@Test
+	public void upsertPublicKeyRegistry_withPublicKeyBoundToOtherPsuToken_thenNothingWritten() {
+		upsert("id_hash_1", "psu_token_1", "public_key_1", "wallet_binding_id_1");
+		upsert("id_hash_2", "psu_token_2", "public_key_2", "wallet_binding_id_2");
+
+		Assert.assertTrue(upsert("id_hash_3", "psu_token_3", "public_key_1", "wallet_binding_id_3").isEmpty());
+		Assert.assertTrue(upsert("id_hash_2", "psu_token_2", "public_key_1", "wallet_binding_id_2").isEmpty());
+
+		Assert.assertFalse(publicKeyRegistryRepository.findById(new RegistryId("id_hash_3", "WLA")).isPresent());
+		Assert.assertEquals("public_key_2", find("id_hash_2").getPublicKey());
+		Assert.assertEquals("psu_token_1", find("id_hash_1").getPsuToken());
+	}
+
+	private List<Object[]> upsert(String idHash, String psuToken, String publicKey, String walletBindingId) {
+		List<Object[]> result = publicKeyRegistryRepository.upsertPublicKeyRegistry(idHash, "WLA", psuToken, publicKey,
+				"public_key_hash_" + publicKey, LocalDateTime.now().plusDays(10), ("certificate_" + publicKey).getBytes(),
+				("public_key_spki_" + publicKey).getBytes(), walletBindingId, LocalDateTime.now());
+		testEntityManager.clear();
+		return result;
+	}
+
+	private PublicKeyRegistry find(String idHash) {
+		return publicKeyRegistryRepository.findById(new RegistryId(idHash, "WLA")).get();
+	}
+}
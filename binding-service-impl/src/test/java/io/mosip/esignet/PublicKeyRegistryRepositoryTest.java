@@ -22,6 +22,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.junit4.SpringRunner;
 
 import io.mosip.esignet.entity.PublicKeyRegistry;
@@ -42,7 +43,8 @@ public class PublicKeyRegistryRepositoryTest {
 		publicKeyRegistry.setExpiredtimes(LocalDateTime.now().plus(5, ChronoUnit.DAYS));
 		publicKeyRegistry.setCreatedtimes(LocalDateTime.now());
 		publicKeyRegistry.setWalletBindingId("test_wallet_binding_id");
-		publicKeyRegistry.setCertificate("certificate");
+		publicKeyRegistry.setCertificate("certificate".getBytes());
+		publicKeyRegistry.setPublicKeySpki("public_key_spki".getBytes());
 		publicKeyRegistry.setAuthFactor("WLA");
 		publicKeyRegistry.setPublicKeyHash("test_public_key_hash");
 		publicKeyRegistryRepository.save(publicKeyRegistry);
@@ -81,6 +83,35 @@ public class PublicKeyRegistryRepositoryTest {
 		Assert.assertFalse(list.isEmpty());
 	}
 
+	@Test
+	public void findActiveBindings_thenOnlyValidationColumnsRead() {
+		PublicKeyRegistry publicKeyRegistry = new PublicKeyRegistry("test_id_hash", "WLA", "test_token",
+				"test_public_key", LocalDateTime.now().plus(5, ChronoUnit.DAYS), "test_wallet_binding_id",
+				"test_public_key_hash", "certificate".getBytes(), "public_key_spki".getBytes(), LocalDateTime.now());
+		publicKeyRegistryRepository.saveAndFlush(publicKeyRegistry);
+		publicKeyRegistryRepository.saveAndFlush(new PublicKeyRegistry("test_id_hash", "PIN", "test_token",
+				"test_public_key_2", LocalDateTime.now().plus(5, ChronoUnit.DAYS), "test_wallet_binding_id",
+				"test_public_key_hash_2", "certificate_2".getBytes(), null, LocalDateTime.now()));
+
+		List<PublicKeyRegistry> list = publicKeyRegistryRepository.findByIdHashAndAuthFactorInAndExpiredtimesGreaterThan("test_id_hash",
+				Set.of("WLA", "PIN"), LocalDateTime.now());
+		Assert.assertEquals(2, list.size());
+		PublicKeyRegistry withSpki = list.stream().filter(entry -> entry.getAuthFactor().equals("WLA")).findFirst().get();
+		Assert.assertEquals("test_id_hash", withSpki.getIdHash());
+		Assert.assertEquals("test_public_key_hash", withSpki.getPublicKeyHash());
+		Assert.assertNotNull(withSpki.getExpiredtimes());
+		Assert.assertArrayEquals("certificate".getBytes(), withSpki.getCertificate());
+		Assert.assertArrayEquals("public_key_spki".getBytes(), withSpki.getPublicKeySpki());
+		Assert.assertNull(withSpki.getPublicKey());
+		Assert.assertNull(withSpki.getPsuToken());
+		Assert.assertNull(withSpki.getWalletBindingId());
+		Assert.assertNull(withSpki.getCreatedtimes());
+
+		PublicKeyRegistry withoutSpki = list.stream().filter(entry -> entry.getAuthFactor().equals("PIN")).findFirst().get();
+		Assert.assertEquals("test_public_key_2", withoutSpki.getPublicKey());
+		Assert.assertNull(withoutSpki.getPublicKeySpki());
+	}
+
 	@Test
 	public void createPublicKeyRegistry_withBlankPsuToken_thenFail() {
 		PublicKeyRegistry publicKeyRegistry = new PublicKeyRegistry();
@@ -91,7 +122,8 @@ public class PublicKeyRegistryRepositoryTest {
 		publicKeyRegistry.setCreatedtimes(LocalDateTime.now());
 		publicKeyRegistry.setWalletBindingId("test_wallet_binding_id");
 		publicKeyRegistry.setPublicKeyHash("test_public_key_hash");
-		publicKeyRegistry.setCertificate("certificate");
+		publicKeyRegistry.setCertificate("certificate".getBytes());
+		publicKeyRegistry.setPublicKeySpki("public_key_spki".getBytes());
 		publicKeyRegistry.setAuthFactor("WLA");
 		try {
 			publicKeyRegistryRepository.save(publicKeyRegistry);
@@ -114,7 +146,8 @@ public class PublicKeyRegistryRepositoryTest {
 		publicKeyRegistry.setCreatedtimes(LocalDateTime.now());
 		publicKeyRegistry.setWalletBindingId("test_wallet_binding_id");
 		publicKeyRegistry.setPublicKeyHash("test_public_key_hash");
-		publicKeyRegistry.setCertificate("certificate");
+		publicKeyRegistry.setCertificate("certificate".getBytes());
+		publicKeyRegistry.setPublicKeySpki("public_key_spki".getBytes());
 		publicKeyRegistry.setAuthFactor("WLA");
 		try {
 			publicKeyRegistryRepository.save(publicKeyRegistry);
@@ -137,7 +170,8 @@ public class PublicKeyRegistryRepositoryTest {
 		publicKeyRegistry.setCreatedtimes(LocalDateTime.now());
 		publicKeyRegistry.setWalletBindingId("test_wallet_binding_id");
 		publicKeyRegistry.setPublicKeyHash("test_public_key_hash");
-		publicKeyRegistry.setCertificate("certificate");
+		publicKeyRegistry.setCertificate("certificate".getBytes());
+		publicKeyRegistry.setPublicKeySpki("public_key_spki".getBytes());
 		publicKeyRegistry.setAuthFactor("WLA");
 		try {
 			publicKeyRegistryRepository.save(publicKeyRegistry);
@@ -160,7 +194,8 @@ public class PublicKeyRegistryRepositoryTest {
 		publicKeyRegistry.setCreatedtimes(LocalDateTime.now());
 		publicKeyRegistry.setWalletBindingId("");
 		publicKeyRegistry.setPublicKeyHash("test_public_key_hash");
-		publicKeyRegistry.setCertificate("certificate");
+		publicKeyRegistry.setCertificate("certificate".getBytes());
+		publicKeyRegistry.setPublicKeySpki("public_key_spki".getBytes());
 		publicKeyRegistry.setAuthFactor("WLA");
 		try {
 			publicKeyRegistryRepository.save(publicKeyRegistry);
@@ -183,7 +218,8 @@ public class PublicKeyRegistryRepositoryTest {
 		publicKeyRegistry.setCreatedtimes(LocalDateTime.now());
 		publicKeyRegistry.setWalletBindingId(null);
 		publicKeyRegistry.setPublicKeyHash("test_public_key_hash");
-		publicKeyRegistry.setCertificate("certificate");
+		publicKeyRegistry.setCertificate("certificate".getBytes());
+		publicKeyRegistry.setPublicKeySpki("public_key_spki".getBytes());
 		publicKeyRegistry.setAuthFactor("WLA");
 		try {
 			publicKeyRegistryRepository.save(publicKeyRegistry);
@@ -207,6 +243,7 @@ public class PublicKeyRegistryRepositoryTest {
 		publicKeyRegistry.setWalletBindingId("test_wallet_binding_id");
 		publicKeyRegistry.setPublicKeyHash("test_public_key_hash");
 		publicKeyRegistry.setCertificate(null);
+		publicKeyRegistry.setPublicKeySpki("public_key_spki".getBytes());
 		publicKeyRegistry.setAuthFactor("WLA");
 		try {
 			publicKeyRegistryRepository.save(publicKeyRegistry);
@@ -229,7 +266,8 @@ public class PublicKeyRegistryRepositoryTest {
 		publicKeyRegistry.setCreatedtimes(LocalDateTime.now());
 		publicKeyRegistry.setWalletBindingId("test_wallet_binding_id");
 		publicKeyRegistry.setPublicKeyHash("test_public_key_hash");
-		publicKeyRegistry.setCertificate("certificate");
+		publicKeyRegistry.setCertificate("certificate".getBytes());
+		publicKeyRegistry.setPublicKeySpki("public_key_spki".getBytes());
 		publicKeyRegistry.setAuthFactor(null);
 		try {
 			publicKeyRegistryRepository.save(publicKeyRegistry);
@@ -252,7 +290,8 @@ public class PublicKeyRegistryRepositoryTest {
 		publicKeyRegistry.setCreatedtimes(LocalDateTime.now());
 		publicKeyRegistry.setWalletBindingId(null);
 		publicKeyRegistry.setPublicKeyHash("test_public_key_hash");
-		publicKeyRegistry.setCertificate("");
+		publicKeyRegistry.setCertificate(new byte[0]);
+		publicKeyRegistry.setPublicKeySpki("public_key_spki".getBytes());
 		publicKeyRegistry.setAuthFactor("WLA");
 		try {
 			publicKeyRegistryRepository.save(publicKeyRegistry);
@@ -266,85 +305,44 @@ public class PublicKeyRegistryRepositoryTest {
 	}
 
 	@Test
-	public void findWalletBindingIdWithPsuToken_withValidDetail_thenPass() {
-		String psu_token = "test_token";
-		PublicKeyRegistry publicKeyRegistry = new PublicKeyRegistry();
-		publicKeyRegistry.setIdHash("test_id_hash");
-		publicKeyRegistry.setPsuToken(psu_token);
-		publicKeyRegistry.setPublicKey("test_public_key");
-		publicKeyRegistry.setExpiredtimes(LocalDateTime.now());
-		publicKeyRegistry.setCreatedtimes(LocalDateTime.now());
-		publicKeyRegistry.setWalletBindingId("test_wallet_binding_id");
-		publicKeyRegistry.setPublicKeyHash("test_public_key_hash");
-		publicKeyRegistry.setCertificate("certificate");
-		publicKeyRegistry.setAuthFactor("WLA");
-		publicKeyRegistry = publicKeyRegistryRepository.save(publicKeyRegistry);
-		Assert.assertNotNull(publicKeyRegistry);
-
-		publicKeyRegistry = new PublicKeyRegistry();
-		publicKeyRegistry.setIdHash("test_id_hash_2");
-		publicKeyRegistry.setPsuToken(psu_token);
-		publicKeyRegistry.setPublicKey("test_public_key");
-		publicKeyRegistry.setExpiredtimes(LocalDateTime.now());
-		publicKeyRegistry.setCreatedtimes(LocalDateTime.now());
-		publicKeyRegistry.setWalletBindingId("test_wallet_binding_id");
-		publicKeyRegistry.setPublicKeyHash("test_public_key_hash");
-		publicKeyRegistry.setCertificate("certificate");
-		publicKeyRegistry.setAuthFactor("WLA");
-		publicKeyRegistry = publicKeyRegistryRepository.save(publicKeyRegistry);
-		Assert.assertNotNull(publicKeyRegistry);
-
-		Optional<PublicKeyRegistry> result = publicKeyRegistryRepository.findLatestByPsuTokenAndAuthFactor(psu_token, "WLA");
-		Assert.assertTrue(result.isPresent());
-
-		result = publicKeyRegistryRepository.findLatestByPsuTokenAndAuthFactor(psu_token+" ", "WLA");
-		Assert.assertFalse(result.isPresent());
-	}
-
-	@Test
-	public void findByPublicKeyHashWithPsuToken_withValidDetail_thenPass() {
-		PublicKeyRegistry publicKeyRegistry = new PublicKeyRegistry();
-		publicKeyRegistry.setIdHash("test_id_hash");
-		publicKeyRegistry.setPsuToken("test_token");
-		publicKeyRegistry.setPublicKey("test_public_key");
-		publicKeyRegistry.setExpiredtimes(LocalDateTime.now());
-		publicKeyRegistry.setCreatedtimes(LocalDateTime.now());
-		publicKeyRegistry.setWalletBindingId("test_wallet_binding_id");
-		publicKeyRegistry.setPublicKeyHash("test_public_key_hash");
-		publicKeyRegistry.setCertificate("certificate");
-		publicKeyRegistry.setAuthFactor("WLA");
-		publicKeyRegistry = publicKeyRegistryRepository.save(publicKeyRegistry);
-		Assert.assertNotNull(publicKeyRegistry);
+	public void deleteExpiredEntries_withExpiredAndActiveEntries_thenDeleteOnlyExpired() {
+		LocalDateTime now = LocalDateTime.now();
+		saveEntry("expired_id_hash", "WLA", "expired_token", now.minusDays(10));
+		saveEntry("expired_id_hash", "PIN", "expired_token", now.plusDays(10));
+		saveEntry("expired_id_hash_2", "WLA", "expired_token_2", now.minusDays(9));
+		saveEntry("active_id_hash", "WLA", "active_token", now.plusDays(10));
+		publicKeyRegistryRepository.flush();
 
-		Optional<PublicKeyRegistry> result = publicKeyRegistryRepository
-				.findOptionalByPublicKeyHashAndPsuTokenNot("test_public_key_hash", "test_token_2");
-		Assert.assertTrue(result.isPresent());
+		saveEntry("expired_id_hash_3", "WLA", "expired_token_3", now.minusDays(8));
+		publicKeyRegistryRepository.flush();
+		LocalDateTime expiredBefore = now.minusDays(7);
+
+		assertEquals(now.minusDays(10), publicKeyRegistryRepository.findOldestExpiredtimes(expiredBefore));
+		List<LocalDateTime> expiredtimes = publicKeyRegistryRepository.findExpiredtimes(now.minusDays(11), expiredBefore,
+				PageRequest.of(1, 1));
+		assertEquals(List.of(now.minusDays(9)), expiredtimes);
+
+		assertEquals(2, publicKeyRegistryRepository.deleteExpiredEntries(now.minusDays(11), now.minusDays(9), expiredBefore));
+		assertEquals(now.minusDays(8), publicKeyRegistryRepository.findOldestExpiredtimes(expiredBefore));
+		Assert.assertTrue(publicKeyRegistryRepository.findExpiredtimes(now.minusDays(8), expiredBefore, PageRequest.of(0, 1)).isEmpty());
+		assertEquals(1, publicKeyRegistryRepository.deleteExpiredEntries(now.minusDays(9), expiredBefore, expiredBefore));
+		Assert.assertNull(publicKeyRegistryRepository.findOldestExpiredtimes(expiredBefore));
+		Assert.assertTrue(publicKeyRegistryRepository.findById(new RegistryId("expired_id_hash", "PIN")).isPresent());
+		Assert.assertTrue(publicKeyRegistryRepository.findById(new RegistryId("active_id_hash", "WLA")).isPresent());
 	}
 
-	@Test
-	public void updatePublicKeyRegistry_withValidDetail_thenPass() {
+	private void saveEntry(String idHash, String authFactor, String psuToken, LocalDateTime expireDTimes) {
 		PublicKeyRegistry publicKeyRegistry = new PublicKeyRegistry();
-		publicKeyRegistry.setIdHash("test_id_hash");
-		publicKeyRegistry.setPsuToken("test_token");
+		publicKeyRegistry.setIdHash(idHash);
+		publicKeyRegistry.setAuthFactor(authFactor);
+		publicKeyRegistry.setPsuToken(psuToken);
 		publicKeyRegistry.setPublicKey("test_public_key");
-		publicKeyRegistry.setExpiredtimes(LocalDateTime.now());
+		publicKeyRegistry.setExpiredtimes(expireDTimes);
 		publicKeyRegistry.setCreatedtimes(LocalDateTime.now());
 		publicKeyRegistry.setWalletBindingId("test_wallet_binding_id");
-		publicKeyRegistry.setPublicKeyHash("test_public_key_hash");
-		publicKeyRegistry.setCertificate("certificate");
-		publicKeyRegistry.setAuthFactor("WLA");
+		publicKeyRegistry.setPublicKeyHash(psuToken+"_public_key_hash");
+		publicKeyRegistry.setCertificate("certificate".getBytes());
+		publicKeyRegistry.setPublicKeySpki("public_key_spki".getBytes());
 		publicKeyRegistryRepository.save(publicKeyRegistry);
-		publicKeyRegistryRepository.flush();
-		Assert.assertNotNull(publicKeyRegistry);
-		int updatedRows = publicKeyRegistryRepository.updatePublicKeyRegistry("test_public_key_updated",
-				"test_public_key_hash_updated",	LocalDateTime.now(), "test_token",
-				"certificate2", "WLA");
-		assertEquals(1, updatedRows);
-
-		updatedRows = publicKeyRegistryRepository.updatePublicKeyRegistry("test_public_key_updated",
-				"test_public_key_hash_updated",	LocalDateTime.now(), "test_token",
-				"certificate2", "WLQ");
-		assertEquals(0, updatedRows);
 	}
-
-}
\ No newline at end of file
+}
@@ -6,11 +6,16 @@ CREATE TABLE public_key_registry(
 	expire_dtimes timestamp NOT NULL,
 	wallet_binding_id character varying(256) NOT NULL,
 	public_key_hash character varying(100) NOT NULL,
-	certificate character varying NOT NULL,
+	certificate bytea NOT NULL,
+	public_key_spki bytea,
 	cr_dtimes timestamp NOT NULL,
 	CONSTRAINT pk_public_key_registry PRIMARY KEY (id_hash, auth_factor)
 );
 
+CREATE INDEX IF NOT EXISTS idx_pkr_psu_token_auth_factor ON public_key_registry (psu_token, auth_factor, expire_dtimes DESC);
+CREATE INDEX IF NOT EXISTS idx_pkr_public_key_hash ON public_key_registry (public_key_hash);
+CREATE INDEX IF NOT EXISTS idx_pkr_expire_dtimes ON public_key_registry (expire_dtimes);
+
 CREATE TABLE key_alias(
     id character varying(36) NOT NULL,
     app_id character varying(36) NOT NULL,
@@ -48,6 +48,10 @@ public class ClientDetail {
     @Column(name = "public_key", columnDefinition = "TEXT")
     private String publicKey;
 
+    @NotBlank(message = INVALID_PUBLIC_KEY)
+    @Column(name = "public_key_hash")
+    private String publicKeyHash;
+
     @NotBlank(message = INVALID_CLAIM)
     @Column(name = "claims")
     private String claims;
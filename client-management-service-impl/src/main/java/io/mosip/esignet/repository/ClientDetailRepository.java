@@ -19,4 +19,11 @@ public interface ClientDetailRepository extends JpaRepository<ClientDetail, Stri
      * @return
      */
     Optional<ClientDetail> findByIdAndStatus(String clientId, String status);
+
+    /**
+     * lookup client by the hash of its public key, backed by the unique index on public_key_hash
+     * @param publicKeyHash
+     * @return
+     */
+    Optional<ClientDetail> findByPublicKeyHash(String publicKeyHash);
 }
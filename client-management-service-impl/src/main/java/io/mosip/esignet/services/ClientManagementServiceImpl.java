@@ -38,6 +38,7 @@ import java.util.List;
 import java.util.Optional;
 
 import static io.mosip.esignet.core.constants.Constants.CLIENT_ACTIVE_STATUS;
+import static io.mosip.esignet.core.util.IdentityProviderUtil.ALGO_SHA3_256;
 
 @Slf4j
 @Service
@@ -65,9 +66,16 @@ public class ClientManagementServiceImpl implements ClientManagementService {
             throw new EsignetException(ErrorConstants.DUPLICATE_CLIENT_ID);
         }
 
+        String publicKey = IdentityProviderUtil.getJWKString(clientDetailCreateRequest.getPublicKey());
+        String publicKeyHash = IdentityProviderUtil.generateB64EncodedHash(ALGO_SHA3_256, publicKey);
+        if (clientDetailRepository.findByPublicKeyHash(publicKeyHash).isPresent()) {
+            throw new EsignetException(ErrorConstants.DUPLICATE_PUBLIC_KEY);
+        }
+
         ClientDetail clientDetail = new ClientDetail();
         clientDetail.setId(clientDetailCreateRequest.getClientId());
-        clientDetail.setPublicKey(IdentityProviderUtil.getJWKString(clientDetailCreateRequest.getPublicKey()));
+        clientDetail.setPublicKey(publicKey);
+        clientDetail.setPublicKeyHash(publicKeyHash);
         clientDetail.setName(clientDetailCreateRequest.getClientName());
         clientDetail.setRpId(clientDetailCreateRequest.getRelyingPartyId());
         clientDetail.setLogoUri(clientDetailCreateRequest.getLogoUri());
@@ -97,8 +105,8 @@ public class ClientManagementServiceImpl implements ClientManagementService {
             throw new EsignetException(ErrorConstants.DUPLICATE_PUBLIC_KEY);
         }
 
-        auditWrapper.logAudit(AuditHelper.getClaimValue(SecurityContextHolder.getContext(), claimName),
-        		Action.OIDC_CLIENT_CREATE, ActionStatus.SUCCESS, AuditHelper.buildAuditDto(clientDetailCreateRequest.getClientId()), null);
+        AuditHelper.logAudit(auditWrapper, AuditHelper.getClaimValue(SecurityContextHolder.getContext(), claimName),
+        		Action.OIDC_CLIENT_CREATE, ActionStatus.SUCCESS, () -> AuditHelper.buildAuditDto(clientDetailCreateRequest.getClientId()), null);
 
         var response = new ClientDetailResponse();
         response.setClientId(clientDetail.getId());
@@ -136,8 +144,8 @@ public class ClientManagementServiceImpl implements ClientManagementService {
         clientDetail.setUpdatedtimes(LocalDateTime.now(ZoneId.of("UTC")));
         clientDetail = clientDetailRepository.save(clientDetail);
 
-        auditWrapper.logAudit(AuditHelper.getClaimValue(SecurityContextHolder.getContext(), claimName),
-        		Action.OIDC_CLIENT_UPDATE, ActionStatus.SUCCESS, AuditHelper.buildAuditDto(clientId), null);
+        AuditHelper.logAudit(auditWrapper, AuditHelper.getClaimValue(SecurityContextHolder.getContext(), claimName),
+        		Action.OIDC_CLIENT_UPDATE, ActionStatus.SUCCESS, () -> AuditHelper.buildAuditDto(clientId), null);
 
         var response = new ClientDetailResponse();
         response.setClientId(clientDetail.getId());
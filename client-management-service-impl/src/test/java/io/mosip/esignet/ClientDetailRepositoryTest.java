@@ -36,6 +36,7 @@ public class ClientDetailRepositoryTest {
         clientDetail.setStatus("ACTIVE");
         clientDetail.setRedirectUris("[\"https://clientapp.com/home\",\"https://clientapp.com/home2\"]");
         clientDetail.setPublicKey("DUMMY PEM CERT");
+        clientDetail.setPublicKeyHash("DUMMY PEM CERT HASH");
         clientDetail.setRpId("RP01");
         clientDetail.setClaims("[]");
         clientDetail.setAcrValues("[]");
@@ -56,6 +57,12 @@ public class ClientDetailRepositoryTest {
 
         result = clientDetailRepository.findByIdAndStatus("C01", "INACTIVE");
         Assert.assertFalse(result.isPresent());
+
+        result = clientDetailRepository.findByPublicKeyHash("DUMMY PEM CERT HASH");
+        Assert.assertTrue(result.isPresent());
+
+        result = clientDetailRepository.findByPublicKeyHash("DUMMY PEM CERT");
+        Assert.assertFalse(result.isPresent());
     }
 
     @Test
@@ -67,6 +74,7 @@ public class ClientDetailRepositoryTest {
         clientDetail.setStatus("ACTIVE");
         clientDetail.setRedirectUris("[]");
         clientDetail.setPublicKey("DUMMY PEM CERT");
+        clientDetail.setPublicKeyHash("DUMMY PEM CERT HASH");
         clientDetail.setRpId("RP01");
         clientDetail.setClaims("[]");
         clientDetail.setAcrValues("[]");
@@ -92,6 +100,7 @@ public class ClientDetailRepositoryTest {
         clientDetail.setStatus("ACTIVE");
         clientDetail.setRedirectUris("[]");
         clientDetail.setPublicKey("");
+        clientDetail.setPublicKeyHash("DUMMY PEM CERT HASH");
         clientDetail.setRpId("RP01");
         clientDetail.setClaims("[]");
         clientDetail.setAcrValues("[]");
@@ -117,6 +126,7 @@ public class ClientDetailRepositoryTest {
         clientDetail.setStatus("ACTIVE");
         clientDetail.setRedirectUris("[]");
         clientDetail.setPublicKey(null);
+        clientDetail.setPublicKeyHash("DUMMY PEM CERT HASH");
         clientDetail.setRpId("RP01");
         clientDetail.setClaims("[]");
         clientDetail.setAcrValues("[]");
@@ -142,6 +152,7 @@ public class ClientDetailRepositoryTest {
         clientDetail.setStatus("ACTIVE");
         clientDetail.setRedirectUris("[]");
         clientDetail.setPublicKey("DUMMY PEM CERT");
+        clientDetail.setPublicKeyHash("DUMMY PEM CERT HASH");
         clientDetail.setRpId("RP01");
         clientDetail.setClaims("[]");
         clientDetail.setAcrValues("[]");
@@ -167,6 +178,7 @@ public class ClientDetailRepositoryTest {
         clientDetail.setStatus("ACTIVE");
         clientDetail.setRedirectUris("[]");
         clientDetail.setPublicKey("DUMMY PEM CERT");
+        clientDetail.setPublicKeyHash("DUMMY PEM CERT HASH");
         clientDetail.setRpId(" ");
         clientDetail.setClaims("[]");
         clientDetail.setAcrValues("[]");
@@ -192,6 +204,7 @@ public class ClientDetailRepositoryTest {
         clientDetail.setStatus("ACTIVE");
         clientDetail.setRedirectUris(" ");
         clientDetail.setPublicKey("DUMMY PEM CERT");
+        clientDetail.setPublicKeyHash("DUMMY PEM CERT HASH");
         clientDetail.setRpId("RP_ID");
         clientDetail.setClaims("[]");
         clientDetail.setAcrValues("[]");
@@ -217,6 +230,7 @@ public class ClientDetailRepositoryTest {
         clientDetail.setStatus("");
         clientDetail.setRedirectUris("[]]");
         clientDetail.setPublicKey("DUMMY PEM CERT");
+        clientDetail.setPublicKeyHash("DUMMY PEM CERT HASH");
         clientDetail.setRpId("RP_ID");
         clientDetail.setClaims("[]");
         clientDetail.setAcrValues("[]");
@@ -242,6 +256,7 @@ public class ClientDetailRepositoryTest {
         clientDetail.setStatus(null);
         clientDetail.setRedirectUris("[]]");
         clientDetail.setPublicKey("DUMMY PEM CERT");
+        clientDetail.setPublicKeyHash("DUMMY PEM CERT HASH");
         clientDetail.setRpId("RP_ID");
         clientDetail.setClaims("[]");
         clientDetail.setAcrValues("[]");
@@ -266,6 +281,7 @@ public class ClientDetailRepositoryTest {
         clientDetail.setStatus("active");
         clientDetail.setRedirectUris("[]]");
         clientDetail.setPublicKey("DUMMY PEM CERT");
+        clientDetail.setPublicKeyHash("DUMMY PEM CERT HASH");
         clientDetail.setRpId("RP_ID");
         clientDetail.setClaims("[]");
         clientDetail.setAcrValues("[]");
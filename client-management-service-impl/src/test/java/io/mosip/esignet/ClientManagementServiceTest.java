@@ -100,6 +100,22 @@ public class ClientManagementServiceTest {
         }
     }
 
+    @Test
+    public void createClient_withExistingPublicKey_thenFail() {
+        Mockito.when(clientDetailRepository.findById("client_id_v1")).thenReturn(Optional.empty());
+        Mockito.when(clientDetailRepository.findByPublicKeyHash(Mockito.anyString())).thenReturn(Optional.of(new ClientDetail()));
+        ClientDetailCreateRequest clientCreateReqDto = new ClientDetailCreateRequest();
+        clientCreateReqDto.setClientId("client_id_v1");
+        clientCreateReqDto.setPublicKey(PUBLIC_KEY);
+        try {
+            clientManagementService.createOIDCClient(clientCreateReqDto);
+            Assert.fail();
+        } catch (EsignetException ex) {
+            Assert.assertEquals(ErrorConstants.DUPLICATE_PUBLIC_KEY, ex.getErrorCode());
+        }
+        Mockito.verify(clientDetailRepository, Mockito.never()).save(Mockito.any(ClientDetail.class));
+    }
+
     @Test
     public void updateClient_withNonExistingClientId_thenFail() {
         Mockito.when(clientDetailRepository.findById("client_id_v1")).thenReturn(Optional.empty());
@@ -5,4 +5,4 @@
 
 MERGE INTO KEY_POLICY_DEF (APP_ID,KEY_VALIDITY_DURATION,PRE_EXPIRE_DAYS,ACCESS_ALLOWED,IS_ACTIVE,CR_BY,CR_DTIMES)  KEY(APP_ID) VALUES ('ROOT', 1095, 50, 'NA', true, 'mosipadmin', now()),  ('IDP_SERVICE', 1095, 50, 'NA', true, 'mosipadmin', now()),  ('IDP_PARTNER', 1095, 50, 'NA', true, 'mosipadmin', now()),  ('MOCK_IDA_SERVICES', 1095, 50, 'NA', true, 'mosipadmin', now());
 
-MERGE INTO client_detail (id, name, rp_id, logo_uri, redirect_uris, claims, acr_values, public_key, grant_types, auth_methods, status, cr_dtimes, upd_dtimes)  KEY(id) VALUES ('healthservicev1', 'Health service', 'Bharathi-Inc', 'http://localhost:5000/images/Util%20logo.png', '["http:\/\/health-services.com\/userprofile","https:\/\/health-services.com\/userprofile","http:\/\/health-services.com:5000\/userprofile","http:\/\/localhost:5000\/userprofile"]', '["given_name","email","gender","phone_number","birthdate","picture"]', '["mosip:idp:acr:static-code"]', '{"kty":"RSA","kid":"1bbdc9de-c24f-4801-b6b3-691ac07641af","use":"sig","alg":"RS256","n":"wXGQA574CU-WTWPILd4S3_1sJf0Yof0kwMeNctXc1thQo70Ljfn9f4igpRe7f8qNs_W6dLuLWemFhGJBQBQ7vvickECKNJfo_EzSD_yyPCg7k_AGbTWTkuoObHrpilwJGyKVSkOIujH_FqHIVkwkVXjWc25Lsb8Gq4nAHNQEqqgaYPLEi5evCR6S0FzcXTPuRh9zH-cM0Onjv4orrfYpEr61HcRp5MXL55b7yBoIYlXD8NfalcgdrWzp4VZHvQ8yT9G5eaf27XUn6ZBeBf7VnELcKFTyw1pK2wqoOxRBc8Y1wO6rEy8PlCU6wD-mbIzcjG1wUfnbgvJOM4A5G41quQ","e":"AQAB"}', '["authorization_code"]', '["private_key_jwt"]', 'ACTIVE', now(), now());
\ No newline at end of file
+MERGE INTO client_detail (id, name, rp_id, logo_uri, redirect_uris, claims, acr_values, public_key, public_key_hash, grant_types, auth_methods, status, cr_dtimes, upd_dtimes)  KEY(id) VALUES ('healthservicev1', 'Health service', 'Bharathi-Inc', 'http://localhost:5000/images/Util%20logo.png', '["http:\/\/health-services.com\/userprofile","https:\/\/health-services.com\/userprofile","http:\/\/health-services.com:5000\/userprofile","http:\/\/localhost:5000\/userprofile"]', '["given_name","email","gender","phone_number","birthdate","picture"]', '["mosip:idp:acr:static-code"]', '{"kty":"RSA","kid":"1bbdc9de-c24f-4801-b6b3-691ac07641af","use":"sig","alg":"RS256","n":"wXGQA574CU-WTWPILd4S3_1sJf0Yof0kwMeNctXc1thQo70Ljfn9f4igpRe7f8qNs_W6dLuLWemFhGJBQBQ7vvickECKNJfo_EzSD_yyPCg7k_AGbTWTkuoObHrpilwJGyKVSkOIujH_FqHIVkwkVXjWc25Lsb8Gq4nAHNQEqqgaYPLEi5evCR6S0FzcXTPuRh9zH-cM0Onjv4orrfYpEr61HcRp5MXL55b7yBoIYlXD8NfalcgdrWzp4VZHvQ8yT9G5eaf27XUn6ZBeBf7VnELcKFTyw1pK2wqoOxRBc8Y1wO6rEy8PlCU6wD-mbIzcjG1wUfnbgvJOM4A5G41quQ","e":"AQAB"}', '4B030ph6qNASNmytPhnwEYdkjPpB3XSzucb8y4wgCOU', '["authorization_code"]', '["private_key_jwt"]', 'ACTIVE', now(), now());
\ No newline at end of file
@@ -7,6 +7,7 @@ CREATE TABLE IF NOT EXISTS client_detail(
     	claims character varying NOT NULL,
     	acr_values character varying NOT NULL,
     	public_key character varying NOT NULL,
+    	public_key_hash character varying(100) NOT NULL,
     	grant_types character varying NOT NULL,
     	auth_methods character varying NOT NULL,
     	status character varying(20) NOT NULL,
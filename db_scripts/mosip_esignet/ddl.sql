@@ -5,3 +5,4 @@
 \ir ddl/esignet-key_policy_def.sql
 \ir ddl/esignet-key_store.sql
 \ir ddl/esignet-public_key_registry.sql
+\ir ddl/esignet-public_key_registry_import.sql
@@ -24,13 +24,14 @@ CREATE TABLE client_detail(
 	claims character varying NOT NULL,
 	acr_values character varying NOT NULL,
 	public_key character varying NOT NULL,
+	public_key_hash character varying(100) NOT NULL,
 	grant_types character varying NOT NULL,
 	auth_methods character varying NOT NULL,
 	status character varying(20) NOT NULL,
 	cr_dtimes timestamp NOT NULL,
 	upd_dtimes timestamp,
 	CONSTRAINT pk_clntdtl_id PRIMARY KEY (id),
-	CONSTRAINT uk_clntdtl_key UNIQUE (public_key)
+	CONSTRAINT uk_clntdtl_key UNIQUE (public_key_hash)
 );
 
 COMMENT ON TABLE client_detail IS 'Contains key alias and  metadata of all the keys used in MOSIP system.';
@@ -42,6 +43,7 @@ COMMENT ON COLUMN client_detail.redirect_uris IS 'Recirect URLS: Comma separated
 COMMENT ON COLUMN client_detail.rp_id IS 'relying Party Id: Id of the relying Party who has created this OIDC client.';
 COMMENT ON COLUMN client_detail.status IS 'Client status: Allowed values - ACTIVE / INACTIVE.';
 COMMENT ON COLUMN client_detail.public_key IS 'Public key: JWK format.';
+COMMENT ON COLUMN client_detail.public_key_hash IS 'Public Key Hash: Hash of Public Key, used to enforce unique public key per client.';
 COMMENT ON COLUMN client_detail.grant_types IS 'Grant Types: Allowed grant types for the client, comma separated string.';
 COMMENT ON COLUMN client_detail.auth_methods IS 'Client Auth methods: Allowed token endpoint authentication methods, comma separated string.';
 COMMENT ON COLUMN client_detail.claims IS 'Requested Claims: claims json as per policy defined for relying party, comma separated string.';
@@ -11,6 +11,9 @@
 --
 -- Modified Date        Modified By         Comments / Remarks
 -- ------------------------------------------------------------------------------------------
+-- Oct-2026                                 Added indexes on psu_token and public_key_hash lookups
+-- Oct-2026                                 Added index on expire_dtimes for the expired binding purge
+-- Oct-2026                                 Certificate stored as DER, added public_key_spki
 -- ------------------------------------------------------------------------------------------
 
 -- object: public_key_registry.public_key_registry | type: TABLE --
@@ -23,11 +26,19 @@ CREATE TABLE public_key_registry(
 	expire_dtimes timestamp NOT NULL,
 	wallet_binding_id character varying(256) NOT NULL,
 	public_key_hash character varying(100) NOT NULL,
-	certificate character varying NOT NULL,
+	certificate bytea NOT NULL,
+	public_key_spki bytea,
 	cr_dtimes timestamp NOT NULL,
 	CONSTRAINT pk_public_key_registry PRIMARY KEY (id_hash, auth_factor)
 );
 
+-- latest binding lookup by psu_token & auth_factor, wallet_binding_id is included to serve the query from the index
+CREATE INDEX IF NOT EXISTS idx_pkr_psu_token_auth_factor ON public_key_registry USING btree (psu_token, auth_factor, expire_dtimes DESC) INCLUDE (wallet_binding_id);
+-- duplicate public key check
+CREATE INDEX IF NOT EXISTS idx_pkr_public_key_hash ON public_key_registry USING btree (public_key_hash) INCLUDE (psu_token);
+-- expired binding purge
+CREATE INDEX IF NOT EXISTS idx_pkr_expire_dtimes ON public_key_registry USING btree (expire_dtimes);
+
 COMMENT ON TABLE public_key_registry IS 'Contains id_hash and their respective PSU Tokens,public keys and wallet binding ids.';
 
 COMMENT ON COLUMN public_key_registry.id_hash IS 'Contains Id hash.';
@@ -37,6 +48,7 @@ COMMENT ON COLUMN public_key_registry.expire_dtimes IS 'Expiry DateTimestamp : D
 COMMENT ON COLUMN public_key_registry.wallet_binding_id IS 'Wallet Binding Id: hash of PSU  Token and salt.';
 COMMENT ON COLUMN public_key_registry.public_key_hash IS 'Public Key Hash: Hash of  Public Key.';
 COMMENT ON COLUMN public_key_registry.auth_factor IS 'Supported auth factor type.';
-COMMENT ON COLUMN public_key_registry.certificate IS 'Signed certificate';
+COMMENT ON COLUMN public_key_registry.certificate IS 'Signed certificate: DER encoded.';
+COMMENT ON COLUMN public_key_registry.public_key_spki IS 'Public Key SPKI: DER encoded SubjectPublicKeyInfo of the certified public key, used to validate WLA token signature. Null if bound before it was stored and not backfilled, public key is used then.';
 COMMENT ON COLUMN public_key_registry.cr_dtimes IS 'Created DateTimestamp : Date and Timestamp when the record is created/inserted.';
 -- ddl-end --
\ No newline at end of file
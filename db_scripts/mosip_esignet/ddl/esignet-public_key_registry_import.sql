@@ -0,0 +1,33 @@
+-- This Source Code Form is subject to the terms of the Mozilla Public
+-- License, v. 2.0. If a copy of the MPL was not distributed with this
+-- file, You can obtain one at https://mozilla.org/MPL/2.0/.
+-- -------------------------------------------------------------------------------------------------
+-- Database Name: mosip_esignet
+-- Table Name : public_key_registry_import
+-- Purpose    : Public Key Registry Import: Staging table for the bulk key binding import, rows are loaded with COPY
+--              and merged into public_key_registry.
+--
+-- Create By   	:
+-- Created Date	: Oct-2026
+--
+-- Modified Date        Modified By         Comments / Remarks
+-- ------------------------------------------------------------------------------------------
+-- ------------------------------------------------------------------------------------------
+
+-- object: public_key_registry_import | type: TABLE --
+-- DROP TABLE IF EXISTS public_key_registry_import CASCADE;
+CREATE UNLOGGED TABLE public_key_registry_import(
+    id_hash character varying(100) NOT NULL,
+    auth_factor character varying(25) NOT NULL,
+	psu_token character varying(256) NOT NULL,
+	public_key character varying NOT NULL,
+	expire_dtimes timestamp NOT NULL,
+	wallet_binding_id character varying(256) NOT NULL,
+	public_key_hash character varying(100) NOT NULL,
+	certificate bytea NOT NULL,
+	public_key_spki bytea NOT NULL,
+	cr_dtimes timestamp NOT NULL
+);
+
+COMMENT ON TABLE public_key_registry_import IS 'Staging table for the bulk key binding import, truncated after every import.';
+-- ddl-end --
@@ -0,0 +1,87 @@
+-- This Source Code Form is subject to the terms of the Mozilla Public
+-- License, v. 2.0. If a copy of the MPL was not distributed with this
+-- file, You can obtain one at https://mozilla.org/MPL/2.0/.
+-- -------------------------------------------------------------------------------------------------
+-- Database Name: mosip_esignet
+-- Purpose    : Upgrade client_detail, unique constraint on the public key is moved to the new public_key_hash.
+--              Upgrade public_key_registry, certificate is stored as DER and public_key_spki is added.
+--              public_key_spki is backfilled from the bound RSA public key JWK, it is left null for the
+--              entries which could not be converted and the service then builds the key from public_key.
+--              Create public_key_registry_import, staging table of the bulk key binding import.
+--              Binding lookup and purge indexes are created concurrently, run the script outside a transaction block.
+-- -------------------------------------------------------------------------------------------------
+\c mosip_esignet
+
+-- SHA3-256 digest of the public key JWK, base64url encoded without padding as computed by the service
+CREATE EXTENSION IF NOT EXISTS pgcrypto;
+
+ALTER TABLE client_detail ADD COLUMN IF NOT EXISTS public_key_hash character varying(100);
+
+UPDATE client_detail SET public_key_hash = rtrim(translate(encode(digest(convert_to(public_key, 'UTF8'), 'sha3-256'),
+    'base64'), '+/', '-_'), '=')
+WHERE public_key_hash IS NULL;
+
+ALTER TABLE client_detail ALTER COLUMN public_key_hash SET NOT NULL;
+ALTER TABLE client_detail DROP CONSTRAINT IF EXISTS uk_clntdtl_key;
+ALTER TABLE client_detail ADD CONSTRAINT uk_clntdtl_key UNIQUE (public_key_hash);
+
+COMMENT ON COLUMN client_detail.public_key_hash IS 'Public Key Hash: Hash of Public Key, used to enforce unique public key per client.';
+
+-- PEM text to DER bytes, header, footer and line breaks are removed before decoding
+ALTER TABLE public_key_registry ALTER COLUMN certificate TYPE bytea
+    USING decode(regexp_replace(certificate, '-----[A-Z ]+-----|\s', '', 'g'), 'base64');
+
+ALTER TABLE public_key_registry ADD COLUMN IF NOT EXISTS public_key_spki bytea;
+
+-- base64url without padding to bytes
+CREATE FUNCTION pg_temp.b64url_decode(value text) RETURNS bytea AS $$
+    SELECT decode(rpad(translate(value, '-_', '+/'), (length(value) + 3) / 4 * 4, '='), 'base64');
+$$ LANGUAGE sql IMMUTABLE;
+
+-- DER tag, definite length and content
+CREATE FUNCTION pg_temp.der(tag int, content bytea) RETURNS bytea AS $$
+    SELECT set_byte('\x00'::bytea, 0, tag) || CASE
+        WHEN length(content) < 128 THEN set_byte('\x00'::bytea, 0, length(content))
+        WHEN length(content) < 256 THEN set_byte('\x8100'::bytea, 1, length(content))
+        ELSE set_byte(set_byte('\x820000'::bytea, 1, length(content) >> 8), 2, length(content) & 255) END || content;
+$$ LANGUAGE sql IMMUTABLE;
+
+-- DER INTEGER of an unsigned big endian value
+CREATE FUNCTION pg_temp.der_integer(value bytea) RETURNS bytea AS $$
+    SELECT pg_temp.der(2, CASE WHEN get_byte(value, 0) >= 128 THEN '\x00'::bytea || value ELSE value END);
+$$ LANGUAGE sql IMMUTABLE;
+
+-- SubjectPublicKeyInfo: SEQUENCE { AlgorithmIdentifier rsaEncryption, BIT STRING { SEQUENCE { n, e } } }
+UPDATE public_key_registry SET public_key_spki = pg_temp.der(48, '\x300d06092a864886f70d0101010500'::bytea ||
+    pg_temp.der(3, '\x00'::bytea || pg_temp.der(48,
+        pg_temp.der_integer(pg_temp.b64url_decode(public_key::json->>'n')) ||
+        pg_temp.der_integer(pg_temp.b64url_decode(public_key::json->>'e')))))
+WHERE public_key_spki IS NULL AND public_key::json->>'kty' = 'RSA';
+
+COMMENT ON COLUMN public_key_registry.certificate IS 'Signed certificate: DER encoded.';
+COMMENT ON COLUMN public_key_registry.public_key_spki IS 'Public Key SPKI: DER encoded SubjectPublicKeyInfo of the certified public key, used to validate WLA token signature. Null if bound before it was stored and not backfilled, public key is used then.';
+
+CREATE UNLOGGED TABLE IF NOT EXISTS public_key_registry_import(
+    id_hash character varying(100) NOT NULL,
+    auth_factor character varying(25) NOT NULL,
+	psu_token character varying(256) NOT NULL,
+	public_key character varying NOT NULL,
+	expire_dtimes timestamp NOT NULL,
+	wallet_binding_id character varying(256) NOT NULL,
+	public_key_hash character varying(100) NOT NULL,
+	certificate bytea NOT NULL,
+	public_key_spki bytea NOT NULL,
+	cr_dtimes timestamp NOT NULL
+);
+
+COMMENT ON TABLE public_key_registry_import IS 'Staging table for the bulk key binding import, truncated after every import.';
+
+-- staging table is truncated by the import, default privileges do not include TRUNCATE
+GRANT SELECT,INSERT,UPDATE,DELETE,TRUNCATE ON public_key_registry_import TO esignetuser;
+
+-- latest binding lookup by psu_token and auth_factor, wallet_binding_id is included to serve the query from the index
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_pkr_psu_token_auth_factor ON public_key_registry USING btree (psu_token, auth_factor, expire_dtimes DESC) INCLUDE (wallet_binding_id);
+-- duplicate public key check
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_pkr_public_key_hash ON public_key_registry USING btree (public_key_hash) INCLUDE (psu_token);
+-- expired binding purge
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_pkr_expire_dtimes ON public_key_registry USING btree (expire_dtimes);
@@ -0,0 +1,29 @@
+-- This Source Code Form is subject to the terms of the Mozilla Public
+-- License, v. 2.0. If a copy of the MPL was not distributed with this
+-- file, You can obtain one at https://mozilla.org/MPL/2.0/.
+-- -------------------------------------------------------------------------------------------------
+-- Database Name: mosip_esignet
+-- Purpose    : Rollback client_detail, unique constraint is moved back to the public key and public_key_hash
+--              is dropped.
+--              Rollback public_key_registry, binding lookup and purge indexes are dropped, certificate is stored
+--              back as PEM and public_key_spki is dropped.
+--              Drop public_key_registry_import, staging table of the bulk key binding import.
+-- -------------------------------------------------------------------------------------------------
+\c mosip_esignet
+
+ALTER TABLE client_detail DROP CONSTRAINT IF EXISTS uk_clntdtl_key;
+ALTER TABLE client_detail ADD CONSTRAINT uk_clntdtl_key UNIQUE (public_key);
+ALTER TABLE client_detail DROP COLUMN IF EXISTS public_key_hash;
+
+DROP TABLE IF EXISTS public_key_registry_import;
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_pkr_psu_token_auth_factor;
+DROP INDEX CONCURRENTLY IF EXISTS idx_pkr_public_key_hash;
+DROP INDEX CONCURRENTLY IF EXISTS idx_pkr_expire_dtimes;
+
+ALTER TABLE public_key_registry DROP COLUMN IF EXISTS public_key_spki;
+
+ALTER TABLE public_key_registry ALTER COLUMN certificate TYPE character varying
+    USING '-----BEGIN CERTIFICATE-----' || chr(10) || encode(certificate, 'base64') || chr(10) || '-----END CERTIFICATE-----';
+
+COMMENT ON COLUMN public_key_registry.certificate IS 'Signed certificate';
@@ -23,6 +23,8 @@ public class Constants {
     public static final String LINKED_SESSION_CACHE = "linked";
     public static final String LINKED_CODE_CACHE = "linkedcode";
     public static final String AUTH_CODE_GENERATED_CACHE = "authcodegenerated";
+    public static final String BINDINGS_CACHE = "bindings";
+    public static final String SEND_OTP_CACHE = "sendotp";
 
     public static final String ROOT_KEY = "ROOT";
     public static final String OIDC_PARTNER_APP_ID = "OIDC_PARTNER";
@@ -65,4 +65,7 @@ public class ErrorConstants {
     public static final String FAILED_TO_GENERATE_HEADER_HASH = "failed_to_generate_header_hash";
     public static final String FAILED_TO_VALIDATE_CAPTCHA = "failed_to_validate_captcha";
     public static final String INVALID_CAPTCHA = "invalid_captcha";
+    public static final String PLUGIN_UNAVAILABLE = "plugin_unavailable";
+    public static final String PLUGIN_TIMEOUT = "plugin_timeout";
+    public static final String RELYING_PARTY_LIMIT_REACHED = "relying_party_limit_reached";
 }
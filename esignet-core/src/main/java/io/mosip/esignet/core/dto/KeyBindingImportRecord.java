@@ -0,0 +1,32 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.core.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * One line of the bulk key binding import file (JSON lines).
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class KeyBindingImportRecord {
+
+    private String individualId;
+
+    private String partnerSpecificUserToken;
+
+    private String authFactorType;
+
+    private Map<String, Object> publicKey;
+
+    /** PEM encoded certificate issued for the public key */
+    private String certificate;
+}
@@ -9,6 +9,8 @@ import io.mosip.esignet.core.dto.*;
 import io.mosip.esignet.core.exception.EsignetException;
 import io.mosip.esignet.core.dto.*;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface AuthorizationService {
 
     /**
@@ -20,18 +22,20 @@ public interface AuthorizationService {
     OAuthDetailResponse getOauthDetails(OAuthDetailRequest oauthDetailRequest) throws EsignetException;
 
     /**
-     * Request from IDP UI to send OTP to provided individual ID and OTP channel
+     * Request from IDP UI to send OTP to provided individual ID and OTP channel.
+     * Does not block on the authenticator, future fails with {@link EsignetException}
      * @param otpRequest
      * @return
      */
-    OtpResponse sendOtp(OtpRequest otpRequest) throws EsignetException;
+    CompletableFuture<OtpResponse> sendOtpAsync(OtpRequest otpRequest);
 
     /**
-     * Authentication request for the required auth-factors
+     * Authentication request for the required auth-factors.
+     * Does not block on the authenticator, future fails with {@link EsignetException}
      * @param authRequest
      * @return
      */
-    AuthResponse authenticateUser(AuthRequest authRequest) throws EsignetException;
+    CompletableFuture<AuthResponse> authenticateUserAsync(AuthRequest authRequest);
 
     /**
      * Accepted claims are verified and KYC exchange is performed
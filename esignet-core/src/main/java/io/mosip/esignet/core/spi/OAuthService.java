@@ -11,6 +11,7 @@ import io.mosip.esignet.core.dto.TokenResponse;
 
 import javax.validation.Valid;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public interface OAuthService {
 
@@ -27,11 +28,12 @@ public interface OAuthService {
      * Ensure that the redirect_uri parameter value is identical to the redirect_uri parameter value that was included in the initial Authorization Request. If the redirect_uri parameter value is not present when there is only one registered redirect_uri value, the Authorization Server MAY return an error (since the Client should have included the parameter) or MAY proceed without an error (since OAuth 2.0 permits the parameter to be omitted in this case).
      * Verify that the Authorization Code used was issued in response to an OpenID Connect Authentication Request
      *
+     * Does not block on the authenticator, future fails with {@link EsignetException}
+     *
      * @param tokenRequest
      * @return
-     * @throws EsignetException
      */
-    TokenResponse getTokens(@Valid TokenRequest tokenRequest) throws EsignetException;
+    CompletableFuture<TokenResponse> getTokensAsync(@Valid TokenRequest tokenRequest);
 
     /**
      * API to get list of IdP public keys
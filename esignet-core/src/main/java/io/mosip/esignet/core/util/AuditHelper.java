@@ -4,8 +4,15 @@ import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.oauth2.jwt.Jwt;
 
 import io.mosip.esignet.api.dto.AuditDTO;
+import io.mosip.esignet.api.spi.AuditPlugin;
+import io.mosip.esignet.api.util.Action;
+import io.mosip.esignet.api.util.ActionStatus;
 import io.mosip.esignet.core.dto.OIDCTransaction;
+import lombok.extern.slf4j.Slf4j;
 
+import java.util.function.Supplier;
+
+@Slf4j
 public class AuditHelper {
 
     public static AuditDTO buildAuditDto(String clientId) {
@@ -38,6 +45,40 @@ public class AuditHelper {
         return auditDTO;
     }
     
+    /**
+     * Logs the event with the audit details built by the supplier, the details are built and the plugin is invoked
+     * only if the audit plugin audits the action, see {@link AuditPlugin#isAuditable(Action, ActionStatus)}.
+     */
+    public static void logAudit(AuditPlugin auditPlugin, Action action, ActionStatus status, Supplier<AuditDTO> audit,
+                                Throwable t) {
+        if(isAuditable(auditPlugin, action, status))
+            auditPlugin.logAudit(action, status, audit.get(), t);
+    }
+
+    /**
+     * Logs the event of the transaction, audit details are read from the transaction only if the event is audited.
+     */
+    public static void logAudit(AuditPlugin auditPlugin, Action action, ActionStatus status, String transactionId,
+                                OIDCTransaction transaction, Throwable t) {
+        if(isAuditable(auditPlugin, action, status))
+            auditPlugin.logAudit(action, status, buildAuditDto(transactionId, transaction), t);
+    }
+
+    public static void logAudit(AuditPlugin auditPlugin, String username, Action action, ActionStatus status,
+                                Supplier<AuditDTO> audit, Throwable t) {
+        if(isAuditable(auditPlugin, action, status))
+            auditPlugin.logAudit(username, action, status, audit.get(), t);
+    }
+
+    private static boolean isAuditable(AuditPlugin auditPlugin, Action action, ActionStatus status) {
+        try {
+            return auditPlugin.isAuditable(action, status);
+        } catch (Exception e) {
+            log.error("Failed to check if {} {} is auditable, auditing the event", action, status, e);
+            return true;
+        }
+    }
+
     public static String getClaimValue(SecurityContext context, String claimName) {
     	if (context.getAuthentication() == null) {
     		return null;
@@ -21,6 +21,8 @@ import java.util.Base64;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ThreadLocalRandom;
 
 import io.mosip.esignet.core.constants.Constants;
@@ -218,4 +220,17 @@ public class IdentityProviderUtil {
             throw new EsignetException(ErrorConstants.INVALID_ALGORITHM);
         }
     }
+
+    /**
+     * Failures of dependent CompletableFuture stages are wrapped in CompletionException, returns the actual cause.
+     * @param throwable failure reported by the future, could be null
+     * @return cause of the failure
+     */
+    public static Throwable unwrapCompletionException(Throwable throwable) {
+        while ((throwable instanceof CompletionException || throwable instanceof ExecutionException) &&
+                throwable.getCause() != null) {
+            throwable = throwable.getCause();
+        }
+        return throwable;
+    }
 }
@@ -0,0 +1,49 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.core.util;
+
+import io.mosip.esignet.core.dto.OIDCTransaction;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Holds a transaction read from the cache for the rest of the current request, so that the same transaction is not
+ * fetched and deserialized again while handling the request.
+ *
+ * Held transaction is handed out once, it is removed on the first read as the transaction is modified and
+ * moved between the caches while handling the request. Outside of a request nothing is held.
+ */
+public final class RequestTransactionHolder {
+
+    private static final String ATTRIBUTE_PREFIX = RequestTransactionHolder.class.getName() + ".";
+
+    private RequestTransactionHolder() {
+    }
+
+    public static void hold(String cacheName, String key, OIDCTransaction transaction) {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if(requestAttributes != null && key != null && transaction != null)
+            requestAttributes.setAttribute(getAttributeName(cacheName, key), transaction, RequestAttributes.SCOPE_REQUEST);
+    }
+
+    /**
+     * @return held transaction of the given cache and key, null if none is held
+     */
+    public static OIDCTransaction take(String cacheName, String key) {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if(requestAttributes == null || key == null)
+            return null;
+        String attributeName = getAttributeName(cacheName, key);
+        Object transaction = requestAttributes.getAttribute(attributeName, RequestAttributes.SCOPE_REQUEST);
+        if(transaction != null)
+            requestAttributes.removeAttribute(attributeName, RequestAttributes.SCOPE_REQUEST);
+        return (OIDCTransaction) transaction;
+    }
+
+    private static String getAttributeName(String cacheName, String key) {
+        return ATTRIBUTE_PREFIX + cacheName + "." + key;
+    }
+}
@@ -8,6 +8,7 @@ import java.util.Map;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.Mockito;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
@@ -16,6 +17,9 @@ import org.springframework.security.core.context.SecurityContextImpl;
 import org.springframework.security.oauth2.jwt.Jwt;
 
 import io.mosip.esignet.api.dto.AuditDTO;
+import io.mosip.esignet.api.spi.AuditPlugin;
+import io.mosip.esignet.api.util.Action;
+import io.mosip.esignet.api.util.ActionStatus;
 import io.mosip.esignet.core.dto.OIDCTransaction;
 import io.mosip.esignet.core.util.AuditHelper;
 
@@ -44,6 +48,50 @@ public class AuditHelperTest {
 		Assert.assertSame(auditDTO.getClientId(), "test-client-id");
 	}
 	
+	@Test
+	public void test_buildAuditDto_withTransactionModifiedAfterBuild() {
+		OIDCTransaction transaction = new OIDCTransaction();
+		transaction.setCodeHash("code-hash");
+		AuditDTO auditDTO = AuditHelper.buildAuditDto("1234567890", transaction);
+		transaction.setAHash("access-token-hash");
+		auditDTO.setClientId("test-client-id");
+		Assert.assertEquals("code-hash", auditDTO.getCodeHash());
+		Assert.assertNull(auditDTO.getAccessTokenHash());
+		Assert.assertEquals("test-client-id", auditDTO.getClientId());
+	}
+	
+	@Test
+	public void test_logAudit_withAuditableAction() {
+		AuditPlugin auditPlugin = Mockito.mock(AuditPlugin.class);
+		Mockito.when(auditPlugin.isAuditable(Action.AUTHENTICATE, ActionStatus.SUCCESS)).thenReturn(true);
+		AuditDTO auditDTO = new AuditDTO();
+		AuditHelper.logAudit(auditPlugin, Action.AUTHENTICATE, ActionStatus.SUCCESS, () -> auditDTO, null);
+		AuditHelper.logAudit(auditPlugin, "user", Action.AUTHENTICATE, ActionStatus.SUCCESS, () -> auditDTO, null);
+		Mockito.verify(auditPlugin).logAudit(Action.AUTHENTICATE, ActionStatus.SUCCESS, auditDTO, null);
+		Mockito.verify(auditPlugin).logAudit("user", Action.AUTHENTICATE, ActionStatus.SUCCESS, auditDTO, null);
+	}
+	
+	@Test
+	public void test_logAudit_withActionNotAuditable_thenAuditDtoNotBuilt() {
+		AuditPlugin auditPlugin = Mockito.mock(AuditPlugin.class);
+		Mockito.when(auditPlugin.isAuditable(Action.AUTHENTICATE, ActionStatus.SUCCESS)).thenReturn(false);
+		AuditHelper.logAudit(auditPlugin, Action.AUTHENTICATE, ActionStatus.SUCCESS, () -> {
+			throw new AssertionError("audit details built for the event not audited");
+		}, null);
+		Mockito.verify(auditPlugin).isAuditable(Action.AUTHENTICATE, ActionStatus.SUCCESS);
+		Mockito.verifyNoMoreInteractions(auditPlugin);
+	}
+	
+	@Test
+	public void test_logAudit_withFailingAuditableCheck_thenAudited() {
+		AuditPlugin auditPlugin = Mockito.mock(AuditPlugin.class);
+		Mockito.when(auditPlugin.isAuditable(Action.AUTHENTICATE, ActionStatus.ERROR))
+				.thenThrow(new IllegalStateException("audit config unavailable"));
+		AuditDTO auditDTO = new AuditDTO();
+		AuditHelper.logAudit(auditPlugin, Action.AUTHENTICATE, ActionStatus.ERROR, () -> auditDTO, null);
+		Mockito.verify(auditPlugin).logAudit(Action.AUTHENTICATE, ActionStatus.ERROR, auditDTO, null);
+	}
+	
 	@Test
 	public void test_getClaimValue_withValidDetails() {
 		SecurityContext context = new SecurityContextImpl();
@@ -9,10 +9,12 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.io.Serializable;
+
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-public class SendOtpResult {
+public class SendOtpResult implements Serializable {
 
     private String transactionId;
     private String maskedEmail;
@@ -8,6 +8,9 @@ package io.mosip.esignet.api.spi;
 import io.mosip.esignet.api.util.Action;
 import io.mosip.esignet.api.util.ActionStatus;
 import io.mosip.esignet.api.dto.AuditDTO;
+import io.mosip.esignet.api.dto.AuditEventDTO;
+
+import java.util.List;
 
 public interface AuditPlugin {
 
@@ -31,4 +34,41 @@ public interface AuditPlugin {
     +  @param t Any error / exception occurred during this action, null if no errors / exception found.
     */
 	void logAudit(String username, Action action, ActionStatus status, AuditDTO audit, Throwable t);
+
+    /**
+     * Plugin method to declare the actions it audits, e-Signet service skips the events this method returns false
+     * for, so that their audit details are never populated. Default implementation audits all the actions.
+     *
+     * @param action Action to audit @{@link Action}
+     * @param status Action status to audit @{@link ActionStatus}
+     * @return true if the event has to be logged
+     */
+    default boolean isAuditable(Action action, ActionStatus status) {
+        return true;
+    }
+
+    /**
+     * Plugin method to audit a batch of actions, e-Signet service delivers the audit events in batches when the
+     * asynchronous audit is enabled. Plugins writing to a store with bulk support should override this method.
+     * Default implementation logs the events one by one.
+     *
+     * @param auditEvents events to audit in the order of occurrence @{@link AuditEventDTO}
+     */
+    default void logAudits(List<AuditEventDTO> auditEvents) {
+        for(AuditEventDTO auditEvent : auditEvents)
+            logAudit(auditEvent);
+    }
+
+    /**
+     * Logs the audit event with the logAudit method matching the event, with the session username if it has one.
+     *
+     * @param auditEvent event to audit @{@link AuditEventDTO}
+     */
+    default void logAudit(AuditEventDTO auditEvent) {
+        if(auditEvent.getUsername() == null)
+            logAudit(auditEvent.getAction(), auditEvent.getStatus(), auditEvent.getAudit(), auditEvent.getThrowable());
+        else
+            logAudit(auditEvent.getUsername(), auditEvent.getAction(), auditEvent.getStatus(), auditEvent.getAudit(),
+                    auditEvent.getThrowable());
+    }
 }
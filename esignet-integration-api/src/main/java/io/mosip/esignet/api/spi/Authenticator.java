@@ -6,6 +6,7 @@
 package io.mosip.esignet.api.spi;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import io.mosip.esignet.api.dto.KycAuthDto;
 import io.mosip.esignet.api.dto.KycAuthResult;
@@ -19,6 +20,14 @@ import io.mosip.esignet.api.exception.KycExchangeException;
 import io.mosip.esignet.api.exception.KycSigningCertificateException;
 import io.mosip.esignet.api.exception.SendOtpException;
 
+/**
+ * Authenticator plugin SPI.
+ *
+ * The non-blocking {@code *Async} methods have default implementations calling the blocking methods. The plugin
+ * implementations in this repository, the test stub included, do not override them. With such a plugin, the async
+ * methods block the calling thread until the identity system responds. That is the request thread, or the plugin bulkhead thread when
+ * the plugin resilience guard is enabled.
+ */
 public interface Authenticator {
 
     /**
@@ -54,6 +63,47 @@ public interface Authenticator {
     SendOtpResult sendOtp(String relyingPartyId, String clientId, SendOtpDto sendOtpDto)
             throws SendOtpException;
 
+    /**
+     * Non-blocking variant of {@link #doKycAuth(String, String, KycAuthDto)}, plugins with an asynchronous client
+     * should override this method so that no request thread is held while the identity system responds.
+     * Default implementation invokes the blocking method on the caller thread.
+     * @return future completed with the KYC auth result or exceptionally with {@link KycAuthException}
+     */
+    default CompletableFuture<KycAuthResult> doKycAuthAsync(String relyingPartyId, String clientId, KycAuthDto kycAuthDto) {
+        try {
+            return CompletableFuture.completedFuture(doKycAuth(relyingPartyId, clientId, kycAuthDto));
+        } catch (KycAuthException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Non-blocking variant of {@link #doKycExchange(String, String, KycExchangeDto)}.
+     * Default implementation invokes the blocking method on the caller thread.
+     * @return future completed with the KYC exchange result or exceptionally with {@link KycExchangeException}
+     */
+    default CompletableFuture<KycExchangeResult> doKycExchangeAsync(String relyingPartyId, String clientId,
+                                                                    KycExchangeDto kycExchangeDto) {
+        try {
+            return CompletableFuture.completedFuture(doKycExchange(relyingPartyId, clientId, kycExchangeDto));
+        } catch (KycExchangeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Non-blocking variant of {@link #sendOtp(String, String, SendOtpDto)}.
+     * Default implementation invokes the blocking method on the caller thread.
+     * @return future completed with the send OTP result or exceptionally with {@link SendOtpException}
+     */
+    default CompletableFuture<SendOtpResult> sendOtpAsync(String relyingPartyId, String clientId, SendOtpDto sendOtpDto) {
+        try {
+            return CompletableFuture.completedFuture(sendOtp(relyingPartyId, clientId, sendOtpDto));
+        } catch (SendOtpException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
     /**
      * supported OTP channel to validate in Send-otp request.
      * @return true if supported, otherwise false
@@ -10,9 +10,11 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @EnableKafka
 @EnableAsync
+@EnableScheduling
 @EnableCaching
 @SpringBootApplication(scanBasePackages = "io.mosip.esignet," +
 		"io.mosip.kernel.crypto," +
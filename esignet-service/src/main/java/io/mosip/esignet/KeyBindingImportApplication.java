@@ -0,0 +1,75 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet;
+
+import io.mosip.esignet.services.KeyBindingImportService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Entry point of the offline bulk key binding import, started from the service jar without opening the http port:
+ * java -Dloader.main=io.mosip.esignet.KeyBindingImportApplication -jar esignet-service.jar
+ *   --mosip.esignet.binding.import.file=/path/to/bindings.jsonl
+ * Import file is checked before the application is started. Exits with 0 when the import completed and with 1 when
+ * it failed.
+ */
+@Slf4j
+public class KeyBindingImportApplication {
+
+	static final String IMPORT_FILE_PROPERTY = "mosip.esignet.binding.import.file";
+
+	public static void main(String[] args) {
+		System.exit(run(args));
+	}
+
+	static int run(String... args) {
+		Path importFile;
+		try {
+			importFile = getImportFile(args);
+		} catch (IllegalArgumentException e) {
+			log.error("Key binding import not started, {}", e.getMessage());
+			return 1;
+		}
+
+		//web application context is still required by the service beans, server.port=-1 keeps the http port closed
+		ConfigurableApplicationContext context = new SpringApplicationBuilder(EsignetServiceApplication.class)
+				.run(Stream.concat(Arrays.stream(args), Stream.of("--server.port=-1")).toArray(String[]::new));
+		int exitCode = 0;
+		try {
+			long imported = context.getBean(KeyBindingImportService.class).importBindings(importFile);
+			log.info("Key binding import completed, {} entries imported from {}", imported, importFile);
+		} catch (Exception e) {
+			log.error("Key binding import failed for {}", importFile, e);
+			exitCode = 1;
+		}
+		final int code = exitCode;
+		return SpringApplication.exit(context, () -> code);
+	}
+
+	/**
+	 * @return readable import file provided with --mosip.esignet.binding.import.file
+	 * @throws IllegalArgumentException if the argument is not provided or the file is not readable
+	 */
+	static Path getImportFile(String... args) {
+		List<String> values = new DefaultApplicationArguments(args).getOptionValues(IMPORT_FILE_PROPERTY);
+		if (values == null || values.isEmpty() || values.get(0).isBlank())
+			throw new IllegalArgumentException(IMPORT_FILE_PROPERTY + " is not set");
+		Path importFile = Paths.get(values.get(0));
+		if (!Files.isRegularFile(importFile) || !Files.isReadable(importFile))
+			throw new IllegalArgumentException(importFile + " is not a readable file");
+		return importFile;
+	}
+}
@@ -2,12 +2,14 @@ package io.mosip.esignet.advice;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.mosip.esignet.core.constants.Constants;
 import io.mosip.esignet.core.dto.Error;
 import io.mosip.esignet.core.dto.OIDCTransaction;
 import io.mosip.esignet.core.dto.ResponseWrapper;
 import io.mosip.esignet.core.exception.EsignetException;
 import io.mosip.esignet.core.exception.InvalidTransactionException;
 import io.mosip.esignet.core.util.IdentityProviderUtil;
+import io.mosip.esignet.core.util.RequestTransactionHolder;
 import io.mosip.esignet.services.CacheUtilService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,14 +20,19 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import javax.annotation.PostConstruct;
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 import static io.mosip.esignet.core.constants.ErrorConstants.INVALID_REQUEST;
 
@@ -39,6 +46,9 @@ public class HeaderValidationFilter extends OncePerRequestFilter {
     @Value("#{${mosip.esignet.header-filter.paths-to-validate}}")
     private List<String> pathsToValidate;
 
+    //Path to validate -> cache holding the transaction of the path
+    private Map<String, String> routes;
+
     @Autowired
     private CacheUtilService cacheUtilService;
 
@@ -48,25 +58,45 @@ public class HeaderValidationFilter extends OncePerRequestFilter {
     @Autowired
     private MessageSource messageSource;
 
+    @PostConstruct
+    public void init() {
+        Map<String, String> routes = new HashMap<>();
+        for(String path : pathsToValidate) {
+            routes.put(path, path.endsWith("auth-code") ? Constants.AUTHENTICATED_CACHE :
+                    Constants.PRE_AUTH_SESSION_CACHE);
+        }
+        this.routes = Collections.unmodifiableMap(routes);
+    }
+
+    /**
+     * @return paths validated by this filter
+     */
+    public Set<String> getPathsToValidate() {
+        return routes.keySet();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !routes.containsKey(request.getRequestURI());
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
         final String path = request.getRequestURI();
-
-        if(!pathsToValidate.contains(path)) {
-            filterChain.doFilter(request, response);
-            return;
-        }
-
         try {
             log.info("Started to validate {} for oauth-details headers", path);
             final String transactionId = request.getHeader(HEADER_OAUTH_DETAILS_KEY);
             final String hashValue = request.getHeader(HEADER_OAUTH_DETAILS_HASH);
-            OIDCTransaction transaction = path.endsWith("auth-code") ? cacheUtilService.getAuthenticatedTransaction(transactionId) :
+            final String cacheName = routes.get(path);
+            OIDCTransaction transaction = Constants.AUTHENTICATED_CACHE.equals(cacheName) ?
+                    cacheUtilService.getAuthenticatedTransaction(transactionId) :
                     cacheUtilService.getPreAuthTransaction(transactionId);
             if(transaction == null) {
                 throw new InvalidTransactionException();
             }
             if(transaction.getOauthDetailsHash().equals(hashValue)) {
+                //Service handling the request takes the same transaction instead of reading the cache again
+                RequestTransactionHolder.hold(cacheName, transactionId, transaction);
                 filterChain.doFilter(request, response);
                 return;
             }
@@ -9,6 +9,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.json.JsonMapper;
 import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.mosip.esignet.advice.HeaderValidationFilter;
 import io.mosip.esignet.core.constants.Constants;
 import io.mosip.kernel.keymanagerservice.dto.KeyPairGenerateRequestDto;
 import io.mosip.kernel.keymanagerservice.dto.SymmetricKeyGenerateRequestDto;
@@ -21,6 +22,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
@@ -28,6 +30,8 @@ import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.util.StringUtils;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.stream.Collectors;
+
 @Configuration
 @EnableJpaRepositories(basePackages = {"io.mosip.esignet.repository", "io.mosip.kernel.keymanagerservice.repository"})
 @EntityScan(basePackages = {"io.mosip.esignet.entity", "io.mosip.kernel.keymanagerservice.entity"})
@@ -44,6 +48,9 @@ public class AppConfig implements ApplicationRunner {
     @Value("${mosip.esignet.cache.security.secretkey.reference-id}")
     private String cacheSecretKeyRefId;
 
+    @Value("${server.servlet.context-path:}")
+    private String contextPath;
+
     @Autowired
     private KeymanagerService keymanagerService;
 
@@ -66,6 +73,19 @@ public class AppConfig implements ApplicationRunner {
         return new RestTemplate(requestFactory);
     }
 
+    /**
+     * Registers the header validation filter only for the paths it validates, other requests do not pass
+     * through the filter.
+     */
+    @Bean
+    public FilterRegistrationBean<HeaderValidationFilter> headerValidationFilterRegistration(HeaderValidationFilter headerValidationFilter) {
+        FilterRegistrationBean<HeaderValidationFilter> registration = new FilterRegistrationBean<>(headerValidationFilter);
+        registration.setUrlPatterns(headerValidationFilter.getPathsToValidate().stream()
+                .map(path -> path.startsWith(contextPath) ? path.substring(contextPath.length()) : path)
+                .collect(Collectors.toSet()));
+        return registration;
+    }
+
     @Override
     public void run(ApplicationArguments args) throws Exception {
         log.info("===================== IDP_SERVICE ROOT KEY CHECK ========================");
@@ -0,0 +1,70 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.mosip.esignet.api.spi.AuditPlugin;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Wraps the {@link AuditPlugin} bean with {@link AsyncAuditPlugin}, so that a slow audit sink does not add to the
+ * latency of the authorization flows. Disabled by default, audit plugins are invoked on the request thread unless
+ * mosip.esignet.audit.async.enabled is set.
+ */
+@ConditionalOnProperty(value = "mosip.esignet.audit.async.enabled", havingValue = "true")
+@Component
+@Slf4j
+public class AsyncAuditBeanPostProcessor implements BeanPostProcessor, DisposableBean {
+
+    @Value("${mosip.esignet.audit.async.queue-capacity:8192}")
+    private int queueCapacity;
+
+    @Value("${mosip.esignet.audit.async.overflow-policy:CALLER_RUNS}")
+    private AsyncAuditPlugin.OverflowPolicy overflowPolicy;
+
+    @Value("${mosip.esignet.audit.async.batch-size:100}")
+    private int batchSize;
+
+    @Value("${mosip.esignet.audit.async.flush-interval-millis:200}")
+    private long flushIntervalMillis;
+
+    @Value("${mosip.esignet.audit.async.shutdown-timeout-millis:5000}")
+    private long shutdownTimeoutMillis;
+
+    private final ObjectProvider<MeterRegistry> meterRegistryProvider;
+    private final List<AsyncAuditPlugin> asyncAuditPlugins = new ArrayList<>();
+
+    public AsyncAuditBeanPostProcessor(ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        this.meterRegistryProvider = meterRegistryProvider;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if(bean instanceof AuditPlugin && !(bean instanceof AsyncAuditPlugin)) {
+            log.info("Enabling asynchronous audit on audit plugin {}, queue capacity: {}, overflow policy: {}",
+                    beanName, queueCapacity, overflowPolicy);
+            AsyncAuditPlugin asyncAuditPlugin = new AsyncAuditPlugin((AuditPlugin) bean, queueCapacity, overflowPolicy,
+                    batchSize, flushIntervalMillis, shutdownTimeoutMillis, meterRegistryProvider.getObject());
+            asyncAuditPlugins.add(asyncAuditPlugin);
+            return asyncAuditPlugin;
+        }
+        return bean;
+    }
+
+    @Override
+    public void destroy() {
+        asyncAuditPlugins.forEach(AsyncAuditPlugin::close);
+    }
+}
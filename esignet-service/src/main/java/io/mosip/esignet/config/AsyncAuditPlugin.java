@@ -0,0 +1,180 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.mosip.esignet.api.dto.AuditDTO;
+import io.mosip.esignet.api.dto.AuditEventDTO;
+import io.mosip.esignet.api.spi.AuditPlugin;
+import io.mosip.esignet.api.util.Action;
+import io.mosip.esignet.api.util.ActionStatus;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Decorates the configured {@link AuditPlugin} to take the audit off the request thread. Events are queued on a
+ * bounded ring buffer and delivered to the plugin in batches by a dedicated dispatcher thread, see
+ * {@link AuditPlugin#logAudits(List)}.
+ *
+ * When the buffer is full the event is handled as per the {@link OverflowPolicy}. Pending events are delivered
+ * on close, bounded by the given timeout.
+ */
+@Slf4j
+public class AsyncAuditPlugin implements AuditPlugin, AutoCloseable {
+
+    public enum OverflowPolicy {
+        //Audit is logged on the request thread, no event is lost
+        CALLER_RUNS,
+        //Incoming event is dropped
+        DROP_NEWEST,
+        //Oldest queued event is dropped to make room for the incoming event
+        DROP_OLDEST
+    }
+
+    private final AuditPlugin delegate;
+    private final AuditEventRingBuffer<AuditEventDTO> buffer;
+    private final OverflowPolicy overflowPolicy;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final long shutdownTimeoutMillis;
+    private final Thread dispatcher;
+    private volatile boolean running = true;
+    private volatile boolean dispatcherWaiting;
+
+    private final Counter dropped;
+    private final Counter failed;
+    private final Counter callerRuns;
+
+    public AsyncAuditPlugin(AuditPlugin delegate, int capacity, OverflowPolicy overflowPolicy, int batchSize,
+                            long flushIntervalMillis, long shutdownTimeoutMillis, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.buffer = new AuditEventRingBuffer<>(capacity);
+        this.overflowPolicy = overflowPolicy;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+
+        Gauge.builder("esignet.audit.queue.depth", buffer, AuditEventRingBuffer::size)
+                .description("Number of audit events waiting to be delivered to the audit plugin")
+                .register(meterRegistry);
+        Gauge.builder("esignet.audit.queue.capacity", buffer, AuditEventRingBuffer::capacity)
+                .description("Maximum number of audit events that can be queued")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("esignet.audit.events.dropped")
+                .description("Number of audit events dropped as the queue was full")
+                .register(meterRegistry);
+        this.failed = Counter.builder("esignet.audit.events.failed")
+                .description("Number of audit events the audit plugin failed to log")
+                .register(meterRegistry);
+        this.callerRuns = Counter.builder("esignet.audit.events.caller-runs")
+                .description("Number of audit events logged on the request thread as the queue was full")
+                .register(meterRegistry);
+
+        this.dispatcher = new Thread(this::dispatch, "audit-dispatcher");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    @Override
+    public void logAudit(Action action, ActionStatus status, AuditDTO audit, Throwable t) {
+        enqueue(new AuditEventDTO(null, action, status, audit, t));
+    }
+
+    @Override
+    public void logAudit(String username, Action action, ActionStatus status, AuditDTO audit, Throwable t) {
+        enqueue(new AuditEventDTO(username, action, status, audit, t));
+    }
+
+    @Override
+    public boolean isAuditable(Action action, ActionStatus status) {
+        return delegate.isAuditable(action, status);
+    }
+
+    private void enqueue(AuditEventDTO event) {
+        //Dispatcher is stopped, events after shutdown are logged on the request thread
+        if(!running) {
+            deliver(event);
+            return;
+        }
+        if(!buffer.offer(event)) {
+            handleOverflow(event);
+            return;
+        }
+        if(dispatcherWaiting)
+            LockSupport.unpark(dispatcher);
+    }
+
+    private void handleOverflow(AuditEventDTO event) {
+        switch (overflowPolicy) {
+            case DROP_OLDEST:
+                if(buffer.poll() != null)
+                    dropped.increment();
+                if(buffer.offer(event))
+                    return;
+                //Buffer is filled up again by the other request threads
+            case CALLER_RUNS:
+                callerRuns.increment();
+                deliver(event);
+                break;
+            default:
+                dropped.increment();
+                log.warn("Audit queue is full, dropped audit event {} {}", event.getAction(), event.getStatus());
+        }
+    }
+
+    private void dispatch() {
+        List<AuditEventDTO> batch = new ArrayList<>(batchSize);
+        while (running || buffer.size() > 0) {
+            if(buffer.drainTo(batch, batchSize) == 0) {
+                dispatcherWaiting = true;
+                //Re-check after publishing the flag, an event offered in between would not unpark this thread
+                if(buffer.size() == 0 && running)
+                    LockSupport.parkNanos(this, flushIntervalNanos);
+                dispatcherWaiting = false;
+                continue;
+            }
+            deliver(batch);
+            batch.clear();
+        }
+    }
+
+    private void deliver(AuditEventDTO event) {
+        try {
+            delegate.logAudit(event);
+        } catch (Throwable e) {
+            failed.increment();
+            log.error("Failed to log audit event {} {}", event.getAction(), event.getStatus(), e);
+        }
+    }
+
+    private void deliver(List<AuditEventDTO> batch) {
+        try {
+            delegate.logAudits(new ArrayList<>(batch));
+        } catch (Throwable e) {
+            failed.increment(batch.size());
+            log.error("Failed to log batch of {} audit events", batch.size(), e);
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(dispatcher);
+        try {
+            dispatcher.join(shutdownTimeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if(buffer.size() > 0)
+            log.warn("Audit dispatcher stopped with {} audit events not delivered", buffer.size());
+    }
+}
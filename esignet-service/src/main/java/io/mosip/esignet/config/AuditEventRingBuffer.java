@@ -0,0 +1,96 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.config;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free ring buffer, multiple threads may offer and poll concurrently.
+ *
+ * Every slot carries a sequence number telling whether it is free for the producer or filled for the consumer of
+ * the current lap, producers and consumers claim a position with a CAS on their cursor and never block each other.
+ */
+public class AuditEventRingBuffer<E> {
+
+    private final int mask;
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong producerCursor = new AtomicLong();
+    private final AtomicLong consumerCursor = new AtomicLong();
+
+    /**
+     * @param capacity rounded up to the next power of two
+     */
+    public AuditEventRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.mask = size - 1;
+        this.elements = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for(int i=0; i<size; i++)
+            sequences.set(i, i);
+    }
+
+    /**
+     * @return false if the buffer is full
+     */
+    public boolean offer(E element) {
+        while (true) {
+            long position = producerCursor.get();
+            int index = (int) (position & mask);
+            long available = sequences.get(index) - position;
+            if(available < 0)
+                return false;
+            if(available == 0 && producerCursor.compareAndSet(position, position + 1)) {
+                elements.set(index, element);
+                sequences.set(index, position + 1);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @return null if the buffer is empty
+     */
+    public E poll() {
+        while (true) {
+            long position = consumerCursor.get();
+            int index = (int) (position & mask);
+            long available = sequences.get(index) - (position + 1);
+            if(available < 0)
+                return null;
+            if(available == 0 && consumerCursor.compareAndSet(position, position + 1)) {
+                E element = elements.getAndSet(index, null);
+                sequences.set(index, position + mask + 1);
+                return element;
+            }
+        }
+    }
+
+    /**
+     * Moves up to maxElements into the given list.
+     * @return number of elements moved
+     */
+    public int drainTo(List<E> list, int maxElements) {
+        int count = 0;
+        E element;
+        while (count < maxElements && (element = poll()) != null) {
+            list.add(element);
+            count++;
+        }
+        return count;
+    }
+
+    public int size() {
+        return (int) Math.max(0, producerCursor.get() - consumerCursor.get());
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.config;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Append-only journal of records on memory-mapped segment files of fixed size. Every record is written as its
+ * length followed by the payload, a zero length marks the end of the records in a segment.
+ *
+ * Records are appended by any thread and read in order by a single reader, read position is persisted with
+ * {@link #commit(Position)} and a segment is deleted once all its records are committed. Reading resumes from the
+ * last committed position after a restart, records read but not committed are read again.
+ */
+@Slf4j
+public class AuditJournal implements AutoCloseable {
+
+    private static final Pattern SEGMENT_FILE = Pattern.compile("audit-(\\d{12})\\.journal");
+    private static final String CHECKPOINT_FILE = "audit.checkpoint";
+    private static final int LENGTH_BYTES = Integer.BYTES;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    //Segments not fully committed, segment number -> path
+    private final TreeMap<Long, Path> segments = new TreeMap<>();
+    private final MappedByteBuffer checkpoint;
+
+    private long writeSegment;
+    private MappedByteBuffer writeBuffer;
+    private long readSegment;
+    private ByteBuffer readBuffer;
+    private int readOffset;
+
+    public AuditJournal(Path directory, int segmentSize, int maxSegments) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+        Files.createDirectories(directory);
+
+        try (FileChannel channel = FileChannel.open(directory.resolve(CHECKPOINT_FILE), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            this.checkpoint = channel.map(FileChannel.MapMode.READ_WRITE, 0, Long.BYTES + Integer.BYTES);
+        }
+        Position committed = new Position(checkpoint.getLong(0), checkpoint.getInt(Long.BYTES));
+
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                Matcher matcher = SEGMENT_FILE.matcher(file.getFileName().toString());
+                if(matcher.matches())
+                    segments.put(Long.parseLong(matcher.group(1)), file);
+            });
+        }
+        for(Long segment : new ArrayList<>(segments.headMap(committed.segment).keySet()))
+            Files.deleteIfExists(segments.remove(segment));
+
+        if(segments.isEmpty()) {
+            writeSegment = committed.segment;
+            writeBuffer = map(writeSegment);
+            committed = new Position(committed.segment, 0);
+        }
+        else {
+            //Append after the last record of the latest segment
+            writeSegment = segments.lastKey();
+            writeBuffer = map(writeSegment);
+            while (writeBuffer.remaining() >= LENGTH_BYTES) {
+                int length = writeBuffer.getInt(writeBuffer.position());
+                if(length <= 0)
+                    break;
+                writeBuffer.position(writeBuffer.position() + LENGTH_BYTES + length);
+            }
+        }
+        readSegment = segments.firstKey();
+        readBuffer = readSegment == writeSegment ? writeBuffer.duplicate() : map(readSegment);
+        readOffset = readSegment == committed.segment ? committed.offset : 0;
+        log.info("Audit journal opened with {} segments in {}, reading from segment {} offset {}", segments.size(),
+                directory, readSegment, readOffset);
+    }
+
+    /**
+     * @return false if the record does not fit in a segment or the journal is full
+     */
+    public synchronized boolean append(byte[] record) throws IOException {
+        if(LENGTH_BYTES + record.length + LENGTH_BYTES > segmentSize)
+            return false;
+        //Last int of the segment is left for the end marker
+        if(writeBuffer.remaining() < LENGTH_BYTES + record.length + LENGTH_BYTES) {
+            if(segments.size() >= maxSegments)
+                return false;
+            writeSegment++;
+            writeBuffer = map(writeSegment);
+        }
+        int position = writeBuffer.position();
+        writeBuffer.position(position + LENGTH_BYTES);
+        writeBuffer.put(record);
+        //Length is written last, a partly written record is never read
+        writeBuffer.putInt(position, record.length);
+        return true;
+    }
+
+    /**
+     * Reads up to maxRecords records following the last read record, may be called only from the reader thread.
+     */
+    public List<byte[]> read(int maxRecords) throws IOException {
+        List<byte[]> records = new ArrayList<>();
+        while (records.size() < maxRecords) {
+            long lastSegment;
+            int length;
+            synchronized (this) {
+                lastSegment = writeSegment;
+                length = readOffset + LENGTH_BYTES <= segmentSize ? readBuffer.getInt(readOffset) : 0;
+            }
+            if(length <= 0) {
+                if(readSegment == lastSegment)
+                    break;
+                //Segment is fully read, continue with the next segment
+                readSegment++;
+                readBuffer = map(readSegment);
+                readOffset = 0;
+                continue;
+            }
+            byte[] record = new byte[length];
+            ByteBuffer buffer = readBuffer.duplicate();
+            buffer.position(readOffset + LENGTH_BYTES);
+            buffer.get(record);
+            readOffset += LENGTH_BYTES + length;
+            records.add(record);
+        }
+        return records;
+    }
+
+    /**
+     * @return position after the last read record
+     */
+    public Position getReadPosition() {
+        return new Position(readSegment, readOffset);
+    }
+
+    /**
+     * Marks the records up to the given position as processed, may be called only from the reader thread.
+     */
+    public void commit(Position position) throws IOException {
+        checkpoint.putLong(0, position.segment);
+        checkpoint.putInt(Long.BYTES, position.offset);
+        checkpoint.force();
+        List<Path> committedSegments = new ArrayList<>();
+        synchronized (this) {
+            while (!segments.isEmpty() && segments.firstKey() < position.segment)
+                committedSegments.add(segments.pollFirstEntry().getValue());
+        }
+        for(Path segment : committedSegments)
+            Files.deleteIfExists(segment);
+    }
+
+    public synchronized int getSegmentCount() {
+        return segments.size();
+    }
+
+    private MappedByteBuffer map(long segment) throws IOException {
+        Path path = directory.resolve(String.format("audit-%012d.journal", segment));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            synchronized (this) {
+                segments.put(segment, path);
+            }
+            return buffer;
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        writeBuffer.force();
+        checkpoint.force();
+    }
+
+    public static class Position {
+        private final long segment;
+        private final int offset;
+
+        public Position(long segment, int offset) {
+            this.segment = segment;
+            this.offset = offset;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.mosip.esignet.api.spi.AuditPlugin;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.BeanInitializationException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Wraps the {@link AuditPlugin} bean with {@link JournalingAuditPlugin}, so that the audit events survive an audit
+ * sink outage and a restart. Journal is the inner audit decorator, the asynchronous audit dispatcher when enabled
+ * appends to the journal off the request thread.
+ */
+@ConditionalOnProperty(value = "mosip.esignet.audit.journal.enabled", havingValue = "true")
+@Component
+@Slf4j
+public class AuditJournalBeanPostProcessor implements BeanPostProcessor, DisposableBean, Ordered {
+
+    @Value("${mosip.esignet.audit.journal.directory:audit-journal}")
+    private String directory;
+
+    @Value("${mosip.esignet.audit.journal.segment-size-mb:64}")
+    private int segmentSizeMb;
+
+    @Value("${mosip.esignet.audit.journal.max-segments:16}")
+    private int maxSegments;
+
+    @Value("${mosip.esignet.audit.journal.batch-size:100}")
+    private int batchSize;
+
+    @Value("${mosip.esignet.audit.journal.poll-interval-millis:200}")
+    private long pollIntervalMillis;
+
+    @Value("${mosip.esignet.audit.journal.retry-backoff-millis:1000}")
+    private long retryBackoffMillis;
+
+    private final ObjectProvider<MeterRegistry> meterRegistryProvider;
+    private final List<JournalingAuditPlugin> journalingAuditPlugins = new ArrayList<>();
+
+    public AuditJournalBeanPostProcessor(ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        this.meterRegistryProvider = meterRegistryProvider;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if(bean instanceof AuditPlugin && !(bean instanceof JournalingAuditPlugin) && !(bean instanceof AsyncAuditPlugin)) {
+            log.info("Journaling the audit events of audit plugin {} in {}", beanName, directory);
+            try {
+                AuditJournal journal = new AuditJournal(Paths.get(directory, beanName), segmentSizeMb * 1024 * 1024,
+                        maxSegments);
+                JournalingAuditPlugin journalingAuditPlugin = new JournalingAuditPlugin((AuditPlugin) bean, journal,
+                        batchSize, pollIntervalMillis, retryBackoffMillis, meterRegistryProvider.getObject());
+                journalingAuditPlugins.add(journalingAuditPlugin);
+                return journalingAuditPlugin;
+            } catch (IOException e) {
+                throw new BeanInitializationException("Failed to open the audit journal in " + directory, e);
+            }
+        }
+        return bean;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE - 10;
+    }
+
+    @Override
+    public void destroy() {
+        journalingAuditPlugins.forEach(JournalingAuditPlugin::close);
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskDecorator;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Tracks the tasks running on an executor and reports the tasks holding a thread longer than the threshold, with the
+ * stack trace of the thread, so that the dependency blocking the executor threads can be identified.
+ *
+ * A blocked task is reported once, the number of blocked tasks is published as esignet.execution.tasks.blocked.
+ */
+@Slf4j
+public class BlockedTaskDetector implements TaskDecorator, AutoCloseable {
+
+    private final String executorName;
+    private final long thresholdNanos;
+    //Thread running a task -> task
+    private final Map<Thread, RunningTask> runningTasks = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService watchdog;
+    private final Counter blocked;
+
+    public BlockedTaskDetector(String executorName, long thresholdMillis, long checkIntervalMillis,
+                               MeterRegistry meterRegistry) {
+        this.executorName = executorName;
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+
+        Gauge.builder("esignet.execution.tasks.running", runningTasks, Map::size)
+                .tag("executor", executorName)
+                .description("Number of tasks running on the executor")
+                .register(meterRegistry);
+        this.blocked = Counter.builder("esignet.execution.tasks.blocked")
+                .tag("executor", executorName)
+                .description("Number of tasks which held an executor thread longer than the threshold")
+                .register(meterRegistry);
+
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, executorName + "-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.watchdog.scheduleWithFixedDelay(this::check, checkIntervalMillis, checkIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        return () -> {
+            Thread thread = Thread.currentThread();
+            runningTasks.put(thread, new RunningTask(System.nanoTime()));
+            try {
+                runnable.run();
+            } finally {
+                runningTasks.remove(thread);
+            }
+        };
+    }
+
+    void check() {
+        long now = System.nanoTime();
+        runningTasks.forEach((thread, task) -> {
+            if(task.reported || now - task.startTime < thresholdNanos)
+                return;
+            task.reported = true;
+            blocked.increment();
+            log.warn("Task on {} thread {} is running for {} ms, blocked at:\n\t{}", executorName, thread.getName(),
+                    TimeUnit.NANOSECONDS.toMillis(now - task.startTime),
+                    Arrays.stream(thread.getStackTrace()).map(String::valueOf).collect(Collectors.joining("\n\t")));
+        });
+    }
+
+    @Override
+    public void close() {
+        watchdog.shutdownNow();
+    }
+
+    private static class RunningTask {
+        private final long startTime;
+        private volatile boolean reported;
+
+        private RunningTask(long startTime) {
+            this.startTime = startTime;
+        }
+    }
+}
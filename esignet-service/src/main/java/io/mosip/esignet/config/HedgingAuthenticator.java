@@ -0,0 +1,81 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.config;
+
+import io.mosip.esignet.api.dto.*;
+import io.mosip.esignet.api.exception.KycAuthException;
+import io.mosip.esignet.api.exception.KycExchangeException;
+import io.mosip.esignet.api.exception.KycSigningCertificateException;
+import io.mosip.esignet.api.exception.SendOtpException;
+import io.mosip.esignet.api.spi.Authenticator;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Decorates the configured {@link Authenticator} plugin to hedge the idempotent calls, KYC exchange with the same
+ * KYC token and the KYC signing certificates fetch. KYC auth and send OTP are never hedged, a second attempt would
+ * consume the OTP or send out one more notification.
+ */
+public class HedgingAuthenticator implements Authenticator {
+
+    private final Authenticator delegate;
+    private final PluginCallHedger kycExchangeHedger;
+    private final PluginCallHedger kycSigningCertificateHedger;
+
+    public HedgingAuthenticator(Authenticator delegate, PluginCallHedger kycExchangeHedger,
+                                PluginCallHedger kycSigningCertificateHedger) {
+        this.delegate = delegate;
+        this.kycExchangeHedger = kycExchangeHedger;
+        this.kycSigningCertificateHedger = kycSigningCertificateHedger;
+    }
+
+    @Override
+    public KycExchangeResult doKycExchange(String relyingPartyId, String clientId, KycExchangeDto kycExchangeDto)
+            throws KycExchangeException {
+        return kycExchangeHedger.call(() -> delegate.doKycExchange(relyingPartyId, clientId, kycExchangeDto),
+                KycExchangeException.class);
+    }
+
+    @Override
+    public CompletableFuture<KycExchangeResult> doKycExchangeAsync(String relyingPartyId, String clientId,
+                                                                   KycExchangeDto kycExchangeDto) {
+        return kycExchangeHedger.callAsync(() -> delegate.doKycExchangeAsync(relyingPartyId, clientId, kycExchangeDto));
+    }
+
+    @Override
+    public List<KycSigningCertificateData> getAllKycSigningCertificates() throws KycSigningCertificateException {
+        return kycSigningCertificateHedger.call(delegate::getAllKycSigningCertificates,
+                KycSigningCertificateException.class);
+    }
+
+    @Override
+    public KycAuthResult doKycAuth(String relyingPartyId, String clientId, KycAuthDto kycAuthDto)
+            throws KycAuthException {
+        return delegate.doKycAuth(relyingPartyId, clientId, kycAuthDto);
+    }
+
+    @Override
+    public SendOtpResult sendOtp(String relyingPartyId, String clientId, SendOtpDto sendOtpDto)
+            throws SendOtpException {
+        return delegate.sendOtp(relyingPartyId, clientId, sendOtpDto);
+    }
+
+    @Override
+    public CompletableFuture<KycAuthResult> doKycAuthAsync(String relyingPartyId, String clientId, KycAuthDto kycAuthDto) {
+        return delegate.doKycAuthAsync(relyingPartyId, clientId, kycAuthDto);
+    }
+
+    @Override
+    public CompletableFuture<SendOtpResult> sendOtpAsync(String relyingPartyId, String clientId, SendOtpDto sendOtpDto) {
+        return delegate.sendOtpAsync(relyingPartyId, clientId, sendOtpDto);
+    }
+
+    @Override
+    public boolean isSupportedOtpChannel(String channel) {
+        return delegate.isSupportedOtpChannel(channel);
+    }
+}
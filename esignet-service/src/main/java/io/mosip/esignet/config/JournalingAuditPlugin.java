@@ -0,0 +1,234 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.config;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.mosip.esignet.api.dto.AuditDTO;
+import io.mosip.esignet.api.dto.AuditEventDTO;
+import io.mosip.esignet.api.spi.AuditPlugin;
+import io.mosip.esignet.api.util.Action;
+import io.mosip.esignet.api.util.ActionStatus;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Decorates the configured {@link AuditPlugin} to write the audit events to a local {@link AuditJournal}, a
+ * background shipper delivers the journaled events to the plugin in batches and commits them once delivered.
+ *
+ * An unavailable audit sink neither blocks the requests nor loses the events, delivery is retried until it succeeds
+ * and events not delivered before a shutdown are delivered after the restart. Events are delivered at least once.
+ * When the journal is full or fails, the event is delivered to the plugin on the request thread.
+ */
+@Slf4j
+public class JournalingAuditPlugin implements AuditPlugin, AutoCloseable {
+
+    private static final long MAX_RETRY_BACKOFF_MILLIS = 30000;
+
+    private final AuditPlugin delegate;
+    private final AuditJournal journal;
+    private final int batchSize;
+    private final long pollIntervalNanos;
+    private final long retryBackoffMillis;
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+            .serializationInclusion(JsonInclude.Include.NON_NULL)
+            .build();
+    private final Thread shipper;
+    private volatile boolean running = true;
+
+    private final Counter shipped;
+    private final Counter shipFailures;
+    private final Counter bypassed;
+
+    public JournalingAuditPlugin(AuditPlugin delegate, AuditJournal journal, int batchSize, long pollIntervalMillis,
+                                 long retryBackoffMillis, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.journal = journal;
+        this.batchSize = batchSize;
+        this.pollIntervalNanos = TimeUnit.MILLISECONDS.toNanos(pollIntervalMillis);
+        this.retryBackoffMillis = retryBackoffMillis;
+
+        Gauge.builder("esignet.audit.journal.segments", journal, AuditJournal::getSegmentCount)
+                .description("Number of audit journal segments not yet delivered to the audit plugin")
+                .register(meterRegistry);
+        this.shipped = Counter.builder("esignet.audit.journal.shipped")
+                .description("Number of journaled audit events delivered to the audit plugin")
+                .register(meterRegistry);
+        this.shipFailures = Counter.builder("esignet.audit.journal.ship-failures")
+                .description("Number of failed attempts to deliver a batch of journaled audit events")
+                .register(meterRegistry);
+        this.bypassed = Counter.builder("esignet.audit.journal.bypassed")
+                .description("Number of audit events logged on the request thread as the journal was full or failed")
+                .register(meterRegistry);
+
+        this.shipper = new Thread(this::ship, "audit-journal-shipper");
+        this.shipper.setDaemon(true);
+        this.shipper.start();
+    }
+
+    @Override
+    public void logAudit(Action action, ActionStatus status, AuditDTO audit, Throwable t) {
+        append(new AuditEventDTO(null, action, status, audit, t));
+    }
+
+    @Override
+    public void logAudit(String username, Action action, ActionStatus status, AuditDTO audit, Throwable t) {
+        append(new AuditEventDTO(username, action, status, audit, t));
+    }
+
+    @Override
+    public boolean isAuditable(Action action, ActionStatus status) {
+        return delegate.isAuditable(action, status);
+    }
+
+    private void append(AuditEventDTO event) {
+        try {
+            if(running && journal.append(objectMapper.writeValueAsBytes(new JournalRecord(event)))) {
+                LockSupport.unpark(shipper);
+                return;
+            }
+        } catch (IOException e) {
+            log.error("Failed to journal audit event {} {}", event.getAction(), event.getStatus(), e);
+        }
+        bypassed.increment();
+        delegate.logAudit(event);
+    }
+
+    private void ship() {
+        while (running) {
+            List<AuditEventDTO> batch;
+            try {
+                batch = toEvents(journal.read(batchSize));
+            } catch (IOException e) {
+                log.error("Failed to read the audit journal", e);
+                LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(retryBackoffMillis));
+                continue;
+            }
+            if(batch.isEmpty()) {
+                LockSupport.parkNanos(this, pollIntervalNanos);
+                continue;
+            }
+            AuditJournal.Position position = journal.getReadPosition();
+            if(deliver(batch)) {
+                try {
+                    journal.commit(position);
+                } catch (IOException e) {
+                    log.error("Failed to commit the audit journal, events may be delivered again", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Delivers the batch until it succeeds or the shipper is stopped, backing off between the attempts.
+     */
+    private boolean deliver(List<AuditEventDTO> batch) {
+        long backoffMillis = retryBackoffMillis;
+        while (running) {
+            try {
+                delegate.logAudits(batch);
+                shipped.increment(batch.size());
+                return true;
+            } catch (Throwable e) {
+                shipFailures.increment();
+                log.error("Failed to deliver {} journaled audit events, retrying in {} ms", batch.size(),
+                        backoffMillis, e);
+                LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(backoffMillis));
+                backoffMillis = Math.min(MAX_RETRY_BACKOFF_MILLIS, backoffMillis * 2);
+            }
+        }
+        return false;
+    }
+
+    private List<AuditEventDTO> toEvents(List<byte[]> records) {
+        List<AuditEventDTO> events = new ArrayList<>(records.size());
+        for(byte[] record : records) {
+            try {
+                events.add(objectMapper.readValue(record, JournalRecord.class).toEvent());
+            } catch (IOException e) {
+                log.error("Skipping unreadable audit journal record", e);
+            }
+        }
+        return events;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(shipper);
+        try {
+            shipper.join(TimeUnit.NANOSECONDS.toMillis(pollIntervalNanos) + 1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        journal.close();
+    }
+
+    /**
+     * Serialized form of the audit event, the error is kept as its type and message.
+     */
+    @Data
+    public static class JournalRecord {
+        private String username;
+        private Action action;
+        private ActionStatus status;
+        private AuditDTO audit;
+        private String errorType;
+        private String errorMessage;
+
+        public JournalRecord() {
+        }
+
+        JournalRecord(AuditEventDTO event) {
+            this.username = event.getUsername();
+            this.action = event.getAction();
+            this.status = event.getStatus();
+            this.audit = event.getAudit();
+            if(event.getThrowable() != null) {
+                this.errorType = event.getThrowable().getClass().getName();
+                this.errorMessage = event.getThrowable().getMessage();
+            }
+        }
+
+        AuditEventDTO toEvent() {
+            return new AuditEventDTO(username, action, status, audit,
+                    errorType == null ? null : new JournaledAuditError(errorType, errorMessage));
+        }
+    }
+
+    /**
+     * Error of a journaled audit event, stands in for the original exception which is not serialized.
+     */
+    public static class JournaledAuditError extends RuntimeException {
+        private final String errorType;
+
+        public JournaledAuditError(String errorType, String message) {
+            super(message, null, false, false);
+            this.errorType = errorType;
+        }
+
+        public String getErrorType() {
+            return errorType;
+        }
+
+        @Override
+        public String toString() {
+            return getMessage() == null ? errorType : errorType + ": " + getMessage();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.config;
+
+import io.mosip.esignet.api.spi.Authenticator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Wraps the {@link Authenticator} plugin bean so that JWKS requests are served with the cached KYC signing
+ * certificates instead of calling the identity system every time. Cache is the outermost plugin decorator,
+ * the background refresh goes through the hedging and resilience decorators when enabled.
+ */
+@ConditionalOnProperty(value = "mosip.esignet.kyc-signing-certificate.cache.enabled", havingValue = "true")
+@Component
+@Slf4j
+public class KycSigningCertificateCacheBeanPostProcessor implements BeanPostProcessor, DisposableBean, Ordered {
+
+    @Value("${mosip.esignet.kyc-signing-certificate.cache.refresh-interval-seconds:300}")
+    private long refreshIntervalSeconds;
+
+    private final List<KycSigningCertificateCachingAuthenticator> cachingAuthenticators = new ArrayList<>();
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if(bean instanceof Authenticator && !(bean instanceof KycSigningCertificateCachingAuthenticator)) {
+            log.info("Caching KYC signing certificates of authenticator {}, refreshed every {} seconds", beanName,
+                    refreshIntervalSeconds);
+            KycSigningCertificateCachingAuthenticator cachingAuthenticator =
+                    new KycSigningCertificateCachingAuthenticator((Authenticator) bean, refreshIntervalSeconds);
+            cachingAuthenticators.add(cachingAuthenticator);
+            return cachingAuthenticator;
+        }
+        return bean;
+    }
+
+    @Override
+    public int getOrder() {
+        return PluginResilienceBeanPostProcessor.ORDER + 2;
+    }
+
+    @Override
+    public void destroy() {
+        cachingAuthenticators.forEach(KycSigningCertificateCachingAuthenticator::close);
+    }
+}
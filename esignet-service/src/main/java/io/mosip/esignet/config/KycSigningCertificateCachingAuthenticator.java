@@ -0,0 +1,159 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.config;
+
+import io.mosip.esignet.api.dto.*;
+import io.mosip.esignet.api.exception.KycAuthException;
+import io.mosip.esignet.api.exception.KycExchangeException;
+import io.mosip.esignet.api.exception.KycSigningCertificateException;
+import io.mosip.esignet.api.exception.SendOtpException;
+import io.mosip.esignet.api.spi.Authenticator;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Decorates the configured {@link Authenticator} plugin to serve the KYC signing certificates from memory, every
+ * other call is delegated as is.
+ *
+ * Certificates are fetched once on the first request and then refreshed in the background at a fixed interval,
+ * or on request once one of the cached certificates has expired. Expired certificates are never served, a slow or failing
+ * refresh does not block the callers, the last fetched certificates are served until the refresh succeeds.
+ */
+@Slf4j
+public class KycSigningCertificateCachingAuthenticator implements Authenticator, AutoCloseable {
+
+    //Upstream may still return an expired certificate, avoid calling it on every request in that case
+    private static final long EXPIRED_REFRESH_BACKOFF_MILLIS = 30000;
+
+    private final Authenticator delegate;
+    private final long refreshIntervalMillis;
+    private final ScheduledExecutorService refreshExecutor;
+    private final AtomicBoolean refreshInProgress = new AtomicBoolean();
+    private volatile List<KycSigningCertificateData> certificates;
+    private volatile long fetchedAtMillis;
+
+    public KycSigningCertificateCachingAuthenticator(Authenticator delegate, long refreshIntervalSeconds) {
+        this.delegate = delegate;
+        this.refreshIntervalMillis = TimeUnit.SECONDS.toMillis(refreshIntervalSeconds);
+        this.refreshExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "kyc-signing-certificate-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.refreshExecutor.scheduleWithFixedDelay(this::refresh, refreshIntervalSeconds,
+                refreshIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public List<KycSigningCertificateData> getAllKycSigningCertificates() throws KycSigningCertificateException {
+        List<KycSigningCertificateData> cached = certificates;
+        if(cached == null) {
+            synchronized (this) {
+                if(certificates == null)
+                    fetch();
+                cached = certificates;
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        List<KycSigningCertificateData> valid = cached.stream()
+                .filter(certificate -> !isExpired(certificate, now))
+                .collect(Collectors.toList());
+        long age = System.currentTimeMillis() - fetchedAtMillis;
+        if(age >= refreshIntervalMillis || (valid.size() < cached.size() && age >= EXPIRED_REFRESH_BACKOFF_MILLIS))
+            triggerRefresh();
+        return valid;
+    }
+
+    private void refresh() {
+        //Nothing to refresh until the certificates are requested once
+        if(certificates != null)
+            triggerRefresh();
+    }
+
+    private void triggerRefresh() {
+        if(!refreshInProgress.compareAndSet(false, true))
+            return;
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    fetch();
+                } catch (Exception e) {
+                    log.error("Failed to refresh KYC signing certificates, serving the last fetched certificates", e);
+                } finally {
+                    refreshInProgress.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshInProgress.set(false);
+        }
+    }
+
+    private void fetch() throws KycSigningCertificateException {
+        List<KycSigningCertificateData> fetched = delegate.getAllKycSigningCertificates();
+        certificates = fetched == null ? Collections.emptyList() : fetched.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toUnmodifiableList());
+        fetchedAtMillis = System.currentTimeMillis();
+        log.debug("Fetched {} KYC signing certificates", certificates.size());
+    }
+
+    private boolean isExpired(KycSigningCertificateData certificate, LocalDateTime now) {
+        return certificate.getExpiryAt() != null && !certificate.getExpiryAt().isAfter(now);
+    }
+
+    @Override
+    public KycAuthResult doKycAuth(String relyingPartyId, String clientId, KycAuthDto kycAuthDto)
+            throws KycAuthException {
+        return delegate.doKycAuth(relyingPartyId, clientId, kycAuthDto);
+    }
+
+    @Override
+    public KycExchangeResult doKycExchange(String relyingPartyId, String clientId, KycExchangeDto kycExchangeDto)
+            throws KycExchangeException {
+        return delegate.doKycExchange(relyingPartyId, clientId, kycExchangeDto);
+    }
+
+    @Override
+    public SendOtpResult sendOtp(String relyingPartyId, String clientId, SendOtpDto sendOtpDto)
+            throws SendOtpException {
+        return delegate.sendOtp(relyingPartyId, clientId, sendOtpDto);
+    }
+
+    @Override
+    public CompletableFuture<KycAuthResult> doKycAuthAsync(String relyingPartyId, String clientId, KycAuthDto kycAuthDto) {
+        return delegate.doKycAuthAsync(relyingPartyId, clientId, kycAuthDto);
+    }
+
+    @Override
+    public CompletableFuture<KycExchangeResult> doKycExchangeAsync(String relyingPartyId, String clientId,
+                                                                   KycExchangeDto kycExchangeDto) {
+        return delegate.doKycExchangeAsync(relyingPartyId, clientId, kycExchangeDto);
+    }
+
+    @Override
+    public CompletableFuture<SendOtpResult> sendOtpAsync(String relyingPartyId, String clientId, SendOtpDto sendOtpDto) {
+        return delegate.sendOtpAsync(relyingPartyId, clientId, sendOtpDto);
+    }
+
+    @Override
+    public boolean isSupportedOtpChannel(String channel) {
+        return delegate.isSupportedOtpChannel(channel);
+    }
+
+    @Override
+    public void close() {
+        refreshExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Replaces the application task executor running the {@code @Async} methods, i.e. the link status and link auth code
+ * lookups, with one sized by the offload properties. Pool usage, queue depth and rejected tasks are published as
+ * metrics, and the tasks holding a thread too long are reported by {@link BlockedTaskDetector}.
+ *
+ * Once the pool and the queue are full the task is rejected, it is never run on the submitting request thread.
+ */
+@ConditionalOnProperty(value = "mosip.esignet.execution.offload.enabled", havingValue = "true")
+@Configuration
+@Slf4j
+public class OffloadExecutionConfig {
+
+    private static final String EXECUTOR_NAME = "esignet-offload";
+
+    @Value("${mosip.esignet.execution.offload.core-pool-size:16}")
+    private int corePoolSize;
+
+    @Value("${mosip.esignet.execution.offload.max-pool-size:200}")
+    private int maxPoolSize;
+
+    @Value("${mosip.esignet.execution.offload.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${mosip.esignet.execution.offload.blocked-task-threshold-millis:5000}")
+    private long blockedTaskThresholdMillis;
+
+    @Value("${mosip.esignet.execution.offload.blocked-task-check-interval-millis:1000}")
+    private long blockedTaskCheckIntervalMillis;
+
+    @Bean(destroyMethod = "close")
+    public BlockedTaskDetector offloadBlockedTaskDetector(MeterRegistry meterRegistry) {
+        return new BlockedTaskDetector(EXECUTOR_NAME, blockedTaskThresholdMillis, blockedTaskCheckIntervalMillis,
+                meterRegistry);
+    }
+
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME, "taskExecutor"})
+    public ThreadPoolTaskExecutor applicationTaskExecutor(BlockedTaskDetector offloadBlockedTaskDetector,
+                                                          MeterRegistry meterRegistry) {
+        log.info("Application task executor pool size {}-{} with queue capacity {}", corePoolSize, maxPoolSize,
+                queueCapacity);
+        Counter rejected = Counter.builder("esignet.execution.tasks.rejected")
+                .tag("executor", EXECUTOR_NAME)
+                .description("Number of tasks rejected as the pool and the queue were full")
+                .register(meterRegistry);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(EXECUTOR_NAME + "-");
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setTaskDecorator(offloadBlockedTaskDetector);
+        executor.setRejectedExecutionHandler((task, threadPoolExecutor) -> {
+            rejected.increment();
+            throw new RejectedExecutionException("Task rejected, " + EXECUTOR_NAME + " pool and queue are full");
+        });
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+
+        Gauge.builder("esignet.execution.pool.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .tag("executor", EXECUTOR_NAME)
+                .description("Number of executor threads running a task")
+                .register(meterRegistry);
+        Gauge.builder("esignet.execution.queue.depth", executor,
+                        e -> e.getThreadPoolExecutor().getQueue().size())
+                .tag("executor", EXECUTOR_NAME)
+                .description("Number of tasks waiting for an executor thread")
+                .register(meterRegistry);
+        return executor;
+    }
+}
@@ -0,0 +1,247 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.mosip.esignet.core.util.IdentityProviderUtil;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import static io.mosip.esignet.core.constants.ErrorConstants.PLUGIN_TIMEOUT;
+import static io.mosip.esignet.core.constants.ErrorConstants.PLUGIN_UNAVAILABLE;
+import static io.mosip.esignet.core.constants.ErrorConstants.RELYING_PARTY_LIMIT_REACHED;
+
+/**
+ * Guards one plugin operation with a concurrency bulkhead, a call timeout and a circuit breaker.
+ *
+ * Calls are run on a dedicated pool sized to the bulkhead, a call is rejected right away when all the permits
+ * are taken instead of queueing up request threads. The permit is held until the plugin call really returns,
+ * so calls stuck in the plugin after their timeout still count against the bulkhead.
+ *
+ * Only timeouts and unchecked exceptions are counted as failures by the circuit breaker, checked plugin
+ * exceptions (ex: invalid OTP) are valid outcomes of a healthy plugin. After the configured number of consecutive
+ * failures the circuit opens and calls fail fast, once the open duration elapses a single trial call is let
+ * through to decide whether to close the circuit again.
+ *
+ * When a {@link RelyingPartyLimiter} is set, the bulkhead permits are further shared between the relying parties.
+ */
+@Slf4j
+public class PluginCallGuard implements AutoCloseable {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String operation;
+    private final Semaphore bulkhead;
+    private final long timeoutMillis;
+    private final int failureThreshold;
+    private final long openDurationMillis;
+    private final ThreadPoolExecutor executor;
+    private final RelyingPartyLimiter relyingPartyLimiter;
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile long openedAtMillis;
+
+    private final Counter bulkheadRejections;
+    private final Counter circuitOpenRejections;
+    private final Counter timeouts;
+    private final Counter errors;
+
+    public PluginCallGuard(String operation, int maxConcurrentCalls, long timeoutMillis, int failureThreshold,
+                           long openDurationMillis, MeterRegistry meterRegistry) {
+        this(operation, maxConcurrentCalls, timeoutMillis, failureThreshold, openDurationMillis, null, meterRegistry);
+    }
+
+    public PluginCallGuard(String operation, int maxConcurrentCalls, long timeoutMillis, int failureThreshold,
+                           long openDurationMillis, RelyingPartyLimiter relyingPartyLimiter, MeterRegistry meterRegistry) {
+        this.operation = operation;
+        this.relyingPartyLimiter = relyingPartyLimiter;
+        this.bulkhead = new Semaphore(maxConcurrentCalls);
+        this.timeoutMillis = timeoutMillis;
+        this.failureThreshold = failureThreshold;
+        this.openDurationMillis = openDurationMillis;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(maxConcurrentCalls, maxConcurrentCalls, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "plugin-" + operation + "-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+
+        Gauge.builder("esignet.plugin.circuit.state", state, s -> s.get().ordinal())
+                .description("Plugin circuit breaker state, 0 - closed, 1 - open, 2 - half open")
+                .tag("operation", operation)
+                .register(meterRegistry);
+        Gauge.builder("esignet.plugin.bulkhead.available", bulkhead, Semaphore::availablePermits)
+                .description("Number of plugin calls that can still be accepted")
+                .tag("operation", operation)
+                .register(meterRegistry);
+        this.bulkheadRejections = rejectionCounter(meterRegistry, "bulkhead_full");
+        this.circuitOpenRejections = rejectionCounter(meterRegistry, "circuit_open");
+        this.timeouts = failureCounter(meterRegistry, "timeout");
+        this.errors = failureCounter(meterRegistry, "error");
+    }
+
+    public <T, E extends Exception> T call(Callable<T> call, Class<E> exceptionType,
+                                           Function<String, E> errorFactory) throws E {
+        return call(null, null, call, exceptionType, errorFactory);
+    }
+
+    /**
+     * Runs the blocking plugin call under the guard.
+     * @param relyingPartyId relying party on whose behalf the call is made, null if not applicable
+     * @param clientId client on whose behalf the call is made
+     * @param call plugin call
+     * @param exceptionType checked exception declared by the plugin operation, rethrown as is
+     * @param errorFactory creates the plugin exception for the given error code on rejection or timeout
+     */
+    public <T, E extends Exception> T call(String relyingPartyId, String clientId, Callable<T> call,
+                                           Class<E> exceptionType, Function<String, E> errorFactory) throws E {
+        try {
+            return callAsync(relyingPartyId, clientId, () -> CompletableFuture.completedFuture(call.call()),
+                    errorFactory).join();
+        } catch (CompletionException e) {
+            Throwable cause = IdentityProviderUtil.unwrapCompletionException(e);
+            if(exceptionType.isInstance(cause))
+                throw exceptionType.cast(cause);
+            if(cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            throw e;
+        }
+    }
+
+    public <T> CompletableFuture<T> callAsync(Callable<CompletableFuture<T>> call,
+                                              Function<String, ? extends Exception> errorFactory) {
+        return callAsync(null, null, call, errorFactory);
+    }
+
+    /**
+     * Runs the non-blocking plugin call under the guard, the call is never made on the caller thread.
+     * Returned future is completed exceptionally with the exception created by errorFactory on rejection or timeout.
+     */
+    public <T> CompletableFuture<T> callAsync(String relyingPartyId, String clientId, Callable<CompletableFuture<T>> call,
+                                              Function<String, ? extends Exception> errorFactory) {
+        //Relying party share is checked first, a relying party over its share must not take the bulkhead permits
+        boolean limitRelyingParty = relyingPartyLimiter != null && relyingPartyId != null;
+        if(limitRelyingParty && !relyingPartyLimiter.tryAcquire(relyingPartyId, clientId))
+            return CompletableFuture.failedFuture(errorFactory.apply(RELYING_PARTY_LIMIT_REACHED));
+        if(!bulkhead.tryAcquire()) {
+            if(limitRelyingParty)
+                relyingPartyLimiter.releaseRejected(relyingPartyId, clientId);
+            bulkheadRejections.increment();
+            log.warn("Rejected {} plugin call, max concurrent calls reached", operation);
+            return CompletableFuture.failedFuture(errorFactory.apply(PLUGIN_UNAVAILABLE));
+        }
+        Runnable releasePermits = () -> {
+            if(limitRelyingParty)
+                relyingPartyLimiter.release(relyingPartyId, clientId);
+            bulkhead.release();
+        };
+        if(!tryEnterCircuit()) {
+            releasePermits.run();
+            circuitOpenRejections.increment();
+            return CompletableFuture.failedFuture(errorFactory.apply(PLUGIN_UNAVAILABLE));
+        }
+
+        CompletableFuture<T> pluginCall;
+        try {
+            pluginCall = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return call.call();
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            }, executor).thenCompose(Function.identity());
+        } catch (RejectedExecutionException e) {
+            releasePermits.run();
+            onFailure(errors);
+            return CompletableFuture.failedFuture(errorFactory.apply(PLUGIN_UNAVAILABLE));
+        }
+        //Permit is released once the plugin call really returns, timeout only completes the copy handed to the caller
+        CompletableFuture<T> released = pluginCall.whenComplete((result, throwable) -> releasePermits.run());
+        return released.copy()
+                .orTimeout(timeoutMillis, TimeUnit.MILLISECONDS)
+                .handle((result, throwable) -> {
+                    Throwable cause = IdentityProviderUtil.unwrapCompletionException(throwable);
+                    if(cause instanceof TimeoutException) {
+                        onFailure(timeouts);
+                        log.error("{} plugin call timed out after {} ms", operation, timeoutMillis);
+                        throw new CompletionException(errorFactory.apply(PLUGIN_TIMEOUT));
+                    }
+                    if(cause instanceof RuntimeException || cause instanceof Error) {
+                        onFailure(errors);
+                        throw new CompletionException(cause);
+                    }
+                    onSuccess();
+                    if(cause != null)
+                        throw new CompletionException(cause);
+                    return result;
+                });
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    private boolean tryEnterCircuit() {
+        switch (state.get()) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if(System.currentTimeMillis() - openedAtMillis < openDurationMillis)
+                    return false;
+                //Only the caller moving the circuit to half open gets to make the trial call
+                if(state.compareAndSet(State.OPEN, State.HALF_OPEN)) {
+                    log.info("{} plugin circuit is half open, allowing a trial call", operation);
+                    return true;
+                }
+                return false;
+            default:
+                return false;
+        }
+    }
+
+    private void onSuccess() {
+        consecutiveFailures.set(0);
+        if(state.compareAndSet(State.HALF_OPEN, State.CLOSED))
+            log.info("{} plugin circuit is closed", operation);
+    }
+
+    private void onFailure(Counter failureCounter) {
+        failureCounter.increment();
+        if(state.get() == State.HALF_OPEN || consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            openedAtMillis = System.currentTimeMillis();
+            if(state.getAndSet(State.OPEN) != State.OPEN)
+                log.error("{} plugin circuit is open, failing fast for {} ms", operation, openDurationMillis);
+        }
+    }
+
+    private Counter rejectionCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("esignet.plugin.calls.rejected")
+                .description("Number of plugin calls rejected without calling the plugin")
+                .tags("operation", operation, "reason", reason)
+                .register(meterRegistry);
+    }
+
+    private Counter failureCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("esignet.plugin.calls.failed")
+                .description("Number of plugin calls counted as failure by the circuit breaker")
+                .tags("operation", operation, "reason", reason)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
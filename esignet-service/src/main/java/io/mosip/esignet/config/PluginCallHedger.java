@@ -0,0 +1,242 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.mosip.esignet.core.util.IdentityProviderUtil;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Hedges an idempotent plugin operation, when the first attempt has not completed within the hedge delay a second
+ * attempt is made and the first successful result is taken.
+ *
+ * Hedge delay is the configured percentile of the recently observed latencies, hence only the slowest calls are
+ * hedged. Number of hedged attempts is bounded by a budget, every call earns a fraction of a hedge and a hedge
+ * is made only when a whole one is earned, so hedges never exceed the configured share of the traffic.
+ *
+ * Primary attempt is never rejected, only the hedged attempts are bounded by the attempt pool and the budget.
+ * Non-blocking calls make their primary attempt on the caller thread. Blocking calls make it on an idle attempt
+ * thread, so that the caller can take the hedged result, or else on the caller thread without hedging.
+ */
+@Slf4j
+public class PluginCallHedger implements AutoCloseable {
+
+    private static final int LATENCY_WINDOW_SIZE = 1000;
+    private static final int MIN_LATENCY_SAMPLES = 20;
+    private static final double MAX_BUDGET_TOKENS = 10;
+
+    private final String operation;
+    private final double percentile;
+    private final long minDelayMillis;
+    private final double budgetRatio;
+    private final ThreadPoolExecutor executor;
+
+    private final long[] latencies = new long[LATENCY_WINDOW_SIZE];
+    private long latencyCount;
+    private volatile long hedgeDelayMillis;
+    private double budgetTokens;
+
+    private final Counter hedges;
+    private final Counter hedgeWins;
+    private final Counter budgetExhausted;
+    private final Counter poolBusy;
+
+    /**
+     * @param percentile latency percentile (0-100) after which the call is hedged
+     * @param minDelayMillis minimum hedge delay, also used until enough latencies are observed
+     * @param budgetPercent maximum hedged attempts as a percentage of the calls
+     * @param maxConcurrentAttempts number of attempt threads, hedged attempts are made only on an idle thread
+     */
+    public PluginCallHedger(String operation, double percentile, long minDelayMillis, double budgetPercent,
+                            int maxConcurrentAttempts, MeterRegistry meterRegistry) {
+        this.operation = operation;
+        this.percentile = percentile;
+        this.minDelayMillis = minDelayMillis;
+        this.hedgeDelayMillis = minDelayMillis;
+        this.budgetRatio = budgetPercent / 100;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(maxConcurrentAttempts, maxConcurrentAttempts, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(maxConcurrentAttempts), runnable -> {
+                    Thread thread = new Thread(runnable, "hedge-" + operation + "-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+
+        Gauge.builder("esignet.plugin.hedge.delay", this, PluginCallHedger::getHedgeDelayMillis)
+                .description("Current hedge delay in milliseconds")
+                .tag("operation", operation)
+                .register(meterRegistry);
+        this.hedges = Counter.builder("esignet.plugin.hedge.attempts")
+                .description("Number of hedged attempts made")
+                .tag("operation", operation)
+                .register(meterRegistry);
+        this.hedgeWins = Counter.builder("esignet.plugin.hedge.wins")
+                .description("Number of calls completed by the hedged attempt")
+                .tag("operation", operation)
+                .register(meterRegistry);
+        this.budgetExhausted = Counter.builder("esignet.plugin.hedge.budget-exhausted")
+                .description("Number of slow calls not hedged as the hedge budget was exhausted")
+                .tag("operation", operation)
+                .register(meterRegistry);
+        this.poolBusy = Counter.builder("esignet.plugin.hedge.pool-busy")
+                .description("Number of slow calls not hedged as no attempt thread was idle")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    public <T, E extends Exception> T call(Callable<T> call, Class<E> exceptionType) throws E {
+        Callable<CompletableFuture<T>> blockingCall = () -> CompletableFuture.completedFuture(call.call());
+        try {
+            return callAsync(() -> {
+                try {
+                    return hasIdleThread() ? attempt(blockingCall) : blockingCall.call();
+                } catch (RejectedExecutionException e) {
+                    return blockingCall.call();
+                }
+            }, blockingCall).join();
+        } catch (CompletionException e) {
+            Throwable cause = IdentityProviderUtil.unwrapCompletionException(e);
+            if(exceptionType.isInstance(cause))
+                throw exceptionType.cast(cause);
+            if(cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            throw e;
+        }
+    }
+
+    public <T> CompletableFuture<T> callAsync(Callable<CompletableFuture<T>> call) {
+        return callAsync(call, call);
+    }
+
+    private <T> CompletableFuture<T> callAsync(Callable<CompletableFuture<T>> primaryCall,
+                                               Callable<CompletableFuture<T>> hedgedCall) {
+        earnBudget();
+        long startTime = System.nanoTime();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        //number of attempts that may still complete the result
+        AtomicInteger pendingAttempts = new AtomicInteger(1);
+
+        CompletableFuture<T> primaryAttempt;
+        try {
+            primaryAttempt = primaryCall.call();
+        } catch (Exception e) {
+            primaryAttempt = CompletableFuture.failedFuture(e);
+        }
+        primaryAttempt.whenComplete((value, throwable) -> {
+            if(throwable == null)
+                recordLatency(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+            onAttemptComplete(result, pendingAttempts, value, throwable, false);
+        });
+
+        //Hedge decision is not run on the attempt pool, it must not wait behind slow attempts
+        CompletableFuture.delayedExecutor(hedgeDelayMillis, TimeUnit.MILLISECONDS).execute(() -> {
+            if(result.isDone())
+                return;
+            //Hedge must not queue behind the attempts it is meant to overtake
+            if(!hasIdleThread()) {
+                poolBusy.increment();
+                return;
+            }
+            if(!trySpendBudget(pendingAttempts))
+                return;
+            hedges.increment();
+            hedgedAttempt(hedgedCall).whenComplete((value, throwable) ->
+                    onAttemptComplete(result, pendingAttempts, value, throwable, true));
+        });
+        return result;
+    }
+
+    private <T> CompletableFuture<T> hedgedAttempt(Callable<CompletableFuture<T>> call) {
+        try {
+            return attempt(call);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private boolean hasIdleThread() {
+        return executor.getActiveCount() + executor.getQueue().size() < executor.getMaximumPoolSize();
+    }
+
+    private <T> CompletableFuture<T> attempt(Callable<CompletableFuture<T>> call) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return call.call();
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, executor).thenCompose(Function.identity());
+    }
+
+    private <T> void onAttemptComplete(CompletableFuture<T> result, AtomicInteger pendingAttempts, T value,
+                                       Throwable throwable, boolean hedged) {
+        if(throwable == null) {
+            //Counted before the result is completed, so the caller sees the win recorded
+            synchronized (result) {
+                if(!result.isDone() && hedged)
+                    hedgeWins.increment();
+                result.complete(value);
+            }
+            return;
+        }
+        //Failure is reported only when no other attempt can succeed
+        if(pendingAttempts.decrementAndGet() == 0)
+            result.completeExceptionally(IdentityProviderUtil.unwrapCompletionException(throwable));
+    }
+
+    private synchronized void recordLatency(long latencyMillis) {
+        latencies[(int) (latencyCount % LATENCY_WINDOW_SIZE)] = latencyMillis;
+        latencyCount++;
+        //Percentile is recomputed every 10% of the window, sorting on every call is not worth it
+        if(latencyCount == MIN_LATENCY_SAMPLES ||
+                (latencyCount > MIN_LATENCY_SAMPLES && latencyCount % (LATENCY_WINDOW_SIZE / 10) == 0)) {
+            long[] window = Arrays.copyOf(latencies, (int) Math.min(latencyCount, LATENCY_WINDOW_SIZE));
+            Arrays.sort(window);
+            int index = (int) Math.ceil(percentile / 100 * window.length) - 1;
+            hedgeDelayMillis = Math.max(minDelayMillis, window[Math.max(0, index)]);
+            log.debug("{} hedge delay set to {} ms", operation, hedgeDelayMillis);
+        }
+    }
+
+    private synchronized void earnBudget() {
+        budgetTokens = Math.min(MAX_BUDGET_TOKENS, budgetTokens + budgetRatio);
+    }
+
+    /**
+     * Budget is spent only if the hedge is made, i.e. the primary attempt is still pending
+     */
+    private synchronized boolean trySpendBudget(AtomicInteger pendingAttempts) {
+        //Primary attempt already failed, nothing to hedge
+        if(pendingAttempts.get() != 1)
+            return false;
+        if(budgetTokens < 1) {
+            budgetExhausted.increment();
+            return false;
+        }
+        if(!pendingAttempts.compareAndSet(1, 2))
+            return false;
+        budgetTokens -= 1;
+        return true;
+    }
+
+    public long getHedgeDelayMillis() {
+        return hedgeDelayMillis;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.mosip.esignet.api.spi.Authenticator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Wraps the {@link Authenticator} plugin bean with {@link HedgingAuthenticator}. Hedging is applied over the
+ * resilience guards, so hedged attempts count against the plugin bulkhead like any other call.
+ */
+@ConditionalOnProperty(value = "mosip.esignet.plugin.hedging.enabled", havingValue = "true")
+@Component
+@Slf4j
+public class PluginHedgingBeanPostProcessor implements BeanPostProcessor, DisposableBean, Ordered {
+
+    @Value("${mosip.esignet.plugin.hedging.percentile:95}")
+    private double percentile;
+
+    @Value("${mosip.esignet.plugin.hedging.min-delay-millis:50}")
+    private long minDelayMillis;
+
+    @Value("${mosip.esignet.plugin.hedging.budget-percent:5}")
+    private double budgetPercent;
+
+    @Value("${mosip.esignet.plugin.hedging.max-concurrent-attempts:50}")
+    private int maxConcurrentAttempts;
+
+    private final ObjectProvider<MeterRegistry> meterRegistryProvider;
+    private final List<PluginCallHedger> hedgers = new ArrayList<>();
+
+    public PluginHedgingBeanPostProcessor(ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        this.meterRegistryProvider = meterRegistryProvider;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if(bean instanceof Authenticator && !(bean instanceof HedgingAuthenticator)) {
+            log.info("Hedging idempotent calls of authenticator {} after p{} latency, budget {}%", beanName,
+                    percentile, budgetPercent);
+            return new HedgingAuthenticator((Authenticator) bean, createHedger("kyc-exchange"),
+                    createHedger("kyc-signing-certificate"));
+        }
+        return bean;
+    }
+
+    private PluginCallHedger createHedger(String operation) {
+        PluginCallHedger hedger = new PluginCallHedger(operation, percentile, minDelayMillis, budgetPercent,
+                maxConcurrentAttempts, meterRegistryProvider.getObject());
+        hedgers.add(hedger);
+        return hedger;
+    }
+
+    @Override
+    public int getOrder() {
+        return PluginResilienceBeanPostProcessor.ORDER + 1;
+    }
+
+    @Override
+    public void destroy() {
+        hedgers.forEach(PluginCallHedger::close);
+    }
+}
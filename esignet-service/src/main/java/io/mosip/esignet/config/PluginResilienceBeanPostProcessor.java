@@ -0,0 +1,117 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.mosip.esignet.api.spi.Authenticator;
+import io.mosip.esignet.api.spi.KeyBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Wraps the {@link Authenticator} and {@link KeyBinder} plugin beans with their resilient decorators, so that a slow
+ * or unavailable identity system is isolated per operation and does not exhaust the request threads.
+ *
+ * Limits are configured per operation (kyc-auth, kyc-exchange, send-otp, send-binding-otp, key-binding),
+ * operations without an entry take the default values. Capacity of the kyc-auth and kyc-exchange operations is
+ * shared between the relying parties as per their configured weights, see {@link RelyingPartyLimiter}.
+ */
+@ConditionalOnProperty(value = "mosip.esignet.plugin.resilience.enabled", havingValue = "true")
+@Component
+@Slf4j
+public class PluginResilienceBeanPostProcessor implements BeanPostProcessor, DisposableBean, Ordered {
+
+    //Plugin decorators are applied in order, the resilient decorator is the closest to the plugin
+    public static final int ORDER = Ordered.LOWEST_PRECEDENCE - 10;
+
+    public static final String KYC_AUTH = "kyc-auth";
+    public static final String KYC_EXCHANGE = "kyc-exchange";
+    public static final String SEND_OTP = "send-otp";
+    public static final String SEND_BINDING_OTP = "send-binding-otp";
+    public static final String KEY_BINDING = "key-binding";
+
+    @Value("#{${mosip.esignet.plugin.resilience.max-concurrent-calls:{:}}}")
+    private Map<String, Integer> maxConcurrentCalls;
+
+    @Value("#{${mosip.esignet.plugin.resilience.timeout-millis:{:}}}")
+    private Map<String, Integer> timeoutMillis;
+
+    @Value("${mosip.esignet.plugin.resilience.default.max-concurrent-calls:50}")
+    private int defaultMaxConcurrentCalls;
+
+    @Value("${mosip.esignet.plugin.resilience.default.timeout-millis:10000}")
+    private int defaultTimeoutMillis;
+
+    @Value("${mosip.esignet.plugin.resilience.failure-threshold:5}")
+    private int failureThreshold;
+
+    @Value("${mosip.esignet.plugin.resilience.open-duration-seconds:30}")
+    private long openDurationSeconds;
+
+    @Value("${mosip.esignet.plugin.resilience.relying-party.enabled:true}")
+    private boolean relyingPartyLimitEnabled;
+
+    @Value("#{${mosip.esignet.plugin.resilience.relying-party.weights:{:}}}")
+    private Map<String, Integer> relyingPartyWeights;
+
+    @Value("${mosip.esignet.plugin.resilience.relying-party.max-concurrent-calls-per-client:0}")
+    private int maxConcurrentCallsPerClient;
+
+    private final ObjectProvider<MeterRegistry> meterRegistryProvider;
+    private final List<PluginCallGuard> guards = new ArrayList<>();
+
+    public PluginResilienceBeanPostProcessor(ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        this.meterRegistryProvider = meterRegistryProvider;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if(bean instanceof Authenticator && !(bean instanceof ResilientAuthenticator)) {
+            log.info("Enabling bulkhead, timeout and circuit breaker on authenticator {}", beanName);
+            return new ResilientAuthenticator((Authenticator) bean, createGuard(KYC_AUTH, relyingPartyLimitEnabled),
+                    createGuard(KYC_EXCHANGE, relyingPartyLimitEnabled), createGuard(SEND_OTP, false));
+        }
+        if(bean instanceof KeyBinder && !(bean instanceof ResilientKeyBinder)) {
+            log.info("Enabling bulkhead, timeout and circuit breaker on key binder {}", beanName);
+            return new ResilientKeyBinder((KeyBinder) bean, createGuard(SEND_BINDING_OTP, false),
+                    createGuard(KEY_BINDING, false));
+        }
+        return bean;
+    }
+
+    private PluginCallGuard createGuard(String operation, boolean limitRelyingParty) {
+        MeterRegistry meterRegistry = meterRegistryProvider.getObject();
+        int capacity = maxConcurrentCalls.getOrDefault(operation, defaultMaxConcurrentCalls);
+        int operationTimeoutMillis = timeoutMillis.getOrDefault(operation, defaultTimeoutMillis);
+        //Rejected relying party is counted as active for a call timeout, time by which the calls in flight complete
+        RelyingPartyLimiter relyingPartyLimiter = limitRelyingParty ? new RelyingPartyLimiter(operation, capacity,
+                relyingPartyWeights, maxConcurrentCallsPerClient, operationTimeoutMillis, meterRegistry) : null;
+        PluginCallGuard guard = new PluginCallGuard(operation, capacity, operationTimeoutMillis,
+                failureThreshold, openDurationSeconds * 1000, relyingPartyLimiter, meterRegistry);
+        guards.add(guard);
+        return guard;
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public void destroy() {
+        guards.forEach(PluginCallGuard::close);
+    }
+}
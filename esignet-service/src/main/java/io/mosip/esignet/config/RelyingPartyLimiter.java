@@ -0,0 +1,154 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shares the concurrent call capacity of one plugin operation between the relying parties.
+ *
+ * Each relying party is allowed its weighted share of the capacity among the active relying parties, the ones having
+ * calls in flight and the ones rejected within the waiting window. A rejected relying party keeps shrinking the share
+ * of the others until their calls in flight complete and free the capacity for it. A relying party alone can use
+ * the whole capacity but one call, so that another relying party starting to call gets through right away.
+ * Optionally the number of concurrent calls of a single client is capped as well.
+ *
+ * Calls over the share are rejected, never queued, and the capacity is static per operation.
+ */
+@Slf4j
+public class RelyingPartyLimiter {
+
+    private final String operation;
+    private final int capacity;
+    private final Map<String, Integer> weights;
+    private final int maxConcurrentCallsPerClient;
+    private final long waitingWindowMillis;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Integer> relyingPartyCalls = new HashMap<>();
+    private final Map<String, Integer> clientCalls = new HashMap<>();
+    private final Map<String, Long> rejectedAtMillis = new HashMap<>();
+    private final Map<String, Counter> rejectionCounters = new ConcurrentHashMap<>();
+    private final Map<String, Boolean> registeredGauges = new ConcurrentHashMap<>();
+
+    /**
+     * @param capacity maximum number of concurrent calls of the operation
+     * @param weights weight per relying party id, relying parties without an entry have weight 1
+     * @param maxConcurrentCallsPerClient maximum number of concurrent calls per client, 0 to disable
+     * @param waitingWindowMillis time a rejected relying party is still counted as active
+     */
+    public RelyingPartyLimiter(String operation, int capacity, Map<String, Integer> weights,
+                               int maxConcurrentCallsPerClient, long waitingWindowMillis, MeterRegistry meterRegistry) {
+        this.operation = operation;
+        this.capacity = capacity;
+        this.weights = weights;
+        this.maxConcurrentCallsPerClient = maxConcurrentCallsPerClient;
+        this.waitingWindowMillis = waitingWindowMillis;
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("esignet.plugin.relying-party.waiting", this, RelyingPartyLimiter::getWaitingRelyingParties)
+                .description("Number of relying parties rejected within the waiting window, sharing the capacity")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    public boolean tryAcquire(String relyingPartyId, String clientId) {
+        registerGauge(relyingPartyId);
+        synchronized (this) {
+            int inFlight = relyingPartyCalls.getOrDefault(relyingPartyId, 0);
+            if(inFlight >= getShare(relyingPartyId)) {
+                reject(relyingPartyId, "relying_party_share");
+                return false;
+            }
+            if(maxConcurrentCallsPerClient > 0 && clientCalls.getOrDefault(clientId, 0) >= maxConcurrentCallsPerClient) {
+                reject(relyingPartyId, "client_limit");
+                return false;
+            }
+            relyingPartyCalls.put(relyingPartyId, inFlight + 1);
+            clientCalls.merge(clientId, 1, Integer::sum);
+            rejectedAtMillis.remove(relyingPartyId);
+            return true;
+        }
+    }
+
+    /**
+     * Releases the acquired call rejected further on for lack of capacity, the relying party is then counted
+     * as waiting for its share.
+     */
+    public synchronized void releaseRejected(String relyingPartyId, String clientId) {
+        release(relyingPartyId, clientId);
+        rejectedAtMillis.put(relyingPartyId, System.currentTimeMillis());
+    }
+
+    public synchronized void release(String relyingPartyId, String clientId) {
+        relyingPartyCalls.computeIfPresent(relyingPartyId, (key, count) -> count > 1 ? count - 1 : null);
+        clientCalls.computeIfPresent(clientId, (key, count) -> count > 1 ? count - 1 : null);
+    }
+
+    public synchronized int getInFlightCalls(String relyingPartyId) {
+        return relyingPartyCalls.getOrDefault(relyingPartyId, 0);
+    }
+
+    public synchronized int getWaitingRelyingParties() {
+        return getActiveRelyingParties().size() - relyingPartyCalls.size();
+    }
+
+    /**
+     * Weighted share of the capacity among the active relying parties, including the given one.
+     */
+    synchronized int getShare(String relyingPartyId) {
+        Set<String> activeRelyingParties = getActiveRelyingParties();
+        activeRelyingParties.add(relyingPartyId);
+        if(activeRelyingParties.size() == 1)
+            return Math.max(1, capacity - 1);
+
+        int totalWeight = 0;
+        for(String activeRelyingPartyId : activeRelyingParties)
+            totalWeight += getWeight(activeRelyingPartyId);
+        return Math.max(1, capacity * getWeight(relyingPartyId) / totalWeight);
+    }
+
+    private Set<String> getActiveRelyingParties() {
+        long waitingSince = System.currentTimeMillis() - waitingWindowMillis;
+        rejectedAtMillis.values().removeIf(rejectedAt -> rejectedAt < waitingSince);
+        Set<String> activeRelyingParties = new HashSet<>(relyingPartyCalls.keySet());
+        activeRelyingParties.addAll(rejectedAtMillis.keySet());
+        return activeRelyingParties;
+    }
+
+    private int getWeight(String relyingPartyId) {
+        return Math.max(1, weights.getOrDefault(relyingPartyId, 1));
+    }
+
+    private void reject(String relyingPartyId, String reason) {
+        rejectedAtMillis.put(relyingPartyId, System.currentTimeMillis());
+        log.warn("Rejected {} call of relying party {}, {} reached", operation, relyingPartyId, reason);
+        rejectionCounters.computeIfAbsent(relyingPartyId + ":" + reason, key ->
+                Counter.builder("esignet.plugin.relying-party.calls.rejected")
+                        .description("Number of plugin calls rejected to keep the capacity shared between relying parties")
+                        .tags("operation", operation, "relying_party", relyingPartyId, "reason", reason)
+                        .register(meterRegistry)).increment();
+    }
+
+    private void registerGauge(String relyingPartyId) {
+        registeredGauges.computeIfAbsent(relyingPartyId, key -> {
+            Gauge.builder("esignet.plugin.relying-party.calls.in-flight", this, limiter -> limiter.getInFlightCalls(key))
+                    .description("Number of plugin calls in flight per relying party")
+                    .tags("operation", operation, "relying_party", key)
+                    .register(meterRegistry);
+            return true;
+        });
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Routes connections of read-only transactions to one of the healthy replicas in round-robin order,
+ * every other connection is taken from the primary. A replica is considered unhealthy if its replication
+ * lag is above the configured threshold or if it could not be reached, in which case reads fall back to primary.
+ *
+ * Lookup key is resolved when the connection is requested, hence this datasource must be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} so that the connection is fetched
+ * only after the transaction read-only flag is set.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    public static final String PRIMARY_KEY = "primary";
+    public static final String REPLICA_KEY_PREFIX = "replica-";
+
+    private final DataSource primaryDataSource;
+    private final Map<String, DataSource> replicaDataSources;
+    private final String lagQuery;
+    private final long maxLagSeconds;
+    private final Set<String> healthyReplicas = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger roundRobinCounter = new AtomicInteger();
+    private ScheduledExecutorService lagCheckExecutor;
+
+    public ReplicaRoutingDataSource(DataSource primaryDataSource, List<DataSource> replicas, String lagQuery,
+                                    long maxLagSeconds) {
+        this.primaryDataSource = primaryDataSource;
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLagSeconds;
+        this.replicaDataSources = new LinkedHashMap<>();
+        for(int i=0; i<replicas.size(); i++) {
+            this.replicaDataSources.put(REPLICA_KEY_PREFIX+i, replicas.get(i));
+        }
+
+        Map<Object, Object> targetDataSources = new HashMap<>(this.replicaDataSources);
+        targetDataSources.put(PRIMARY_KEY, primaryDataSource);
+        setTargetDataSources(targetDataSources);
+        setDefaultTargetDataSource(primaryDataSource);
+        //Replicas are considered healthy until the first lag check says otherwise
+        this.healthyReplicas.addAll(this.replicaDataSources.keySet());
+    }
+
+    /**
+     * Starts the periodic replication lag check on all the replicas.
+     * @param intervalInSeconds delay between two consecutive checks
+     */
+    public void startLagCheck(long intervalInSeconds) {
+        lagCheckExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        lagCheckExecutor.scheduleWithFixedDelay(this::checkReplicas, 0, intervalInSeconds, TimeUnit.SECONDS);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if(!TransactionSynchronizationManager.isCurrentTransactionReadOnly())
+            return PRIMARY_KEY;
+
+        List<String> candidates = replicaDataSources.keySet().stream()
+                .filter(healthyReplicas::contains)
+                .collect(Collectors.toList());
+        if(candidates.isEmpty())
+            return PRIMARY_KEY;
+
+        return candidates.get(Math.floorMod(roundRobinCounter.getAndIncrement(), candidates.size()));
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        String lookupKey = (String) determineCurrentLookupKey();
+        if(PRIMARY_KEY.equals(lookupKey))
+            return primaryDataSource.getConnection();
+
+        try {
+            return replicaDataSources.get(lookupKey).getConnection();
+        } catch (SQLException e) {
+            log.error("Failed to get connection from {}, falling back to primary", lookupKey, e);
+            healthyReplicas.remove(lookupKey);
+            return primaryDataSource.getConnection();
+        }
+    }
+
+    public boolean isReplicaHealthy(String replicaKey) {
+        return healthyReplicas.contains(replicaKey);
+    }
+
+    protected void checkReplicas() {
+        for(Map.Entry<String, DataSource> entry : replicaDataSources.entrySet()) {
+            boolean healthy = isWithinLagThreshold(entry.getKey(), entry.getValue());
+            if(healthy && healthyReplicas.add(entry.getKey()))
+                log.info("Replica {} is back within the lag threshold, routing reads to it", entry.getKey());
+            if(!healthy && healthyReplicas.remove(entry.getKey()))
+                log.warn("Replica {} is removed from read routing", entry.getKey());
+        }
+    }
+
+    private boolean isWithinLagThreshold(String replicaKey, DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(lagQuery)) {
+            if(!resultSet.next())
+                return false;
+            double lagInSeconds = resultSet.getDouble(1);
+            //null lag is reported when the replica is not in recovery mode, nothing to replay
+            if(resultSet.wasNull() || lagInSeconds <= maxLagSeconds)
+                return true;
+            log.warn("Replication lag of {} is {} seconds, allowed lag is {} seconds", replicaKey, lagInSeconds, maxLagSeconds);
+        } catch (Exception e) {
+            log.error("Failed to check replication lag of {}", replicaKey, e);
+        }
+        return false;
+    }
+
+    @Override
+    public void destroy() {
+        if(lagCheckExecutor != null)
+            lagCheckExecutor.shutdownNow();
+
+        List<DataSource> dataSources = new ArrayList<>(replicaDataSources.values());
+        dataSources.add(primaryDataSource);
+        for(DataSource dataSource : dataSources) {
+            if(dataSource instanceof Closeable) {
+                try {
+                    ((Closeable) dataSource).close();
+                } catch (IOException e) {
+                    log.error("Failed to close datasource", e);
+                }
+            }
+        }
+    }
+}
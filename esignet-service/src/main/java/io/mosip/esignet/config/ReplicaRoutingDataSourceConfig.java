@@ -0,0 +1,95 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Enables read-replica routing, all read-only repository methods are served from the configured replicas
+ * while writes and non read-only transactions stay on the primary datasource (spring.datasource.url).
+ */
+@ConditionalOnProperty(value = "mosip.esignet.datasource.replica.enabled", havingValue = "true")
+@Configuration
+@Slf4j
+public class ReplicaRoutingDataSourceConfig {
+
+    private static final String HIKARI_PROPERTIES_PREFIX = "spring.datasource.hikari";
+
+    @Value("${mosip.esignet.datasource.replica.urls}")
+    private List<String> replicaUrls;
+
+    @Value("${mosip.esignet.datasource.replica.username:${spring.datasource.username}}")
+    private String replicaUsername;
+
+    @Value("${mosip.esignet.datasource.replica.password:${spring.datasource.password}}")
+    private String replicaPassword;
+
+    @Value("${mosip.esignet.datasource.replica.max-lag-seconds:5}")
+    private long maxLagSeconds;
+
+    @Value("${mosip.esignet.datasource.replica.lag-check-interval-seconds:5}")
+    private long lagCheckIntervalSeconds;
+
+    @Value("${mosip.esignet.datasource.replica.lag-query:SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() " +
+            "THEN 0 ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) END}")
+    private String lagQuery;
+
+    @Autowired
+    private Environment environment;
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        bindHikariProperties(primary, "esignet-primary");
+
+        List<DataSource> replicas = new ArrayList<>();
+        for(int i=0; i<replicaUrls.size(); i++) {
+            HikariDataSource replica = dataSourceProperties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .url(replicaUrls.get(i).trim())
+                    .username(replicaUsername)
+                    .password(replicaPassword)
+                    .build();
+            bindHikariProperties(replica, "esignet-replica-"+i);
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+
+        log.info("Routing read-only transactions to {} replica(s), allowed replication lag {} seconds", replicas.size(), maxLagSeconds);
+        ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(primary, replicas, lagQuery, maxLagSeconds);
+        routingDataSource.startLagCheck(lagCheckIntervalSeconds);
+        return routingDataSource;
+    }
+
+    @Primary
+    @Bean
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    private void bindHikariProperties(HikariDataSource dataSource, String poolName) {
+        Binder.get(environment).bind(HIKARI_PROPERTIES_PREFIX, Bindable.ofInstance(dataSource));
+        dataSource.setPoolName(poolName);
+    }
+}
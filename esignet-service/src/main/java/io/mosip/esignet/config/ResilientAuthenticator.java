@@ -0,0 +1,93 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.config;
+
+import io.mosip.esignet.api.dto.*;
+import io.mosip.esignet.api.exception.KycAuthException;
+import io.mosip.esignet.api.exception.KycExchangeException;
+import io.mosip.esignet.api.exception.KycSigningCertificateException;
+import io.mosip.esignet.api.exception.SendOtpException;
+import io.mosip.esignet.api.spi.Authenticator;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Decorates the configured {@link Authenticator} plugin, each call to the identity system is made through
+ * its own {@link PluginCallGuard} on behalf of the calling relying party. Calls that do not reach out to the
+ * identity system are delegated as is.
+ */
+public class ResilientAuthenticator implements Authenticator {
+
+    private final Authenticator delegate;
+    private final PluginCallGuard kycAuthGuard;
+    private final PluginCallGuard kycExchangeGuard;
+    private final PluginCallGuard sendOtpGuard;
+
+    public ResilientAuthenticator(Authenticator delegate, PluginCallGuard kycAuthGuard,
+                                  PluginCallGuard kycExchangeGuard, PluginCallGuard sendOtpGuard) {
+        this.delegate = delegate;
+        this.kycAuthGuard = kycAuthGuard;
+        this.kycExchangeGuard = kycExchangeGuard;
+        this.sendOtpGuard = sendOtpGuard;
+    }
+
+    @Override
+    public KycAuthResult doKycAuth(String relyingPartyId, String clientId, KycAuthDto kycAuthDto)
+            throws KycAuthException {
+        return kycAuthGuard.call(relyingPartyId, clientId,
+                () -> delegate.doKycAuth(relyingPartyId, clientId, kycAuthDto),
+                KycAuthException.class, KycAuthException::new);
+    }
+
+    @Override
+    public KycExchangeResult doKycExchange(String relyingPartyId, String clientId, KycExchangeDto kycExchangeDto)
+            throws KycExchangeException {
+        return kycExchangeGuard.call(relyingPartyId, clientId,
+                () -> delegate.doKycExchange(relyingPartyId, clientId, kycExchangeDto),
+                KycExchangeException.class, KycExchangeException::new);
+    }
+
+    @Override
+    public SendOtpResult sendOtp(String relyingPartyId, String clientId, SendOtpDto sendOtpDto)
+            throws SendOtpException {
+        return sendOtpGuard.call(relyingPartyId, clientId,
+                () -> delegate.sendOtp(relyingPartyId, clientId, sendOtpDto),
+                SendOtpException.class, SendOtpException::new);
+    }
+
+    @Override
+    public CompletableFuture<KycAuthResult> doKycAuthAsync(String relyingPartyId, String clientId, KycAuthDto kycAuthDto) {
+        return kycAuthGuard.callAsync(relyingPartyId, clientId,
+                () -> delegate.doKycAuthAsync(relyingPartyId, clientId, kycAuthDto),
+                KycAuthException::new);
+    }
+
+    @Override
+    public CompletableFuture<KycExchangeResult> doKycExchangeAsync(String relyingPartyId, String clientId,
+                                                                   KycExchangeDto kycExchangeDto) {
+        return kycExchangeGuard.callAsync(relyingPartyId, clientId,
+                () -> delegate.doKycExchangeAsync(relyingPartyId, clientId, kycExchangeDto),
+                KycExchangeException::new);
+    }
+
+    @Override
+    public CompletableFuture<SendOtpResult> sendOtpAsync(String relyingPartyId, String clientId, SendOtpDto sendOtpDto) {
+        return sendOtpGuard.callAsync(relyingPartyId, clientId,
+                () -> delegate.sendOtpAsync(relyingPartyId, clientId, sendOtpDto),
+                SendOtpException::new);
+    }
+
+    @Override
+    public boolean isSupportedOtpChannel(String channel) {
+        return delegate.isSupportedOtpChannel(channel);
+    }
+
+    @Override
+    public List<KycSigningCertificateData> getAllKycSigningCertificates() throws KycSigningCertificateException {
+        return delegate.getAllKycSigningCertificates();
+    }
+}
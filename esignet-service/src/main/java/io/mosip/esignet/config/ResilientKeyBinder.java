@@ -0,0 +1,53 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.config;
+
+import io.mosip.esignet.api.dto.AuthChallenge;
+import io.mosip.esignet.api.dto.KeyBindingResult;
+import io.mosip.esignet.api.dto.SendOtpResult;
+import io.mosip.esignet.api.exception.KeyBindingException;
+import io.mosip.esignet.api.exception.SendOtpException;
+import io.mosip.esignet.api.spi.KeyBinder;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decorates the configured {@link KeyBinder} plugin, each call to the identity system is made through
+ * its own {@link PluginCallGuard}.
+ */
+public class ResilientKeyBinder implements KeyBinder {
+
+    private final KeyBinder delegate;
+    private final PluginCallGuard sendBindingOtpGuard;
+    private final PluginCallGuard keyBindingGuard;
+
+    public ResilientKeyBinder(KeyBinder delegate, PluginCallGuard sendBindingOtpGuard, PluginCallGuard keyBindingGuard) {
+        this.delegate = delegate;
+        this.sendBindingOtpGuard = sendBindingOtpGuard;
+        this.keyBindingGuard = keyBindingGuard;
+    }
+
+    @Override
+    public SendOtpResult sendBindingOtp(String individualId, List<String> otpChannels,
+                                        Map<String, String> requestHeaders) throws SendOtpException {
+        return sendBindingOtpGuard.call(() -> delegate.sendBindingOtp(individualId, otpChannels, requestHeaders),
+                SendOtpException.class, SendOtpException::new);
+    }
+
+    @Override
+    public KeyBindingResult doKeyBinding(String individualId, List<AuthChallenge> challengeList,
+                                         Map<String, Object> publicKeyJWK, String bindAuthFactorType,
+                                         Map<String, String> requestHeaders) throws KeyBindingException {
+        return keyBindingGuard.call(() -> delegate.doKeyBinding(individualId, challengeList, publicKeyJWK,
+                        bindAuthFactorType, requestHeaders), KeyBindingException.class, KeyBindingException::new);
+    }
+
+    @Override
+    public List<String> getSupportedChallengeFormats(String authFactorType) {
+        return delegate.getSupportedChallengeFormats(authFactorType);
+    }
+}
@@ -18,6 +18,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @RestController
@@ -38,38 +39,44 @@ public class AuthorizationController {
         try {
             responseWrapper.setResponse(authorizationService.getOauthDetails(requestWrapper.getRequest()));
         } catch (EsignetException ex) {
-            auditWrapper.logAudit(Action.GET_OAUTH_DETAILS, ActionStatus.ERROR, AuditHelper.buildAuditDto(requestWrapper.getRequest().getClientId()), ex);
+            AuditHelper.logAudit(auditWrapper, Action.GET_OAUTH_DETAILS, ActionStatus.ERROR, () -> AuditHelper.buildAuditDto(requestWrapper.getRequest().getClientId()), ex);
             throw ex;
         }
         return responseWrapper;
     }
 
     @PostMapping("/send-otp")
-    public ResponseWrapper<OtpResponse> sendOtp(@Valid @RequestBody RequestWrapper<OtpRequest> requestWrapper)
+    public CompletableFuture<ResponseWrapper<OtpResponse>> sendOtp(@Valid @RequestBody RequestWrapper<OtpRequest> requestWrapper)
             throws EsignetException {
         ResponseWrapper responseWrapper = new ResponseWrapper();
         responseWrapper.setResponseTime(IdentityProviderUtil.getUTCDateTime());
-        try {
-            responseWrapper.setResponse(authorizationService.sendOtp(requestWrapper.getRequest()));
-        } catch (EsignetException ex) {
-            auditWrapper.logAudit(Action.SEND_OTP, ActionStatus.ERROR, AuditHelper.buildAuditDto(requestWrapper.getRequest().getTransactionId(), null), ex);
-            throw ex;
-        }
-        return responseWrapper;
+        return authorizationService.sendOtpAsync(requestWrapper.getRequest())
+                .whenComplete((response, throwable) -> {
+                    Throwable cause = IdentityProviderUtil.unwrapCompletionException(throwable);
+                    if(cause instanceof EsignetException)
+                        AuditHelper.logAudit(auditWrapper, Action.SEND_OTP, ActionStatus.ERROR, requestWrapper.getRequest().getTransactionId(), null, cause);
+                })
+                .thenApply(response -> {
+                    responseWrapper.setResponse(response);
+                    return responseWrapper;
+                });
     }
 
     @PostMapping("/authenticate")
-    public ResponseWrapper<AuthResponse> authenticateEndUser(@Valid @RequestBody RequestWrapper<AuthRequest>
+    public CompletableFuture<ResponseWrapper<AuthResponse>> authenticateEndUser(@Valid @RequestBody RequestWrapper<AuthRequest>
                                                                         requestWrapper) throws EsignetException {
         ResponseWrapper responseWrapper = new ResponseWrapper();
         responseWrapper.setResponseTime(IdentityProviderUtil.getUTCDateTime());
-        try {
-            responseWrapper.setResponse(authorizationService.authenticateUser(requestWrapper.getRequest()));
-        } catch (EsignetException ex) {
-            auditWrapper.logAudit(Action.AUTHENTICATE, ActionStatus.ERROR, AuditHelper.buildAuditDto(requestWrapper.getRequest().getTransactionId(), null), ex);
-            throw ex;
-        }
-        return responseWrapper;
+        return authorizationService.authenticateUserAsync(requestWrapper.getRequest())
+                .whenComplete((response, throwable) -> {
+                    Throwable cause = IdentityProviderUtil.unwrapCompletionException(throwable);
+                    if(cause instanceof EsignetException)
+                        AuditHelper.logAudit(auditWrapper, Action.AUTHENTICATE, ActionStatus.ERROR, requestWrapper.getRequest().getTransactionId(), null, cause);
+                })
+                .thenApply(response -> {
+                    responseWrapper.setResponse(response);
+                    return responseWrapper;
+                });
     }
 
     @PostMapping("/auth-code")
@@ -80,7 +87,7 @@ public class AuthorizationController {
         try {
             responseWrapper.setResponse(authorizationService.getAuthCode(requestWrapper.getRequest()));
         } catch (EsignetException ex) {
-            auditWrapper.logAudit(Action.GET_AUTH_CODE, ActionStatus.ERROR, AuditHelper.buildAuditDto(requestWrapper.getRequest().getTransactionId(), null), ex);
+            AuditHelper.logAudit(auditWrapper, Action.GET_AUTH_CODE, ActionStatus.ERROR, requestWrapper.getRequest().getTransactionId(), null, ex);
             throw ex;
         }
         return responseWrapper;
@@ -43,8 +43,8 @@ public class ClientManagementController {
         try {
             response.setResponse(clientManagementService.createOIDCClient(requestWrapper.getRequest()));
         } catch (EsignetException ex) {
-            auditWrapper.logAudit(AuditHelper.getClaimValue(SecurityContextHolder.getContext(), claimName),
-            		Action.OIDC_CLIENT_CREATE, ActionStatus.ERROR, AuditHelper.buildAuditDto(requestWrapper.getRequest().getClientId()), ex);
+            AuditHelper.logAudit(auditWrapper, AuditHelper.getClaimValue(SecurityContextHolder.getContext(), claimName),
+            		Action.OIDC_CLIENT_CREATE, ActionStatus.ERROR, () -> AuditHelper.buildAuditDto(requestWrapper.getRequest().getClientId()), ex);
             throw ex;
         }
         response.setResponseTime(IdentityProviderUtil.getUTCDateTime());
@@ -59,8 +59,8 @@ public class ClientManagementController {
         try {
             response.setResponse(clientManagementService.updateOIDCClient(clientId, requestWrapper.getRequest()));
         } catch (EsignetException ex) {
-            auditWrapper.logAudit(AuditHelper.getClaimValue(SecurityContextHolder.getContext(), claimName),
-            		Action.OIDC_CLIENT_UPDATE, ActionStatus.ERROR, AuditHelper.buildAuditDto(clientId), ex);
+            AuditHelper.logAudit(auditWrapper, AuditHelper.getClaimValue(SecurityContextHolder.getContext(), claimName),
+            		Action.OIDC_CLIENT_UPDATE, ActionStatus.ERROR, () -> AuditHelper.buildAuditDto(clientId), ex);
             throw ex;
         }
         response.setResponseTime(IdentityProviderUtil.getUTCDateTime());
@@ -58,7 +58,7 @@ public class LinkedAuthorizationController {
         try {
         	responseWrapper.setResponse(linkedAuthorizationService.generateLinkCode(requestWrapper.getRequest()));
         } catch (EsignetException ex) {
-            auditWrapper.logAudit(Action.LINK_CODE, ActionStatus.ERROR, AuditHelper.buildAuditDto(requestWrapper.getRequest().getTransactionId(), null), ex);
+            AuditHelper.logAudit(auditWrapper, Action.LINK_CODE, ActionStatus.ERROR, requestWrapper.getRequest().getTransactionId(), null, ex);
             throw ex;
         }
         return responseWrapper;
@@ -72,7 +72,7 @@ public class LinkedAuthorizationController {
         try {
         	responseWrapper.setResponse(linkedAuthorizationService.linkTransaction(requestWrapper.getRequest()));
         } catch (EsignetException ex) {
-            auditWrapper.logAudit(Action.LINK_TRANSACTION, ActionStatus.ERROR, AuditHelper.buildAuditDto(requestWrapper.getRequest().getLinkCode(), null), ex);
+            AuditHelper.logAudit(auditWrapper, Action.LINK_TRANSACTION, ActionStatus.ERROR, requestWrapper.getRequest().getLinkCode(), null, ex);
             throw ex;
         }        
         return responseWrapper;
@@ -87,7 +87,7 @@ public class LinkedAuthorizationController {
         try {
         	linkedAuthorizationService.getLinkStatus(deferredResult, requestWrapper.getRequest());
         } catch (EsignetException ex) {
-            auditWrapper.logAudit(Action.LINK_STATUS, ActionStatus.ERROR, AuditHelper.buildAuditDto(requestWrapper.getRequest().getTransactionId(), null), ex);
+            AuditHelper.logAudit(auditWrapper, Action.LINK_STATUS, ActionStatus.ERROR, requestWrapper.getRequest().getTransactionId(), null, ex);
             throw ex;
         }
         return deferredResult;
@@ -101,7 +101,7 @@ public class LinkedAuthorizationController {
         try {
         	responseWrapper.setResponse(linkedAuthorizationService.authenticateUser(requestWrapper.getRequest()));
         } catch (EsignetException ex) {
-            auditWrapper.logAudit(Action.LINK_AUTHENTICATE, ActionStatus.ERROR, AuditHelper.buildAuditDto(requestWrapper.getRequest().getLinkedTransactionId(), null), ex);
+            AuditHelper.logAudit(auditWrapper, Action.LINK_AUTHENTICATE, ActionStatus.ERROR, requestWrapper.getRequest().getLinkedTransactionId(), null, ex);
             throw ex;
         }
         return responseWrapper;
@@ -115,7 +115,7 @@ public class LinkedAuthorizationController {
         try {
         	responseWrapper.setResponse(linkedAuthorizationService.saveConsent(requestWrapper.getRequest()));
         } catch (EsignetException ex) {
-            auditWrapper.logAudit(Action.SAVE_CONSENT, ActionStatus.ERROR, AuditHelper.buildAuditDto(requestWrapper.getRequest().getLinkedTransactionId(), null), ex);
+            AuditHelper.logAudit(auditWrapper, Action.SAVE_CONSENT, ActionStatus.ERROR, requestWrapper.getRequest().getLinkedTransactionId(), null, ex);
             throw ex;
         }
         return responseWrapper;
@@ -129,7 +129,7 @@ public class LinkedAuthorizationController {
         try {
         	responseWrapper.setResponse(linkedAuthorizationService.sendOtp(requestWrapper.getRequest()));
         } catch (EsignetException ex) {
-            auditWrapper.logAudit(Action.LINK_SEND_OTP, ActionStatus.ERROR, AuditHelper.buildAuditDto(requestWrapper.getRequest().getTransactionId(), null), ex);
+            AuditHelper.logAudit(auditWrapper, Action.LINK_SEND_OTP, ActionStatus.ERROR, requestWrapper.getRequest().getTransactionId(), null, ex);
             throw ex;
         }
         
@@ -145,7 +145,7 @@ public class LinkedAuthorizationController {
         try {
         	linkedAuthorizationService.getLinkAuthCode(deferredResult, requestWrapper.getRequest());
         } catch (EsignetException ex) {
-            auditWrapper.logAudit(Action.LINK_AUTH_CODE, ActionStatus.ERROR, AuditHelper.buildAuditDto(requestWrapper.getRequest().getTransactionId(), null), ex);
+            AuditHelper.logAudit(auditWrapper, Action.LINK_AUTH_CODE, ActionStatus.ERROR, requestWrapper.getRequest().getTransactionId(), null, ex);
             throw ex;
         }
         return deferredResult;
@@ -7,6 +7,7 @@ package io.mosip.esignet.controllers;
 
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import javax.validation.ConstraintViolation;
 import javax.validation.Validator;
@@ -29,6 +30,7 @@ import io.mosip.esignet.core.exception.EsignetException;
 import io.mosip.esignet.core.exception.InvalidRequestException;
 import io.mosip.esignet.core.spi.OAuthService;
 import io.mosip.esignet.core.util.AuditHelper;
+import io.mosip.esignet.core.util.IdentityProviderUtil;
 
 @RestController
 @RequestMapping("/oauth")
@@ -45,7 +47,7 @@ public class OAuthController {
 
     @PostMapping(value = "/token", consumes = {MediaType.APPLICATION_FORM_URLENCODED_VALUE},
             produces = {MediaType.APPLICATION_JSON_VALUE})
-    public TokenResponse getToken(@RequestParam MultiValueMap<String,String> paramMap)
+    public CompletableFuture<TokenResponse> getToken(@RequestParam MultiValueMap<String,String> paramMap)
             throws EsignetException {
         TokenRequest tokenRequest = new TokenRequest();
         tokenRequest.setCode(paramMap.getFirst("code"));
@@ -58,12 +60,12 @@ public class OAuthController {
         if(!violations.isEmpty() && violations.stream().findFirst().isPresent()) {
         	throw new InvalidRequestException(violations.stream().findFirst().get().getMessageTemplate());	//NOSONAR isPresent() check is done before accessing the value
         }
-        try {
-        	return oAuthService.getTokens(tokenRequest);
-        } catch (EsignetException ex) {
-            auditWrapper.logAudit(Action.GENERATE_TOKEN, ActionStatus.ERROR, AuditHelper.buildAuditDto(paramMap.getFirst("client_id")), ex);
-            throw ex;
-        }               
+        return oAuthService.getTokensAsync(tokenRequest)
+                .whenComplete((response, throwable) -> {
+                    Throwable cause = IdentityProviderUtil.unwrapCompletionException(throwable);
+                    if(cause instanceof EsignetException)
+                        AuditHelper.logAudit(auditWrapper, Action.GENERATE_TOKEN, ActionStatus.ERROR, () -> AuditHelper.buildAuditDto(paramMap.getFirst("client_id")), cause);
+                });
     }
 
     @GetMapping("/.well-known/jwks.json")
@@ -53,8 +53,8 @@ public class SystemInfoController {
         try {
         	responseWrapper.setResponse(keymanagerService.getCertificate(applicationId, referenceId));
         } catch (EsignetException ex) {
-        	auditWrapper.logAudit(AuditHelper.getClaimValue(SecurityContextHolder.getContext(), claimName),
-					Action.GET_CERTIFICATE, ActionStatus.ERROR, AuditHelper.buildAuditDto(null), ex);
+        	AuditHelper.logAudit(auditWrapper, AuditHelper.getClaimValue(SecurityContextHolder.getContext(), claimName),
+					Action.GET_CERTIFICATE, ActionStatus.ERROR, () -> AuditHelper.buildAuditDto(null), ex);
         	throw ex;
         }
         responseWrapper.setResponseTime(IdentityProviderUtil.getUTCDateTime());
@@ -68,8 +68,8 @@ public class SystemInfoController {
         try {
         	responseWrapper.setResponse(keymanagerService.uploadCertificate(requestWrapper.getRequest()));
         } catch (EsignetException ex) {
-        	auditWrapper.logAudit(AuditHelper.getClaimValue(SecurityContextHolder.getContext(), claimName),
-					Action.GET_CERTIFICATE, ActionStatus.ERROR, AuditHelper.buildAuditDto(null), ex);
+        	AuditHelper.logAudit(auditWrapper, AuditHelper.getClaimValue(SecurityContextHolder.getContext(), claimName),
+					Action.GET_CERTIFICATE, ActionStatus.ERROR, () -> AuditHelper.buildAuditDto(null), ex);
             throw ex;
         }
         responseWrapper.setResponseTime(IdentityProviderUtil.getUTCDateTime());
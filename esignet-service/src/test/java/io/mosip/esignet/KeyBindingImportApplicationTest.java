@@ -0,0 +1,51 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.file.Path;
+
+public class KeyBindingImportApplicationTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void getImportFile_withReadableFile_thenPass() throws Exception {
+		File importFile = temporaryFolder.newFile("bindings.jsonl");
+		Path path = KeyBindingImportApplication.getImportFile("--" + KeyBindingImportApplication.IMPORT_FILE_PROPERTY +
+				"=" + importFile.getAbsolutePath());
+		Assert.assertEquals(importFile.toPath(), path);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void getImportFile_withoutArgument_thenFail() {
+		KeyBindingImportApplication.getImportFile("--spring.profiles.active=local");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void getImportFile_withMissingFile_thenFail() {
+		KeyBindingImportApplication.getImportFile("--" + KeyBindingImportApplication.IMPORT_FILE_PROPERTY +
+				"=" + new File(temporaryFolder.getRoot(), "missing-bindings.jsonl").getAbsolutePath());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void getImportFile_withDirectory_thenFail() {
+		KeyBindingImportApplication.getImportFile("--" + KeyBindingImportApplication.IMPORT_FILE_PROPERTY +
+				"=" + temporaryFolder.getRoot().getAbsolutePath());
+	}
+
+	@Test
+	public void run_withMissingImportFile_thenExitCodeIsOneWithoutStarting() {
+		Assert.assertEquals(1, KeyBindingImportApplication.run("--" + KeyBindingImportApplication.IMPORT_FILE_PROPERTY +
+				"=" + new File(temporaryFolder.getRoot(), "missing-bindings.jsonl").getAbsolutePath()));
+	}
+}
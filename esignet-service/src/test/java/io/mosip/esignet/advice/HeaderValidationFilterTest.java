@@ -0,0 +1,80 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.advice;
+
+import io.mosip.esignet.core.dto.OIDCTransaction;
+import io.mosip.esignet.services.CacheUtilService;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+
+@RunWith(MockitoJUnitRunner.class)
+public class HeaderValidationFilterTest {
+
+    @InjectMocks
+    private HeaderValidationFilter headerValidationFilter;
+
+    @Mock
+    private CacheUtilService cacheUtilService;
+
+    @Before
+    public void setUp() {
+        ReflectionTestUtils.setField(headerValidationFilter, "pathsToValidate", Arrays.asList(
+                "/v1/esignet/authorization/send-otp", "/v1/esignet/authorization/authenticate",
+                "/v1/esignet/authorization/auth-code"));
+        headerValidationFilter.init();
+    }
+
+    @Test
+    public void doFilter_withPathNotToValidate_thenSkipped() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/v1/esignet/oidc/userinfo");
+        MockFilterChain filterChain = new MockFilterChain();
+        headerValidationFilter.doFilter(request, new MockHttpServletResponse(), filterChain);
+        Assert.assertNotNull(filterChain.getRequest());
+        Mockito.verifyNoInteractions(cacheUtilService);
+    }
+
+    @Test
+    public void doFilter_withPathToValidate_thenTransactionReadFromMappedCache() throws Exception {
+        OIDCTransaction transaction = new OIDCTransaction();
+        transaction.setOauthDetailsHash("hash");
+        Mockito.when(cacheUtilService.getAuthenticatedTransaction("txn")).thenReturn(transaction);
+        Mockito.when(cacheUtilService.getPreAuthTransaction("txn")).thenReturn(transaction);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/v1/esignet/authorization/auth-code");
+        request.addHeader("oauth-details-key", "txn");
+        request.addHeader("oauth-details-hash", "hash");
+        MockFilterChain filterChain = new MockFilterChain();
+        headerValidationFilter.doFilter(request, new MockHttpServletResponse(), filterChain);
+        Assert.assertNotNull(filterChain.getRequest());
+        Mockito.verify(cacheUtilService).getAuthenticatedTransaction("txn");
+
+        request = new MockHttpServletRequest("POST", "/v1/esignet/authorization/send-otp");
+        request.addHeader("oauth-details-key", "txn");
+        request.addHeader("oauth-details-hash", "hash");
+        filterChain = new MockFilterChain();
+        headerValidationFilter.doFilter(request, new MockHttpServletResponse(), filterChain);
+        Assert.assertNotNull(filterChain.getRequest());
+        Mockito.verify(cacheUtilService).getPreAuthTransaction("txn");
+    }
+
+    @Test
+    public void getPathsToValidate_thenConfiguredPathsReturned() {
+        Assert.assertEquals(3, headerValidationFilter.getPathsToValidate().size());
+        Assert.assertTrue(headerValidationFilter.getPathsToValidate().contains("/v1/esignet/authorization/auth-code"));
+    }
+}
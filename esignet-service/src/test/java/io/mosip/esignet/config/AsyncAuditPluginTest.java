@@ -0,0 +1,156 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.mosip.esignet.api.dto.AuditDTO;
+import io.mosip.esignet.api.dto.AuditEventDTO;
+import io.mosip.esignet.api.util.Action;
+import io.mosip.esignet.api.util.ActionStatus;
+import io.mosip.esignet.core.dto.OIDCTransaction;
+import io.mosip.esignet.core.util.AuditHelper;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class AsyncAuditPluginTest {
+
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private RecordingAuditPlugin auditPlugin = new RecordingAuditPlugin();
+
+    private AsyncAuditPlugin asyncAuditPlugin;
+
+    @After
+    public void tearDown() {
+        if(asyncAuditPlugin != null)
+            asyncAuditPlugin.close();
+    }
+
+    @Test
+    public void logAudit_withAsyncDispatcher_thenDeliveredOffCallerThread() throws Exception {
+        asyncAuditPlugin = new AsyncAuditPlugin(auditPlugin, 16, AsyncAuditPlugin.OverflowPolicy.CALLER_RUNS,
+                10, 50, 1000, meterRegistry);
+
+        AuditDTO auditDTO = new AuditDTO();
+        asyncAuditPlugin.logAudit(Action.AUTHENTICATE, ActionStatus.SUCCESS, auditDTO, null);
+        asyncAuditPlugin.logAudit("user", Action.OIDC_CLIENT_CREATE, ActionStatus.SUCCESS, auditDTO, null);
+
+        auditPlugin.awaitEvents(2, 2000);
+        Assert.assertEquals(new AuditEventDTO(null, Action.AUTHENTICATE, ActionStatus.SUCCESS, auditDTO, null),
+                auditPlugin.events.get(0));
+        Assert.assertEquals(new AuditEventDTO("user", Action.OIDC_CLIENT_CREATE, ActionStatus.SUCCESS, auditDTO, null),
+                auditPlugin.events.get(1));
+        Assert.assertFalse(auditPlugin.threads.contains(Thread.currentThread()));
+    }
+
+    @Test
+    public void logAudit_withFullQueueAndDropNewest_thenDropped() throws Exception {
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        auditPlugin.interceptor = event -> {
+            blocked.countDown();
+            release.await(5, TimeUnit.SECONDS);
+        };
+        asyncAuditPlugin = new AsyncAuditPlugin(auditPlugin, 2, AsyncAuditPlugin.OverflowPolicy.DROP_NEWEST,
+                10, 50, 1000, meterRegistry);
+
+        asyncAuditPlugin.logAudit(Action.AUTHENTICATE, ActionStatus.SUCCESS, new AuditDTO(), null);
+        Assert.assertTrue(blocked.await(2, TimeUnit.SECONDS));
+        for(int i=0; i<3; i++)
+            asyncAuditPlugin.logAudit(Action.AUTHENTICATE, ActionStatus.SUCCESS, new AuditDTO(), null);
+
+        Assert.assertEquals(1, meterRegistry.get("esignet.audit.events.dropped").counter().count(), 0);
+        Assert.assertEquals(2, meterRegistry.get("esignet.audit.queue.depth").gauge().value(), 0);
+        release.countDown();
+        auditPlugin.awaitEvents(3, 2000);
+    }
+
+    @Test
+    public void logAudit_withFullQueueAndCallerRuns_thenDeliveredOnCallerThread() throws Exception {
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        auditPlugin.interceptor = event -> {
+            if(event.getStatus() == ActionStatus.ERROR)
+                return;
+            blocked.countDown();
+            release.await(5, TimeUnit.SECONDS);
+        };
+        asyncAuditPlugin = new AsyncAuditPlugin(auditPlugin, 2, AsyncAuditPlugin.OverflowPolicy.CALLER_RUNS,
+                10, 50, 1000, meterRegistry);
+
+        asyncAuditPlugin.logAudit(Action.AUTHENTICATE, ActionStatus.SUCCESS, new AuditDTO(), null);
+        Assert.assertTrue(blocked.await(2, TimeUnit.SECONDS));
+        asyncAuditPlugin.logAudit(Action.AUTHENTICATE, ActionStatus.SUCCESS, new AuditDTO(), null);
+        asyncAuditPlugin.logAudit(Action.AUTHENTICATE, ActionStatus.SUCCESS, new AuditDTO(), null);
+        asyncAuditPlugin.logAudit(Action.AUTHENTICATE, ActionStatus.ERROR, new AuditDTO(), null);
+
+        Assert.assertEquals(1, auditPlugin.events.size());
+        Assert.assertEquals(ActionStatus.ERROR, auditPlugin.events.get(0).getStatus());
+        Assert.assertSame(Thread.currentThread(), auditPlugin.threads.get(0));
+        Assert.assertEquals(1, meterRegistry.get("esignet.audit.events.caller-runs").counter().count(), 0);
+        release.countDown();
+    }
+
+    @Test
+    public void logAudit_withQueuedEvents_thenDeliveredInBatches() throws Exception {
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        auditPlugin.interceptor = event -> {
+            if(event.getAction() != Action.TRANSACTION_STARTED)
+                return;
+            blocked.countDown();
+            release.await(5, TimeUnit.SECONDS);
+        };
+        asyncAuditPlugin = new AsyncAuditPlugin(auditPlugin, 64, AsyncAuditPlugin.OverflowPolicy.CALLER_RUNS,
+                4, 50, 1000, meterRegistry);
+
+        asyncAuditPlugin.logAudit(Action.TRANSACTION_STARTED, ActionStatus.SUCCESS, new AuditDTO(), null);
+        Assert.assertTrue(blocked.await(2, TimeUnit.SECONDS));
+        for(int i=0; i<10; i++)
+            asyncAuditPlugin.logAudit(Action.AUTHENTICATE, ActionStatus.SUCCESS, new AuditDTO(), null);
+        release.countDown();
+
+        auditPlugin.awaitEvents(11, 2000);
+        Assert.assertEquals(Arrays.asList(1, 4, 4, 2), auditPlugin.batchSizes);
+    }
+
+    @Test
+    public void logAudit_withActionNotAuditable_thenSkippedByAuditHelper() {
+        auditPlugin.auditable = (action, status) -> status == ActionStatus.ERROR;
+        asyncAuditPlugin = new AsyncAuditPlugin(auditPlugin, 16, AsyncAuditPlugin.OverflowPolicy.CALLER_RUNS,
+                10, 50, 1000, meterRegistry);
+        Assert.assertFalse(asyncAuditPlugin.isAuditable(Action.DO_KYC_EXCHANGE, ActionStatus.SUCCESS));
+
+        OIDCTransaction transaction = new OIDCTransaction();
+        transaction.setCodeHash("code-hash");
+        AuditHelper.logAudit(asyncAuditPlugin, Action.DO_KYC_EXCHANGE, ActionStatus.SUCCESS, "transaction-id",
+                transaction, null);
+        AuditHelper.logAudit(asyncAuditPlugin, Action.DO_KYC_EXCHANGE, ActionStatus.ERROR, "transaction-id",
+                transaction, null);
+        transaction.setCodeHash("modified-code-hash");
+        asyncAuditPlugin.close();
+
+        Assert.assertEquals(1, auditPlugin.events.size());
+        Assert.assertEquals(1, auditPlugin.count(Action.DO_KYC_EXCHANGE, ActionStatus.ERROR));
+        Assert.assertEquals("code-hash", auditPlugin.events.get(0).getAudit().getCodeHash());
+    }
+
+    @Test
+    public void close_withPendingEvents_thenDelivered() {
+        asyncAuditPlugin = new AsyncAuditPlugin(auditPlugin, 64, AsyncAuditPlugin.OverflowPolicy.CALLER_RUNS,
+                10, 5000, 2000, meterRegistry);
+        for(int i=0; i<50; i++)
+            asyncAuditPlugin.logAudit(Action.GET_USERINFO, ActionStatus.SUCCESS, new AuditDTO(), null);
+        asyncAuditPlugin.close();
+        Assert.assertEquals(50, auditPlugin.count(Action.GET_USERINFO, ActionStatus.SUCCESS));
+    }
+}
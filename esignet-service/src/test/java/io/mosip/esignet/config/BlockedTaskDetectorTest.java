@@ -0,0 +1,66 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class BlockedTaskDetectorTest {
+
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    //Watchdog is not run in the tests, check is invoked directly
+    private BlockedTaskDetector blockedTaskDetector = new BlockedTaskDetector("test", 50, 60000, meterRegistry);
+
+    private ExecutorService executorService = Executors.newFixedThreadPool(2);
+
+    @After
+    public void tearDown() {
+        executorService.shutdownNow();
+        blockedTaskDetector.close();
+    }
+
+    @Test
+    public void check_withTaskBlockedBeyondThreshold_thenReportedOnce() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        executorService.execute(blockedTaskDetector.decorate(() -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        Assert.assertTrue(started.await(1, TimeUnit.SECONDS));
+        Assert.assertEquals(1, meterRegistry.get("esignet.execution.tasks.running").gauge().value(), 0);
+
+        Thread.sleep(100);
+        blockedTaskDetector.check();
+        blockedTaskDetector.check();
+        Assert.assertEquals(1, meterRegistry.get("esignet.execution.tasks.blocked").counter().count(), 0);
+
+        release.countDown();
+        executorService.shutdown();
+        Assert.assertTrue(executorService.awaitTermination(1, TimeUnit.SECONDS));
+        Assert.assertEquals(0, meterRegistry.get("esignet.execution.tasks.running").gauge().value(), 0);
+    }
+
+    @Test
+    public void check_withTaskWithinThreshold_thenNotReported() throws Exception {
+        executorService.submit(blockedTaskDetector.decorate(() -> {})).get(1, TimeUnit.SECONDS);
+        blockedTaskDetector.check();
+        Assert.assertEquals(0, meterRegistry.get("esignet.execution.tasks.blocked").counter().count(), 0);
+    }
+}
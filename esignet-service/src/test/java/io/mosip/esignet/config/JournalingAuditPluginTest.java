@@ -0,0 +1,136 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.mosip.esignet.api.dto.AuditDTO;
+import io.mosip.esignet.api.dto.AuditEventDTO;
+import io.mosip.esignet.api.util.Action;
+import io.mosip.esignet.api.util.ActionStatus;
+import io.mosip.esignet.core.exception.EsignetException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Path;
+import java.util.List;
+
+public class JournalingAuditPluginTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private RecordingAuditPlugin auditPlugin = new RecordingAuditPlugin();
+
+    private JournalingAuditPlugin journalingAuditPlugin;
+
+    @After
+    public void tearDown() {
+        if(journalingAuditPlugin != null)
+            journalingAuditPlugin.close();
+    }
+
+    @Test
+    public void logAudit_withJournal_thenShippedToPlugin() throws Exception {
+        journalingAuditPlugin = create(temporaryFolder.getRoot().toPath(), 1024 * 1024, 4);
+        AuditDTO auditDTO = new AuditDTO();
+        auditDTO.setClientId("client-id");
+        auditDTO.setTransactionId("transaction-id");
+        journalingAuditPlugin.logAudit(Action.AUTHENTICATE, ActionStatus.ERROR, auditDTO,
+                new EsignetException("auth_failed"));
+        journalingAuditPlugin.logAudit("user", Action.OIDC_CLIENT_CREATE, ActionStatus.SUCCESS, auditDTO, null);
+
+        auditPlugin.awaitEvents(2, 2000);
+        AuditEventDTO event = auditPlugin.events.get(0);
+        Assert.assertNull(event.getUsername());
+        Assert.assertEquals(Action.AUTHENTICATE, event.getAction());
+        Assert.assertEquals(ActionStatus.ERROR, event.getStatus());
+        Assert.assertEquals("client-id", event.getAudit().getClientId());
+        Assert.assertEquals("transaction-id", event.getAudit().getTransactionId());
+        Assert.assertEquals("auth_failed", event.getThrowable().getMessage());
+        Assert.assertEquals(EsignetException.class.getName(),
+                ((JournalingAuditPlugin.JournaledAuditError) event.getThrowable()).getErrorType());
+        event = auditPlugin.events.get(1);
+        Assert.assertEquals("user", event.getUsername());
+        Assert.assertEquals(Action.OIDC_CLIENT_CREATE, event.getAction());
+        Assert.assertEquals(ActionStatus.SUCCESS, event.getStatus());
+        Assert.assertNull(event.getThrowable());
+    }
+
+    @Test
+    public void logAudit_withAuditSinkOutage_thenRetriedUntilDelivered() throws Exception {
+        auditPlugin.batchFailures.set(2);
+        journalingAuditPlugin = create(temporaryFolder.getRoot().toPath(), 1024 * 1024, 4);
+        journalingAuditPlugin.logAudit(Action.GET_USERINFO, ActionStatus.SUCCESS, new AuditDTO(), null);
+
+        auditPlugin.awaitEvents(1, 3000);
+        Assert.assertEquals(1, auditPlugin.count(Action.GET_USERINFO, ActionStatus.SUCCESS));
+        Assert.assertEquals(2, meterRegistry.get("esignet.audit.journal.ship-failures").counter().count(), 0);
+    }
+
+    @Test
+    public void logAudit_withRestartBeforeDelivery_thenDeliveredAfterRestart() throws Exception {
+        Path directory = temporaryFolder.getRoot().toPath();
+        auditPlugin.failAlways();
+        journalingAuditPlugin = create(directory, 4096, 8);
+        for(int i=0; i<20; i++)
+            journalingAuditPlugin.logAudit(Action.GET_USERINFO, ActionStatus.SUCCESS, new AuditDTO(), null);
+        journalingAuditPlugin.close();
+
+        Assert.assertTrue(auditPlugin.events.isEmpty());
+
+        auditPlugin = new RecordingAuditPlugin();
+        journalingAuditPlugin = create(directory, 4096, 8);
+        auditPlugin.awaitEvents(20, 3000);
+        Assert.assertEquals(20, auditPlugin.count(Action.GET_USERINFO, ActionStatus.SUCCESS));
+        journalingAuditPlugin.close();
+
+        //Committed events are not delivered again
+        auditPlugin = new RecordingAuditPlugin();
+        journalingAuditPlugin = create(directory, 4096, 8);
+        Thread.sleep(300);
+        Assert.assertTrue(auditPlugin.batchSizes.isEmpty());
+    }
+
+    @Test
+    public void logAudit_withFullJournal_thenLoggedOnCallerThread() throws Exception {
+        auditPlugin.failAlways();
+        journalingAuditPlugin = create(temporaryFolder.getRoot().toPath(), 512, 1);
+        for(int i=0; i<20; i++)
+            journalingAuditPlugin.logAudit(Action.GET_USERINFO, ActionStatus.SUCCESS, new AuditDTO(), null);
+
+        double bypassed = meterRegistry.get("esignet.audit.journal.bypassed").counter().count();
+        Assert.assertTrue(bypassed > 0);
+        Assert.assertEquals((long) bypassed, auditPlugin.count(Action.GET_USERINFO, ActionStatus.SUCCESS));
+        Assert.assertTrue(auditPlugin.threads.stream().allMatch(thread -> thread == Thread.currentThread()));
+    }
+
+    @Test
+    public void read_withRecordsAcrossSegments_thenReadInOrder() throws Exception {
+        try(AuditJournal journal = new AuditJournal(temporaryFolder.getRoot().toPath(), 64, 10)) {
+            for(int i=0; i<10; i++)
+                Assert.assertTrue(journal.append(("record-" + i).getBytes()));
+            Assert.assertTrue(journal.getSegmentCount() > 1);
+
+            List<byte[]> records = journal.read(100);
+            Assert.assertEquals(10, records.size());
+            for(int i=0; i<10; i++)
+                Assert.assertEquals("record-" + i, new String(records.get(i)));
+            journal.commit(journal.getReadPosition());
+            Assert.assertEquals(1, journal.getSegmentCount());
+        }
+    }
+
+    private JournalingAuditPlugin create(Path directory, int segmentSize, int maxSegments) throws Exception {
+        return new JournalingAuditPlugin(auditPlugin, new AuditJournal(directory, segmentSize, maxSegments), 10,
+                50, 100, meterRegistry);
+    }
+}
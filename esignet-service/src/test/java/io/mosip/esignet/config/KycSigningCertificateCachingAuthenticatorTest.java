@@ -0,0 +1,91 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.config;
+
+import io.mosip.esignet.api.dto.KycSigningCertificateData;
+import io.mosip.esignet.api.exception.KycSigningCertificateException;
+import io.mosip.esignet.api.spi.Authenticator;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+
+public class KycSigningCertificateCachingAuthenticatorTest {
+
+    private Authenticator authenticator;
+
+    private KycSigningCertificateCachingAuthenticator cachingAuthenticator;
+
+    @Before
+    public void setup() {
+        authenticator = Mockito.mock(Authenticator.class);
+        cachingAuthenticator = new KycSigningCertificateCachingAuthenticator(authenticator, 1);
+    }
+
+    @After
+    public void tearDown() {
+        cachingAuthenticator.close();
+    }
+
+    @Test
+    public void getAllKycSigningCertificates_withCachedCertificates_thenUpstreamCalledOnce() throws Exception {
+        Mockito.when(authenticator.getAllKycSigningCertificates()).thenReturn(Arrays.asList(getCertificate("key-1", 10)));
+        Assert.assertEquals(1, cachingAuthenticator.getAllKycSigningCertificates().size());
+        Assert.assertEquals(1, cachingAuthenticator.getAllKycSigningCertificates().size());
+        Mockito.verify(authenticator, Mockito.times(1)).getAllKycSigningCertificates();
+    }
+
+    @Test
+    public void getAllKycSigningCertificates_withExpiredCertificate_thenNotServed() throws Exception {
+        Mockito.when(authenticator.getAllKycSigningCertificates()).thenReturn(Arrays.asList(
+                getCertificate("key-1", 10), getCertificate("key-2", -10)));
+        List<KycSigningCertificateData> certificates = cachingAuthenticator.getAllKycSigningCertificates();
+        Assert.assertEquals(1, certificates.size());
+        Assert.assertEquals("key-1", certificates.get(0).getKeyId());
+    }
+
+    @Test
+    public void getAllKycSigningCertificates_withFailingRefresh_thenServeLastFetched() throws Exception {
+        Mockito.when(authenticator.getAllKycSigningCertificates())
+                .thenReturn(Arrays.asList(getCertificate("key-1", 10)))
+                .thenThrow(new KycSigningCertificateException());
+        Assert.assertEquals(1, cachingAuthenticator.getAllKycSigningCertificates().size());
+
+        Thread.sleep(1100);
+        Mockito.verify(authenticator, Mockito.timeout(2000).atLeast(2)).getAllKycSigningCertificates();
+        List<KycSigningCertificateData> certificates = cachingAuthenticator.getAllKycSigningCertificates();
+        Assert.assertEquals("key-1", certificates.get(0).getKeyId());
+    }
+
+    @Test
+    public void getAllKycSigningCertificates_afterRefreshInterval_thenRefreshedInBackground() throws Exception {
+        Mockito.when(authenticator.getAllKycSigningCertificates())
+                .thenReturn(Arrays.asList(getCertificate("key-1", 10)))
+                .thenReturn(Arrays.asList(getCertificate("key-2", 10)));
+        Assert.assertEquals("key-1", cachingAuthenticator.getAllKycSigningCertificates().get(0).getKeyId());
+
+        Mockito.verify(authenticator, Mockito.timeout(3000).times(2)).getAllKycSigningCertificates();
+        Thread.sleep(100);
+        Assert.assertEquals("key-2", cachingAuthenticator.getAllKycSigningCertificates().get(0).getKeyId());
+    }
+
+    @Test(expected = KycSigningCertificateException.class)
+    public void getAllKycSigningCertificates_withFailingFirstFetch_thenFail() throws Exception {
+        Mockito.when(authenticator.getAllKycSigningCertificates()).thenThrow(new KycSigningCertificateException());
+        cachingAuthenticator.getAllKycSigningCertificates();
+    }
+
+    private KycSigningCertificateData getCertificate(String keyId, int expiryInDays) {
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        return new KycSigningCertificateData(keyId, "certificate", now.plusDays(expiryInDays), now.minusDays(1));
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+@RunWith(SpringRunner.class)
+@ContextConfiguration(classes = {OffloadExecutionConfig.class, OffloadExecutionConfigTest.MeterRegistryConfig.class})
+@TestPropertySource(properties = {"mosip.esignet.execution.offload.enabled=true",
+        "mosip.esignet.execution.offload.core-pool-size=2", "mosip.esignet.execution.offload.max-pool-size=4",
+        "mosip.esignet.execution.offload.queue-capacity=1"})
+public class OffloadExecutionConfigTest {
+
+    @Configuration
+    static class MeterRegistryConfig {
+        @Bean
+        public MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    private ThreadPoolTaskExecutor applicationTaskExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    public void submit_withOffloadEnabled_thenRunOnOffloadExecutor() throws Exception {
+        Assert.assertEquals(4, applicationTaskExecutor.getMaxPoolSize());
+        String threadName = applicationTaskExecutor.submit(() -> Thread.currentThread().getName())
+                .get(1, TimeUnit.SECONDS);
+        Assert.assertTrue(threadName.startsWith("esignet-offload-"));
+        Assert.assertNotNull(meterRegistry.get("esignet.execution.pool.active").tag("executor", "esignet-offload").gauge());
+        Assert.assertNotNull(meterRegistry.get("esignet.execution.tasks.running").gauge());
+    }
+
+    @Test
+    public void submit_withPoolAndQueueFull_thenRejected() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        List<Future<?>> tasks = new ArrayList<>();
+        try {
+            for(int i=0; i<5; i++)
+                tasks.add(applicationTaskExecutor.submit(() -> {
+                    latch.await();
+                    return null;
+                }));
+            try {
+                applicationTaskExecutor.submit(() -> Thread.currentThread().getName());
+                Assert.fail();
+            } catch (TaskRejectedException e) {
+                Assert.assertEquals(1, meterRegistry.get("esignet.execution.tasks.rejected").counter().count(), 0);
+            }
+        } finally {
+            latch.countDown();
+        }
+        for(Future<?> task : tasks)
+            task.get(1, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.mosip.esignet.api.dto.KycAuthDto;
+import io.mosip.esignet.api.dto.KycAuthResult;
+import io.mosip.esignet.api.exception.KycAuthException;
+import io.mosip.esignet.api.spi.Authenticator;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static io.mosip.esignet.core.constants.ErrorConstants.PLUGIN_TIMEOUT;
+import static io.mosip.esignet.core.constants.ErrorConstants.PLUGIN_UNAVAILABLE;
+
+public class PluginCallGuardTest {
+
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private PluginCallGuard guard;
+
+    @After
+    public void tearDown() {
+        if(guard != null)
+            guard.close();
+    }
+
+    @Test
+    public void call_withPluginException_thenRethrowAndKeepCircuitClosed() {
+        guard = new PluginCallGuard("kyc-auth", 2, 1000, 1, 60000, meterRegistry);
+        for(int i=0; i<3; i++) {
+            try {
+                guard.call(() -> { throw new KycAuthException("auth_failed"); }, KycAuthException.class, KycAuthException::new);
+                Assert.fail();
+            } catch (KycAuthException e) {
+                Assert.assertEquals("auth_failed", e.getErrorCode());
+            }
+        }
+        Assert.assertEquals(PluginCallGuard.State.CLOSED, guard.getState());
+    }
+
+    @Test
+    public void call_withAllPermitsInUse_thenReject() throws Exception {
+        guard = new PluginCallGuard("kyc-auth", 1, 5000, 5, 60000, meterRegistry);
+        CountDownLatch latch = new CountDownLatch(1);
+        CompletableFuture<String> inFlight = guard.callAsync(() -> {
+            latch.await();
+            return CompletableFuture.completedFuture("done");
+        }, KycAuthException::new);
+
+        try {
+            guard.call(() -> "rejected", KycAuthException.class, KycAuthException::new);
+            Assert.fail();
+        } catch (KycAuthException e) {
+            Assert.assertEquals(PLUGIN_UNAVAILABLE, e.getErrorCode());
+        }
+        Assert.assertEquals(1, meterRegistry.get("esignet.plugin.calls.rejected").tag("reason", "bulkhead_full")
+                .counter().count(), 0);
+
+        latch.countDown();
+        Assert.assertEquals("done", inFlight.get(1, TimeUnit.SECONDS));
+        Assert.assertEquals("accepted", guard.call(() -> "accepted", KycAuthException.class, KycAuthException::new));
+    }
+
+    @Test
+    public void call_withSlowPlugin_thenTimeoutAndOpenCircuit() throws Exception {
+        guard = new PluginCallGuard("kyc-auth", 5, 50, 2, 60000, meterRegistry);
+        for(int i=0; i<2; i++) {
+            try {
+                guard.call(() -> { Thread.sleep(500); return "late"; }, KycAuthException.class, KycAuthException::new);
+                Assert.fail();
+            } catch (KycAuthException e) {
+                Assert.assertEquals(PLUGIN_TIMEOUT, e.getErrorCode());
+            }
+        }
+        Assert.assertEquals(PluginCallGuard.State.OPEN, guard.getState());
+
+        try {
+            guard.call(() -> "fast", KycAuthException.class, KycAuthException::new);
+            Assert.fail();
+        } catch (KycAuthException e) {
+            Assert.assertEquals(PLUGIN_UNAVAILABLE, e.getErrorCode());
+        }
+        Assert.assertEquals(1, meterRegistry.get("esignet.plugin.calls.rejected").tag("reason", "circuit_open")
+                .counter().count(), 0);
+        Assert.assertEquals(2, meterRegistry.get("esignet.plugin.calls.failed").tag("reason", "timeout")
+                .counter().count(), 0);
+        Assert.assertEquals(1, meterRegistry.get("esignet.plugin.circuit.state").gauge().value(), 0);
+
+        //permits of the timed out calls are released only once the plugin returns
+        Assert.assertEquals(3, meterRegistry.get("esignet.plugin.bulkhead.available").gauge().value(), 0);
+        Thread.sleep(1000);
+        Assert.assertEquals(5, meterRegistry.get("esignet.plugin.bulkhead.available").gauge().value(), 0);
+    }
+
+    @Test
+    public void call_afterOpenDuration_thenTrialCallClosesCircuit() throws Exception {
+        guard = new PluginCallGuard("kyc-auth", 5, 1000, 1, 100, meterRegistry);
+        try {
+            guard.call(() -> { throw new IllegalStateException("connection refused"); }, KycAuthException.class,
+                    KycAuthException::new);
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            Assert.assertEquals(PluginCallGuard.State.OPEN, guard.getState());
+        }
+
+        Thread.sleep(150);
+        Assert.assertEquals("ok", guard.call(() -> "ok", KycAuthException.class, KycAuthException::new));
+        Assert.assertEquals(PluginCallGuard.State.CLOSED, guard.getState());
+    }
+
+    @Test
+    public void resilientAuthenticator_withFailedAsyncCall_thenPluginException() throws Exception {
+        guard = new PluginCallGuard("kyc-auth", 5, 1000, 5, 60000, meterRegistry);
+        Authenticator authenticator = Mockito.mock(Authenticator.class);
+        KycAuthResult kycAuthResult = new KycAuthResult();
+        Mockito.when(authenticator.doKycAuthAsync(Mockito.anyString(), Mockito.anyString(), Mockito.any()))
+                .thenReturn(CompletableFuture.completedFuture(kycAuthResult),
+                        CompletableFuture.failedFuture(new KycAuthException("auth_failed")));
+        ResilientAuthenticator resilientAuthenticator = new ResilientAuthenticator(authenticator, guard, null, null);
+
+        Assert.assertEquals(kycAuthResult, resilientAuthenticator.doKycAuthAsync("rp-id", "client-id",
+                new KycAuthDto()).get());
+        try {
+            resilientAuthenticator.doKycAuthAsync("rp-id", "client-id", new KycAuthDto()).get();
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Assert.assertEquals("auth_failed", ((KycAuthException) e.getCause()).getErrorCode());
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.mosip.esignet.api.exception.KycExchangeException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class PluginCallHedgerTest {
+
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private PluginCallHedger hedger;
+
+    @After
+    public void tearDown() {
+        if(hedger != null)
+            hedger.close();
+    }
+
+    @Test
+    public void call_withSlowPrimaryAttempt_thenHedgedResult() throws Exception {
+        hedger = new PluginCallHedger("kyc-exchange", 95, 50, 100, 4, meterRegistry);
+        AtomicInteger attempts = new AtomicInteger();
+        String result = hedger.call(() -> {
+            if(attempts.incrementAndGet() == 1) {
+                Thread.sleep(2000);
+                return "slow";
+            }
+            return "fast";
+        }, KycExchangeException.class);
+        Assert.assertEquals("fast", result);
+        Assert.assertEquals(1, meterRegistry.get("esignet.plugin.hedge.attempts").counter().count(), 0);
+        Assert.assertEquals(1, meterRegistry.get("esignet.plugin.hedge.wins").counter().count(), 0);
+    }
+
+    @Test
+    public void call_withExhaustedBudget_thenNotHedged() throws Exception {
+        hedger = new PluginCallHedger("kyc-exchange", 95, 50, 0, 4, meterRegistry);
+        AtomicInteger attempts = new AtomicInteger();
+        String result = hedger.call(() -> {
+            attempts.incrementAndGet();
+            Thread.sleep(300);
+            return "slow";
+        }, KycExchangeException.class);
+        Assert.assertEquals("slow", result);
+        Assert.assertEquals(1, attempts.get());
+        Assert.assertEquals(1, meterRegistry.get("esignet.plugin.hedge.budget-exhausted").counter().count(), 0);
+    }
+
+    @Test
+    public void call_withBusyAttemptPool_thenNotHedged() throws Exception {
+        hedger = new PluginCallHedger("kyc-exchange", 95, 50, 100, 1, meterRegistry);
+        AtomicInteger attempts = new AtomicInteger();
+        String result = hedger.call(() -> {
+            attempts.incrementAndGet();
+            Thread.sleep(300);
+            return "slow";
+        }, KycExchangeException.class);
+        Assert.assertEquals("slow", result);
+        Assert.assertEquals(1, attempts.get());
+        Assert.assertEquals(1, meterRegistry.get("esignet.plugin.hedge.pool-busy").counter().count(), 0);
+        Assert.assertEquals(0, meterRegistry.get("esignet.plugin.hedge.attempts").counter().count(), 0);
+    }
+
+    @Test
+    public void callAsync_withNonBlockingCall_thenPrimaryAttemptOnCallerThread() throws Exception {
+        hedger = new PluginCallHedger("kyc-exchange", 95, 50, 100, 1, meterRegistry);
+        CompletableFuture<Thread> result = hedger.callAsync(() -> CompletableFuture.completedFuture(Thread.currentThread()));
+        Assert.assertEquals(Thread.currentThread(), result.get());
+    }
+
+    @Test
+    public void call_withAttemptPoolFull_thenPrimaryAttemptOnCallerThread() throws Exception {
+        hedger = new PluginCallHedger("kyc-exchange", 95, 1000, 0, 1, meterRegistry);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch latch = new CountDownLatch(1);
+        CompletableFuture<String> blocked = CompletableFuture.supplyAsync(() -> {
+            try {
+                return hedger.call(() -> {
+                    started.countDown();
+                    latch.await();
+                    return "blocked";
+                }, KycExchangeException.class);
+            } catch (KycExchangeException e) {
+                throw new CompletionException(e);
+            }
+        });
+        Assert.assertTrue(started.await(1, TimeUnit.SECONDS));
+
+        for(int i=0; i<3; i++)
+            Assert.assertEquals(Thread.currentThread().getName(),
+                    hedger.call(() -> Thread.currentThread().getName(), KycExchangeException.class));
+
+        latch.countDown();
+        Assert.assertEquals("blocked", blocked.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void call_withFastFailure_thenFailWithoutHedge() throws Exception {
+        hedger = new PluginCallHedger("kyc-exchange", 95, 200, 100, 4, meterRegistry);
+        AtomicInteger attempts = new AtomicInteger();
+        try {
+            hedger.call(() -> {
+                attempts.incrementAndGet();
+                throw new KycExchangeException("invalid_token");
+            }, KycExchangeException.class);
+            Assert.fail();
+        } catch (KycExchangeException e) {
+            Assert.assertEquals("invalid_token", e.getErrorCode());
+        }
+        Thread.sleep(300);
+        Assert.assertEquals(1, attempts.get());
+    }
+
+    @Test
+    public void call_withSlowFailedPrimaryAttempt_thenHedgedResult() throws Exception {
+        hedger = new PluginCallHedger("kyc-exchange", 95, 50, 100, 4, meterRegistry);
+        AtomicInteger attempts = new AtomicInteger();
+        String result = hedger.call(() -> {
+            if(attempts.incrementAndGet() == 1) {
+                Thread.sleep(200);
+                throw new KycExchangeException("data_exchange_failed");
+            }
+            Thread.sleep(300);
+            return "hedged";
+        }, KycExchangeException.class);
+        Assert.assertEquals("hedged", result);
+    }
+}
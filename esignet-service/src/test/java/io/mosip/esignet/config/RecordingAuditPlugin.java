@@ -0,0 +1,90 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.config;
+
+import io.mosip.esignet.api.dto.AuditDTO;
+import io.mosip.esignet.api.dto.AuditEventDTO;
+import io.mosip.esignet.api.spi.AuditPlugin;
+import io.mosip.esignet.api.util.Action;
+import io.mosip.esignet.api.util.ActionStatus;
+import org.junit.Assert;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiPredicate;
+
+/**
+ * Audit plugin recording the delivered events along with the thread they were delivered on. Batches are delivered
+ * with the default {@link AuditPlugin#logAudits(List)} after the configured number of failures.
+ */
+class RecordingAuditPlugin implements AuditPlugin {
+
+    interface Interceptor {
+        void intercept(AuditEventDTO event) throws Exception;
+    }
+
+    final List<AuditEventDTO> events = new CopyOnWriteArrayList<>();
+    final List<Thread> threads = new CopyOnWriteArrayList<>();
+    final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+    final AtomicInteger batchFailures = new AtomicInteger();
+    volatile BiPredicate<Action, ActionStatus> auditable = (action, status) -> true;
+    volatile Interceptor interceptor = event -> {};
+
+    @Override
+    public void logAudit(Action action, ActionStatus status, AuditDTO audit, Throwable t) {
+        record(new AuditEventDTO(null, action, status, audit, t));
+    }
+
+    @Override
+    public void logAudit(String username, Action action, ActionStatus status, AuditDTO audit, Throwable t) {
+        record(new AuditEventDTO(username, action, status, audit, t));
+    }
+
+    @Override
+    public boolean isAuditable(Action action, ActionStatus status) {
+        return auditable.test(action, status);
+    }
+
+    @Override
+    public void logAudits(List<AuditEventDTO> auditEvents) {
+        if(batchFailures.getAndUpdate(failures -> Math.max(failures - 1, 0)) > 0)
+            throw new RuntimeException("audit sink unavailable");
+        batchSizes.add(auditEvents.size());
+        AuditPlugin.super.logAudits(auditEvents);
+    }
+
+    /**
+     * Fails all the batches until the failures are reset
+     */
+    void failAlways() {
+        batchFailures.set(Integer.MAX_VALUE);
+    }
+
+    long count(Action action, ActionStatus status) {
+        return events.stream().filter(event -> event.getAction() == action && event.getStatus() == status).count();
+    }
+
+    void awaitEvents(int count, long timeoutMillis) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while(events.size() < count && System.nanoTime() < deadline)
+            Thread.sleep(10);
+        Assert.assertEquals(count, events.size());
+    }
+
+    private void record(AuditEventDTO event) {
+        try {
+            interceptor.intercept(event);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+        synchronized (this) {
+            events.add(event);
+            threads.add(Thread.currentThread());
+        }
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.mosip.esignet.api.exception.KycAuthException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+
+import static io.mosip.esignet.core.constants.ErrorConstants.PLUGIN_UNAVAILABLE;
+import static io.mosip.esignet.core.constants.ErrorConstants.RELYING_PARTY_LIMIT_REACHED;
+
+public class RelyingPartyLimiterTest {
+
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    public void tryAcquire_withSingleRelyingParty_thenFullCapacityButOne() {
+        RelyingPartyLimiter limiter = new RelyingPartyLimiter("kyc-auth", 4, new HashMap<>(), 0, 60000, meterRegistry);
+        for(int i=0; i<3; i++)
+            Assert.assertTrue(limiter.tryAcquire("rp-1", "client-1"));
+        Assert.assertFalse(limiter.tryAcquire("rp-1", "client-1"));
+        Assert.assertEquals(3, meterRegistry.get("esignet.plugin.relying-party.calls.in-flight")
+                .tag("relying_party", "rp-1").gauge().value(), 0);
+
+        limiter.release("rp-1", "client-1");
+        Assert.assertTrue(limiter.tryAcquire("rp-1", "client-1"));
+    }
+
+    @Test
+    public void tryAcquire_withMultipleRelyingParties_thenWeightedShare() {
+        Map<String, Integer> weights = new HashMap<>();
+        weights.put("rp-1", 3);
+        RelyingPartyLimiter limiter = new RelyingPartyLimiter("kyc-auth", 8, weights, 0, 60000, meterRegistry);
+        Assert.assertTrue(limiter.tryAcquire("rp-2", "client-2"));
+
+        Assert.assertEquals(6, limiter.getShare("rp-1"));
+        for(int i=0; i<6; i++)
+            Assert.assertTrue(limiter.tryAcquire("rp-1", "client-1"));
+        Assert.assertFalse(limiter.tryAcquire("rp-1", "client-1"));
+        Assert.assertEquals(1, meterRegistry.get("esignet.plugin.relying-party.calls.rejected")
+                .tags("relying_party", "rp-1", "reason", "relying_party_share").counter().count(), 0);
+
+        Assert.assertEquals(2, limiter.getShare("rp-2"));
+        Assert.assertTrue(limiter.tryAcquire("rp-2", "client-2"));
+        Assert.assertFalse(limiter.tryAcquire("rp-2", "client-2"));
+    }
+
+    @Test
+    public void tryAcquire_withRejectedRelyingParty_thenCountedUntilWaitingWindowElapses() throws InterruptedException {
+        RelyingPartyLimiter limiter = new RelyingPartyLimiter("kyc-auth", 4, new HashMap<>(), 0, 200, meterRegistry);
+        Assert.assertTrue(limiter.tryAcquire("rp-1", "client-1"));
+        Assert.assertEquals(3, limiter.getShare("rp-1"));
+
+        Assert.assertTrue(limiter.tryAcquire("rp-2", "client-2"));
+        limiter.releaseRejected("rp-2", "client-2");
+        Assert.assertEquals(0, limiter.getInFlightCalls("rp-2"));
+        Assert.assertEquals(1, meterRegistry.get("esignet.plugin.relying-party.waiting").gauge().value(), 0);
+        Assert.assertEquals(2, limiter.getShare("rp-1"));
+
+        Thread.sleep(300);
+        Assert.assertEquals(0, meterRegistry.get("esignet.plugin.relying-party.waiting").gauge().value(), 0);
+        Assert.assertEquals(3, limiter.getShare("rp-1"));
+    }
+
+    @Test
+    public void tryAcquire_withClientLimit_thenReject() {
+        RelyingPartyLimiter limiter = new RelyingPartyLimiter("kyc-auth", 10, new HashMap<>(), 2, 60000, meterRegistry);
+        Assert.assertTrue(limiter.tryAcquire("rp-1", "client-1"));
+        Assert.assertTrue(limiter.tryAcquire("rp-1", "client-1"));
+        Assert.assertFalse(limiter.tryAcquire("rp-1", "client-1"));
+        Assert.assertTrue(limiter.tryAcquire("rp-1", "client-2"));
+        Assert.assertEquals(1, meterRegistry.get("esignet.plugin.relying-party.calls.rejected")
+                .tags("relying_party", "rp-1", "reason", "client_limit").counter().count(), 0);
+    }
+
+    @Test
+    public void callAsync_withRelyingPartyShareInUse_thenReject() throws Exception {
+        RelyingPartyLimiter limiter = new RelyingPartyLimiter("kyc-auth", 1, new HashMap<>(), 0, 60000, meterRegistry);
+        try(PluginCallGuard guard = new PluginCallGuard("kyc-auth", 2, 5000, 5, 60000, limiter, meterRegistry)) {
+            CountDownLatch latch = new CountDownLatch(1);
+            CompletableFuture<String> inFlight = guard.callAsync("rp-1", "client-1", () -> {
+                latch.await();
+                return CompletableFuture.completedFuture("done");
+            }, KycAuthException::new);
+
+            try {
+                guard.callAsync("rp-1", "client-1", () -> CompletableFuture.completedFuture("rejected"),
+                        KycAuthException::new).get();
+                Assert.fail();
+            } catch (ExecutionException e) {
+                Assert.assertEquals(RELYING_PARTY_LIMIT_REACHED, ((KycAuthException) e.getCause()).getErrorCode());
+            }
+
+            latch.countDown();
+            Assert.assertEquals("done", inFlight.get());
+            Assert.assertEquals(0, limiter.getInFlightCalls("rp-1"));
+            Assert.assertEquals(2, meterRegistry.get("esignet.plugin.bulkhead.available").gauge().value(), 0);
+        }
+    }
+
+    @Test
+    public void callAsync_withCapacityTakenByRelyingParty_thenOtherRelyingPartyGetsThrough() throws Exception {
+        RelyingPartyLimiter limiter = new RelyingPartyLimiter("kyc-auth", 4, new HashMap<>(), 0, 60000, meterRegistry);
+        try(PluginCallGuard guard = new PluginCallGuard("kyc-auth", 4, 5000, 5, 60000, limiter, meterRegistry)) {
+            CountDownLatch latch = new CountDownLatch(1);
+            List<CompletableFuture<String>> inFlight = new ArrayList<>();
+            for(int i=0; i<3; i++)
+                inFlight.add(callBlocked(guard, "rp-1", latch));
+            assertRejected(callBlocked(guard, "rp-1", latch), RELYING_PARTY_LIMIT_REACHED);
+
+            inFlight.add(callBlocked(guard, "rp-2", latch));
+            Assert.assertEquals(1, limiter.getInFlightCalls("rp-2"));
+            Assert.assertEquals(0, meterRegistry.get("esignet.plugin.bulkhead.available").gauge().value(), 0);
+
+            latch.countDown();
+            for(CompletableFuture<String> call : inFlight)
+                Assert.assertEquals("done", call.get());
+        }
+    }
+
+    @Test
+    public void callAsync_withBulkheadFull_thenRejectedRelyingPartyGetsNextFreeCall() throws Exception {
+        RelyingPartyLimiter limiter = new RelyingPartyLimiter("kyc-auth", 4, new HashMap<>(), 0, 60000, meterRegistry);
+        try(PluginCallGuard guard = new PluginCallGuard("kyc-auth", 4, 5000, 5, 60000, limiter, meterRegistry)) {
+            CountDownLatch rp1Latch = new CountDownLatch(1);
+            CountDownLatch latch = new CountDownLatch(1);
+            CompletableFuture<String> rp1Call = callBlocked(guard, "rp-1", rp1Latch);
+            List<CompletableFuture<String>> inFlight = new ArrayList<>();
+            for(int i=0; i<2; i++)
+                inFlight.add(callBlocked(guard, "rp-1", latch));
+            inFlight.add(callBlocked(guard, "rp-2", latch));
+
+            assertRejected(callBlocked(guard, "rp-3", latch), PLUGIN_UNAVAILABLE);
+            Assert.assertEquals(1, meterRegistry.get("esignet.plugin.relying-party.waiting").gauge().value(), 0);
+
+            //Call freed by rp-1 goes to the waiting rp-3, rp-1 is over its share of the three relying parties
+            rp1Latch.countDown();
+            Assert.assertEquals("done", rp1Call.get());
+            assertRejected(callBlocked(guard, "rp-1", latch), RELYING_PARTY_LIMIT_REACHED);
+            inFlight.add(callBlocked(guard, "rp-3", latch));
+            Assert.assertEquals(1, limiter.getInFlightCalls("rp-3"));
+
+            latch.countDown();
+            for(CompletableFuture<String> call : inFlight)
+                Assert.assertEquals("done", call.get());
+        }
+    }
+
+    private CompletableFuture<String> callBlocked(PluginCallGuard guard, String relyingPartyId, CountDownLatch latch) {
+        return guard.callAsync(relyingPartyId, "client-" + relyingPartyId, () -> {
+            latch.await();
+            return CompletableFuture.completedFuture("done");
+        }, KycAuthException::new);
+    }
+
+    private void assertRejected(CompletableFuture<String> call, String errorCode) throws InterruptedException {
+        try {
+            call.get();
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Assert.assertEquals(errorCode, ((KycAuthException) e.getCause()).getErrorCode());
+        }
+    }
+}
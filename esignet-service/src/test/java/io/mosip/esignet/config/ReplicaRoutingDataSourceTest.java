@@ -0,0 +1,114 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.config;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ReplicaRoutingDataSourceTest {
+
+    private static final String LAG_QUERY = "SELECT 0";
+
+    @Mock
+    DataSource primary;
+
+    @Mock
+    DataSource replica0;
+
+    @Mock
+    DataSource replica1;
+
+    ReplicaRoutingDataSource routingDataSource;
+
+    @Before
+    public void setup() {
+        routingDataSource = new ReplicaRoutingDataSource(primary, Arrays.asList(replica0, replica1), LAG_QUERY, 5);
+        routingDataSource.afterPropertiesSet();
+    }
+
+    @After
+    public void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    public void determineLookupKey_withReadWriteTransaction_thenPrimary() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        Assert.assertEquals(ReplicaRoutingDataSource.PRIMARY_KEY, routingDataSource.determineCurrentLookupKey());
+    }
+
+    @Test
+    public void determineLookupKey_withReadOnlyTransaction_thenRoundRobinOnReplicas() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        Object first = routingDataSource.determineCurrentLookupKey();
+        Object second = routingDataSource.determineCurrentLookupKey();
+        Assert.assertTrue(first.toString().startsWith(ReplicaRoutingDataSource.REPLICA_KEY_PREFIX));
+        Assert.assertTrue(second.toString().startsWith(ReplicaRoutingDataSource.REPLICA_KEY_PREFIX));
+        Assert.assertNotEquals(first, second);
+    }
+
+    @Test
+    public void checkReplicas_withLaggingReplica_thenSkipReplica() throws SQLException {
+        mockLag(replica0, 1);
+        mockLag(replica1, 60);
+        routingDataSource.checkReplicas();
+
+        Assert.assertTrue(routingDataSource.isReplicaHealthy("replica-0"));
+        Assert.assertFalse(routingDataSource.isReplicaHealthy("replica-1"));
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        Assert.assertEquals("replica-0", routingDataSource.determineCurrentLookupKey());
+        Assert.assertEquals("replica-0", routingDataSource.determineCurrentLookupKey());
+    }
+
+    @Test
+    public void checkReplicas_withAllReplicasUnreachable_thenFallbackToPrimary() throws SQLException {
+        Mockito.when(replica0.getConnection()).thenThrow(new SQLException("down"));
+        Mockito.when(replica1.getConnection()).thenThrow(new SQLException("down"));
+        routingDataSource.checkReplicas();
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        Assert.assertEquals(ReplicaRoutingDataSource.PRIMARY_KEY, routingDataSource.determineCurrentLookupKey());
+    }
+
+    @Test
+    public void getConnection_withFailingReplica_thenFallbackToPrimary() throws SQLException {
+        Connection primaryConnection = Mockito.mock(Connection.class);
+        Mockito.when(primary.getConnection()).thenReturn(primaryConnection);
+        Mockito.when(replica0.getConnection()).thenThrow(new SQLException("down"));
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        Assert.assertEquals(primaryConnection, routingDataSource.getConnection());
+        Assert.assertFalse(routingDataSource.isReplicaHealthy("replica-0"));
+        Assert.assertTrue(routingDataSource.isReplicaHealthy("replica-1"));
+    }
+
+    private void mockLag(DataSource dataSource, double lagInSeconds) throws SQLException {
+        Connection connection = Mockito.mock(Connection.class);
+        Statement statement = Mockito.mock(Statement.class);
+        ResultSet resultSet = Mockito.mock(ResultSet.class);
+        Mockito.when(dataSource.getConnection()).thenReturn(connection);
+        Mockito.when(connection.createStatement()).thenReturn(statement);
+        Mockito.when(statement.executeQuery(LAG_QUERY)).thenReturn(resultSet);
+        Mockito.when(resultSet.next()).thenReturn(true);
+        Mockito.when(resultSet.getDouble(1)).thenReturn(lagInSeconds);
+    }
+}
@@ -185,7 +185,7 @@ public class ClientMgmtControllerParameterizedTest {
                     "rp-id", Arrays.asList("given_name"),
                     Arrays.asList("mosip:idp:acr:static-code"), "https://logo-url/png",
                     Arrays.asList("https://logo-url/png"), Arrays.asList("authorization_code"),
-                    Arrays.asList("private_key_jwt")),  null, null, "unknown_error" },
+                    Arrays.asList("private_key_jwt")),  null, null, ErrorConstants.DUPLICATE_PUBLIC_KEY },
             { "update with invalid clientId", null,  new ClientDetailUpdateRequest("https://logo-url/png",
                     Arrays.asList("https://logo-url/png"),Arrays.asList("given_name"),
                     Arrays.asList("mosip:idp:acr:static-code"), "ACTIVE", Arrays.asList("authorization_code"),
@@ -7,6 +7,8 @@ package io.mosip.esignet.controllers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.mosip.esignet.api.spi.AuditPlugin;
+import io.mosip.esignet.api.util.Action;
+import io.mosip.esignet.api.util.ActionStatus;
 import io.mosip.esignet.core.dto.TokenRequest;
 import io.mosip.esignet.core.dto.TokenResponse;
 import io.mosip.esignet.core.exception.EsignetException;
@@ -22,11 +24,14 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -72,9 +77,9 @@ public class OAuthControllerTest {
     @Test
     public void getToken_withValidInput_thenPass() throws Exception {
         TokenResponse tokenResponse = new TokenResponse();
-        Mockito.when(oAuthServiceImpl.getTokens(Mockito.any(TokenRequest.class))).thenReturn(tokenResponse);
+        Mockito.when(oAuthServiceImpl.getTokensAsync(Mockito.any(TokenRequest.class))).thenReturn(CompletableFuture.completedFuture(tokenResponse));
 
-        mockMvc.perform(post("/oauth/token")
+        MvcResult mvcResult = mockMvc.perform(post("/oauth/token")
                         .contentType(MediaType.APPLICATION_FORM_URLENCODED_VALUE)
                         .param("code", "code")
                         .param("redirect_uri", "https://redirect-uri")
@@ -82,12 +87,15 @@ public class OAuthControllerTest {
                         .param("client_id", "client_id")
                         .param("client_assertion_type", "urn:ietf:params:oauth:client-assertion-type:jwt-bearer")
                         .param("client_assertion", "client_assertion"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
                 .andExpect(status().isOk());
     }
 
     @Test
     public void getToken_withInvalidInput_thenFail() throws Exception {
-        Mockito.when(oAuthServiceImpl.getTokens(Mockito.any(TokenRequest.class))).thenThrow(InvalidRequestException.class);
+        Mockito.when(oAuthServiceImpl.getTokensAsync(Mockito.any(TokenRequest.class))).thenThrow(InvalidRequestException.class);
         mockMvc.perform(post("/oauth/token")
                         .contentType(MediaType.APPLICATION_FORM_URLENCODED_VALUE))
                 .andExpect(status().isBadRequest());
@@ -95,8 +103,10 @@ public class OAuthControllerTest {
 
     @Test
     public void getToken_withRuntimeFailure_thenFail() throws Exception {
-        Mockito.when(oAuthServiceImpl.getTokens(Mockito.any(TokenRequest.class))).thenThrow(EsignetException.class);
-        mockMvc.perform(post("/oauth/token")
+        Mockito.when(auditWrapper.isAuditable(Mockito.any(), Mockito.any())).thenReturn(true);
+        Mockito.when(oAuthServiceImpl.getTokensAsync(Mockito.any(TokenRequest.class)))
+                .thenReturn(CompletableFuture.failedFuture(new EsignetException()));
+        MvcResult mvcResult = mockMvc.perform(post("/oauth/token")
                         .contentType(MediaType.APPLICATION_FORM_URLENCODED_VALUE)
                 .param("code", "code")
                 .param("redirect_uri", "https://redirect-uri")
@@ -104,10 +114,16 @@ public class OAuthControllerTest {
                 .param("client_id", "client_id")
                 .param("client_assertion_type", "urn:ietf:params:oauth:client-assertion-type:jwt-bearer")
                 .param("client_assertion", "client_assertion"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
                 .andExpect(status().isInternalServerError());
+        Mockito.verify(auditWrapper).logAudit(Mockito.eq(Action.GENERATE_TOKEN), Mockito.eq(ActionStatus.ERROR), Mockito.any(),
+                Mockito.any(EsignetException.class));
 
-        Mockito.when(oAuthServiceImpl.getTokens(Mockito.any(TokenRequest.class))).thenThrow(NullPointerException.class);
-        mockMvc.perform(post("/oauth/token")
+        Mockito.when(oAuthServiceImpl.getTokensAsync(Mockito.any(TokenRequest.class)))
+                .thenReturn(CompletableFuture.failedFuture(new NullPointerException()));
+        mvcResult = mockMvc.perform(post("/oauth/token")
                         .contentType(MediaType.APPLICATION_FORM_URLENCODED_VALUE)
                         .param("code", "code")
                         .param("redirect_uri", "https://redirect-uri")
@@ -115,6 +131,9 @@ public class OAuthControllerTest {
                         .param("client_id", "client_id")
                         .param("client_assertion_type", "urn:ietf:params:oauth:client-assertion-type:jwt-bearer")
                         .param("client_assertion", "client_assertion"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
                 .andExpect(status().isInternalServerError());
     }
-}
\ No newline at end of file
+}
@@ -63,8 +63,10 @@ import java.util.Map;
 import static io.mosip.esignet.core.constants.Constants.UTC_DATETIME_PATTERN;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
 import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 
@@ -211,7 +213,7 @@ public class AuthCodeFlowTest {
         SignedJWT signedJWT = new SignedJWT(header, jwtClaimsSet);
         signedJWT.sign(new RSASSASigner(jwk.toRSAKey().toPrivateKey()));
 
-        MvcResult result = mockMvc.perform(post("/oauth/token")
+        MvcResult asyncResult = mockMvc.perform(post("/oauth/token")
                         .contentType("application/x-www-form-urlencoded")
                         .accept(MediaType.APPLICATION_JSON_VALUE)
                         .param("code", authCode)
@@ -220,6 +222,9 @@ public class AuthCodeFlowTest {
                         .param("redirect_uri", redirectUri)
                         .param("grant_type", "authorization_code")
                         .param("client_assertion", signedJWT.serialize()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult result = mockMvc.perform(asyncDispatch(asyncResult))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.access_token").isNotEmpty())
                 .andExpect(jsonPath("$.id_token").isNotEmpty()).andReturn();
@@ -291,11 +296,14 @@ public class AuthCodeFlowTest {
         wrapper.setRequestTime(ZonedDateTime.now(ZoneOffset.UTC).format(DateTimeFormatter.ofPattern(UTC_DATETIME_PATTERN)));
         wrapper.setRequest(kycAuthDto);
 
-        MvcResult result = mockMvc.perform(post("/authorization/authenticate")
+        MvcResult asyncResult = mockMvc.perform(post("/authorization/authenticate")
                         .header("oauth-details-key", oauthDetailsKeyHeader)
                         .header("oauth-details-hash", oauthDetailsHashHeader)
                         .contentType(MediaType.APPLICATION_JSON_UTF8)
                         .content(objectMapper.writeValueAsString(wrapper)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult result = mockMvc.perform(asyncDispatch(asyncResult))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.errors").isEmpty())
                 .andExpect(jsonPath("$.response.transactionId").value(transactionId)).andReturn();
@@ -7,13 +7,14 @@ CREATE TABLE IF NOT EXISTS client_detail(
 	claims character varying NOT NULL,
 	acr_values character varying NOT NULL,
 	public_key character varying NOT NULL,
+	public_key_hash character varying(100) NOT NULL,
 	grant_types character varying NOT NULL,
 	auth_methods character varying NOT NULL,
 	status character varying(20) NOT NULL,
 	cr_dtimes timestamp NOT NULL,
 	upd_dtimes timestamp,
 	CONSTRAINT pk_clntdtl_id PRIMARY KEY (id),
-	CONSTRAINT uk_clntdtl_key UNIQUE (public_key)
+	CONSTRAINT uk_clntdtl_key UNIQUE (public_key_hash)
 );
 
 CREATE TABLE IF NOT EXISTS public_key_registry(
@@ -24,11 +25,16 @@ CREATE TABLE IF NOT EXISTS public_key_registry(
 	expire_dtimes timestamp NOT NULL,
 	wallet_binding_id character varying(256) NOT NULL,
 	public_key_hash character varying(100) NOT NULL,
-	certificate character varying NOT NULL,
+	certificate bytea NOT NULL,
+	public_key_spki bytea,
 	cr_dtimes timestamp NOT NULL,
 	CONSTRAINT pk_public_key_registry PRIMARY KEY (id_hash, auth_factor)
 );
 
+CREATE INDEX IF NOT EXISTS idx_pkr_psu_token_auth_factor ON public_key_registry (psu_token, auth_factor, expire_dtimes DESC);
+CREATE INDEX IF NOT EXISTS idx_pkr_public_key_hash ON public_key_registry (public_key_hash);
+CREATE INDEX IF NOT EXISTS idx_pkr_expire_dtimes ON public_key_registry (expire_dtimes);
+
 
 CREATE TABLE IF NOT EXISTS key_alias(
     id character varying(36) NOT NULL,
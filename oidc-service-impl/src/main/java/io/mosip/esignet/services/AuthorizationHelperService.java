@@ -39,6 +39,10 @@ import java.security.Key;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import static io.mosip.esignet.api.util.ErrorConstants.AUTH_FAILED;
@@ -94,6 +98,17 @@ public class AuthorizationHelperService {
     @Value("${mosip.esignet.send-otp.captcha-required:false}")
     private boolean captchaRequired;
 
+    @Value("${mosip.esignet.send-otp.dedupe-enabled:false}")
+    private boolean sendOtpDedupeEnabled;
+
+    /**
+     * In-flight send OTP calls keyed by the auth transaction, individual id and OTP channels, concurrent identical
+     * requests on this instance share the call. Successful result is then kept in the send OTP cache shared by all
+     * the instances for the dedupe window, so double clicks and UI retries do not send out one more OTP. Failed
+     * calls are not kept to allow a retry.
+     */
+    private final Map<String, CompletableFuture<SendOtpResult>> sendOtpCalls = new ConcurrentHashMap<>();
+
     protected void validateCaptchaToken(String captchaToken) {
         if(!captchaRequired) {
             log.warn("captcha validation is disabled");
@@ -178,14 +193,37 @@ public class AuthorizationHelperService {
             log.error("KYC auth failed for transaction : {}", transactionId, e);
             throw new EsignetException(e.getErrorCode());
         }
+        return validateKycAuthResult(transactionId, transaction, kycAuthResult);
+    }
 
+    /**
+     * Same as {@link #delegateAuthenticateRequest(String, String, List, OIDCTransaction)} without blocking on the
+     * authenticator, returned future fails with {@link EsignetException} if the authentication fails.
+     */
+    protected CompletableFuture<KycAuthResult> delegateAuthenticateRequestAsync(String transactionId, String individualId,
+                                                                                List<AuthChallenge> challengeList, OIDCTransaction transaction) {
+        return authenticationWrapper.doKycAuthAsync(transaction.getRelyingPartyId(), transaction.getClientId(),
+                        new KycAuthDto(transaction.getAuthTransactionId(), individualId, challengeList))
+                .handle((kycAuthResult, throwable) -> {
+                    Throwable cause = IdentityProviderUtil.unwrapCompletionException(throwable);
+                    if(cause instanceof KycAuthException) {
+                        log.error("KYC auth failed for transaction : {}", transactionId, cause);
+                        throw new EsignetException(((KycAuthException) cause).getErrorCode());
+                    }
+                    if(cause != null)
+                        throw new CompletionException(cause);
+                    return validateKycAuthResult(transactionId, transaction, kycAuthResult);
+                });
+    }
+
+    private KycAuthResult validateKycAuthResult(String transactionId, OIDCTransaction transaction, KycAuthResult kycAuthResult) {
         if(kycAuthResult == null || (StringUtils.isEmpty(kycAuthResult.getKycToken()) ||
                 StringUtils.isEmpty(kycAuthResult.getPartnerSpecificUserToken()))) {
             log.error("** authenticationWrapper : {} returned empty tokens received **", authenticationWrapper);
             throw new EsignetException(AUTH_FAILED);
         }
 
-        auditWrapper.logAudit(Action.DO_KYC_AUTH, ActionStatus.SUCCESS, AuditHelper.buildAuditDto(transactionId, transaction), null);
+        AuditHelper.logAudit(auditWrapper, Action.DO_KYC_AUTH, ActionStatus.SUCCESS, transactionId, transaction, null);
         return kycAuthResult;
     }
 
@@ -217,17 +255,101 @@ public class AuthorizationHelperService {
     protected SendOtpResult delegateSendOtpRequest(OtpRequest otpRequest, OIDCTransaction transaction) {
         SendOtpResult sendOtpResult;
         try {
-            SendOtpDto sendOtpDto = new SendOtpDto();
-            sendOtpDto.setTransactionId(transaction.getAuthTransactionId());
-            sendOtpDto.setIndividualId(otpRequest.getIndividualId());
-            sendOtpDto.setOtpChannels(otpRequest.getOtpChannels());
-            sendOtpResult = authenticationWrapper.sendOtp(transaction.getRelyingPartyId(), transaction.getClientId(),
-                    sendOtpDto);
-        } catch (SendOtpException e) {
-            log.error("Failed to send otp for transaction : {}", otpRequest.getTransactionId(), e);
-            throw new EsignetException(e.getErrorCode());
+            sendOtpResult = coalesceSendOtpRequest(otpRequest, transaction, () -> {
+                try {
+                    return CompletableFuture.completedFuture(authenticationWrapper.sendOtp(transaction.getRelyingPartyId(),
+                            transaction.getClientId(), buildSendOtpDto(otpRequest, transaction)));
+                } catch (SendOtpException e) {
+                    return CompletableFuture.failedFuture(e);
+                }
+            }).join();
+        } catch (CompletionException e) {
+            Throwable cause = IdentityProviderUtil.unwrapCompletionException(e);
+            if(cause instanceof SendOtpException) {
+                log.error("Failed to send otp for transaction : {}", otpRequest.getTransactionId(), cause);
+                throw new EsignetException(((SendOtpException) cause).getErrorCode());
+            }
+            if(cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            throw e;
+        }
+        return validateSendOtpResult(transaction, sendOtpResult);
+    }
+
+    /**
+     * Same as {@link #delegateSendOtpRequest(OtpRequest, OIDCTransaction)} without blocking on the authenticator,
+     * returned future fails with {@link EsignetException} if sending OTP fails.
+     */
+    protected CompletableFuture<SendOtpResult> delegateSendOtpRequestAsync(OtpRequest otpRequest, OIDCTransaction transaction) {
+        return coalesceSendOtpRequest(otpRequest, transaction, () -> authenticationWrapper.sendOtpAsync(
+                        transaction.getRelyingPartyId(), transaction.getClientId(), buildSendOtpDto(otpRequest, transaction)))
+                .handle((sendOtpResult, throwable) -> {
+                    Throwable cause = IdentityProviderUtil.unwrapCompletionException(throwable);
+                    if(cause instanceof SendOtpException) {
+                        log.error("Failed to send otp for transaction : {}", otpRequest.getTransactionId(), cause);
+                        throw new EsignetException(((SendOtpException) cause).getErrorCode());
+                    }
+                    if(cause != null)
+                        throw new CompletionException(cause);
+                    return validateSendOtpResult(transaction, sendOtpResult);
+                });
+    }
+
+    private CompletableFuture<SendOtpResult> coalesceSendOtpRequest(OtpRequest otpRequest, OIDCTransaction transaction,
+                                                                   Supplier<CompletableFuture<SendOtpResult>> sendOtpCall) {
+        if(!sendOtpDedupeEnabled)
+            return sendOtpCall.get();
+
+        String key = IdentityProviderUtil.generateB64EncodedHash(ALGO_SHA3_256, String.join(":",
+                transaction.getAuthTransactionId(), String.valueOf(otpRequest.getIndividualId()),
+                String.valueOf(otpRequest.getOtpChannels() == null ? null : new TreeSet<>(otpRequest.getOtpChannels()))));
+        SendOtpResult sentOtp = cacheUtilService.getSendOtpResult(key);
+        if(sentOtp != null) {
+            log.info("Duplicate send otp request for transaction : {}, reusing the previous send otp result",
+                    otpRequest.getTransactionId());
+            return CompletableFuture.completedFuture(sentOtp);
+        }
+        CompletableFuture<SendOtpResult> promise = new CompletableFuture<>();
+        CompletableFuture<SendOtpResult> existing = sendOtpCalls.putIfAbsent(key, promise);
+        if(existing != null) {
+            log.info("Duplicate send otp request for transaction : {}, reusing the in-flight send otp call",
+                    otpRequest.getTransactionId());
+            return existing;
+        }
+
+        CompletableFuture<SendOtpResult> sendOtpFuture;
+        try {
+            sendOtpFuture = sendOtpCall.get();
+        } catch (RuntimeException e) {
+            sendOtpFuture = CompletableFuture.failedFuture(e);
         }
+        sendOtpFuture.whenComplete((sendOtpResult, throwable) -> {
+            try {
+                //dedupe window starts once the OTP is sent
+                if(throwable == null && sendOtpResult != null)
+                    cacheUtilService.setSendOtpResult(key, sendOtpResult);
+            } catch (RuntimeException e) {
+                log.error("Failed to cache the send otp result of transaction : {}", otpRequest.getTransactionId(), e);
+            } finally {
+                sendOtpCalls.remove(key, promise);
+            }
+            if(throwable != null)
+                promise.completeExceptionally(IdentityProviderUtil.unwrapCompletionException(throwable));
+            else
+                promise.complete(sendOtpResult);
+        });
+        return promise;
+    }
+
+    private SendOtpDto buildSendOtpDto(OtpRequest otpRequest, OIDCTransaction transaction) {
+        SendOtpDto sendOtpDto = new SendOtpDto();
+        sendOtpDto.setTransactionId(transaction.getAuthTransactionId());
+        sendOtpDto.setIndividualId(otpRequest.getIndividualId());
+        sendOtpDto.setOtpChannels(otpRequest.getOtpChannels());
+        return sendOtpDto;
+    }
 
+    private SendOtpResult validateSendOtpResult(OIDCTransaction transaction, SendOtpResult sendOtpResult) {
         if(sendOtpResult == null || !transaction.getAuthTransactionId().equals(sendOtpResult.getTransactionId())) {
             log.error("Auth transactionId in request {} is not matching with send-otp response", transaction.getAuthTransactionId());
             throw new EsignetException(SEND_OTP_FAILED);
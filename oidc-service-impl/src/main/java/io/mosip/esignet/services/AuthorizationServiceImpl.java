@@ -28,6 +28,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 import static io.mosip.esignet.core.spi.TokenService.ACR;
@@ -119,38 +120,59 @@ public class AuthorizationServiceImpl implements AuthorizationService {
         oidcTransaction.setCurrentLinkCodeLimit(linkCodeLimitPerTransaction);
         oidcTransaction.setOauthDetailsHash(getOauthDetailsResponseHash(oauthDetailResponse));
         cacheUtilService.setTransaction(transactionId, oidcTransaction);
-        auditWrapper.logAudit(Action.TRANSACTION_STARTED, ActionStatus.SUCCESS, AuditHelper.buildAuditDto(transactionId, oidcTransaction), null);
+        AuditHelper.logAudit(auditWrapper, Action.TRANSACTION_STARTED, ActionStatus.SUCCESS, transactionId, oidcTransaction, null);
         return oauthDetailResponse;
     }
 
     @Override
-    public OtpResponse sendOtp(OtpRequest otpRequest) throws EsignetException {
-        authorizationHelperService.validateCaptchaToken(otpRequest.getCaptchaToken());
+    public CompletableFuture<OtpResponse> sendOtpAsync(OtpRequest otpRequest) {
+        try {
+            OIDCTransaction transaction = getSendOtpTransaction(otpRequest);
+            return authorizationHelperService.delegateSendOtpRequestAsync(otpRequest, transaction)
+                    .thenApply(sendOtpResult -> buildOtpResponse(otpRequest, transaction, sendOtpResult));
+        } catch (EsignetException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<AuthResponse> authenticateUserAsync(AuthRequest authRequest) {
+        try {
+            OIDCTransaction transaction = getPreAuthTransaction(authRequest.getTransactionId());
+            //Validate provided challenge list auth-factors with resolved auth-factors for the transaction.
+            Set<List<AuthenticationFactor>> providedAuthFactors = authorizationHelperService.getProvidedAuthFactors(transaction,
+                    authRequest.getChallengeList());
+            return authorizationHelperService.delegateAuthenticateRequestAsync(authRequest.getTransactionId(),
+                            authRequest.getIndividualId(), authRequest.getChallengeList(), transaction)
+                    .thenApply(kycAuthResult -> buildAuthResponse(authRequest, transaction, providedAuthFactors, kycAuthResult));
+        } catch (EsignetException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
 
-        OIDCTransaction transaction = cacheUtilService.getPreAuthTransaction(otpRequest.getTransactionId());
+    private OIDCTransaction getPreAuthTransaction(String transactionId) {
+        OIDCTransaction transaction = cacheUtilService.getPreAuthTransaction(transactionId);
         if(transaction == null)
             throw new InvalidTransactionException();
+        return transaction;
+    }
+
+    private OIDCTransaction getSendOtpTransaction(OtpRequest otpRequest) {
+        authorizationHelperService.validateCaptchaToken(otpRequest.getCaptchaToken());
+        return getPreAuthTransaction(otpRequest.getTransactionId());
+    }
 
-        SendOtpResult sendOtpResult = authorizationHelperService.delegateSendOtpRequest(otpRequest, transaction);
+    private OtpResponse buildOtpResponse(OtpRequest otpRequest, OIDCTransaction transaction, SendOtpResult sendOtpResult) {
         OtpResponse otpResponse = new OtpResponse();
         otpResponse.setTransactionId(otpRequest.getTransactionId());
         otpResponse.setMaskedEmail(sendOtpResult.getMaskedEmail());
         otpResponse.setMaskedMobile(sendOtpResult.getMaskedMobile());
-        auditWrapper.logAudit(Action.SEND_OTP, ActionStatus.SUCCESS, AuditHelper.buildAuditDto(otpRequest.getTransactionId(), transaction), null);
+        AuditHelper.logAudit(auditWrapper, Action.SEND_OTP, ActionStatus.SUCCESS, otpRequest.getTransactionId(), transaction, null);
         return otpResponse;
     }
 
-    @Override
-    public AuthResponse authenticateUser(AuthRequest authRequest)  throws EsignetException {
-        OIDCTransaction transaction = cacheUtilService.getPreAuthTransaction(authRequest.getTransactionId());
-        if(transaction == null)
-            throw new InvalidTransactionException();
-
-        //Validate provided challenge list auth-factors with resolved auth-factors for the transaction.
-        Set<List<AuthenticationFactor>> providedAuthFactors = authorizationHelperService.getProvidedAuthFactors(transaction,
-                authRequest.getChallengeList());
-        KycAuthResult kycAuthResult = authorizationHelperService.delegateAuthenticateRequest(authRequest.getTransactionId(),
-                authRequest.getIndividualId(), authRequest.getChallengeList(), transaction);
+    private AuthResponse buildAuthResponse(AuthRequest authRequest, OIDCTransaction transaction,
+                                           Set<List<AuthenticationFactor>> providedAuthFactors, KycAuthResult kycAuthResult) {
         //cache tokens on successful response
         transaction.setPartnerSpecificUserToken(kycAuthResult.getPartnerSpecificUserToken());
         transaction.setKycToken(kycAuthResult.getKycToken());
@@ -161,7 +183,7 @@ public class AuthorizationServiceImpl implements AuthorizationService {
         authorizationHelperService.setIndividualId(authRequest.getIndividualId(), transaction);
         cacheUtilService.setAuthenticatedTransaction(authRequest.getTransactionId(), transaction);
 
-        auditWrapper.logAudit(Action.AUTHENTICATE, ActionStatus.SUCCESS, AuditHelper.buildAuditDto(authRequest.getTransactionId(), transaction), null);
+        AuditHelper.logAudit(auditWrapper, Action.AUTHENTICATE, ActionStatus.SUCCESS, authRequest.getTransactionId(), transaction, null);
 
         AuthResponse authRespDto = new AuthResponse();
         authRespDto.setTransactionId(authRequest.getTransactionId());
@@ -185,7 +207,7 @@ public class AuthorizationServiceImpl implements AuthorizationService {
         transaction.setPermittedScopes(authCodeRequest.getPermittedAuthorizeScopes());
         transaction = cacheUtilService.setAuthCodeGeneratedTransaction(authCodeRequest.getTransactionId(), transaction);
 
-        auditWrapper.logAudit(Action.GET_AUTH_CODE, ActionStatus.SUCCESS, AuditHelper.buildAuditDto(authCodeRequest.getTransactionId(), transaction), null);
+        AuditHelper.logAudit(auditWrapper, Action.GET_AUTH_CODE, ActionStatus.SUCCESS, authCodeRequest.getTransactionId(), transaction, null);
 
         AuthCodeResponse authCodeResponse = new AuthCodeResponse();
         authCodeResponse.setCode(authCode);
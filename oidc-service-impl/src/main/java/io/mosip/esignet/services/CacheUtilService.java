@@ -5,10 +5,12 @@
  */
 package io.mosip.esignet.services;
 
+import io.mosip.esignet.api.dto.SendOtpResult;
 import io.mosip.esignet.core.dto.OIDCTransaction;
 import io.mosip.esignet.core.dto.LinkTransactionMetadata;
 import io.mosip.esignet.core.exception.DuplicateLinkCodeException;
 import io.mosip.esignet.core.constants.Constants;
+import io.mosip.esignet.core.util.RequestTransactionHolder;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.CacheManager;
@@ -106,11 +108,26 @@ public class CacheUtilService {
 
     //------------------------------------------------------------------------------------------------------------------
 
+    @Cacheable(value = Constants.SEND_OTP_CACHE, key = "#sendOtpKey")
+    public SendOtpResult setSendOtpResult(String sendOtpKey, SendOtpResult sendOtpResult) {
+        return sendOtpResult;
+    }
+
+    public SendOtpResult getSendOtpResult(String sendOtpKey) {
+        return cacheManager.getCache(Constants.SEND_OTP_CACHE).get(sendOtpKey, SendOtpResult.class);	//NOSONAR getCache() will not be returning null here.
+    }
+
     public OIDCTransaction getPreAuthTransaction(String transactionId) {
+        OIDCTransaction transaction = RequestTransactionHolder.take(Constants.PRE_AUTH_SESSION_CACHE, transactionId);
+        if(transaction != null)
+            return transaction;
         return cacheManager.getCache(Constants.PRE_AUTH_SESSION_CACHE).get(transactionId, OIDCTransaction.class); //NOSONAR getCache() will not be returning null here.
     }
 
     public OIDCTransaction getAuthenticatedTransaction(String transactionId) {
+        OIDCTransaction transaction = RequestTransactionHolder.take(Constants.AUTHENTICATED_CACHE, transactionId);
+        if(transaction != null)
+            return transaction;
         return cacheManager.getCache(Constants.AUTHENTICATED_CACHE).get(transactionId, OIDCTransaction.class);	//NOSONAR getCache() will not be returning null here.
     }
 
@@ -136,7 +136,7 @@ public class LinkedAuthorizationServiceImpl implements LinkedAuthorizationServic
         linkCodeResponse.setTransactionId(linkCodeRequest.getTransactionId());
         linkCodeResponse.setExpireDateTime(expireDateTime == null ? null :
                 expireDateTime.format(DateTimeFormatter.ofPattern(UTC_DATETIME_PATTERN)));        
-        auditWrapper.logAudit(Action.LINK_CODE, ActionStatus.SUCCESS, AuditHelper.buildAuditDto(linkCodeRequest.getTransactionId(), transaction), null);
+        AuditHelper.logAudit(auditWrapper, Action.LINK_CODE, ActionStatus.SUCCESS, linkCodeRequest.getTransactionId(), transaction, null);
         return linkCodeResponse;
     }
 
@@ -176,7 +176,7 @@ public class LinkedAuthorizationServiceImpl implements LinkedAuthorizationServic
 
         //Publish message after successfully linking the transaction
         kafkaHelperService.publish(linkedSessionTopicName, linkCodeHash);
-        auditWrapper.logAudit(Action.LINK_TRANSACTION, ActionStatus.SUCCESS, AuditHelper.buildAuditDto(linkTransactionMetadata.getTransactionId(), transaction), null);
+        AuditHelper.logAudit(auditWrapper, Action.LINK_TRANSACTION, ActionStatus.SUCCESS, linkTransactionMetadata.getTransactionId(), transaction, null);
         return linkTransactionResponse;
     }
 
@@ -191,7 +191,7 @@ public class LinkedAuthorizationServiceImpl implements LinkedAuthorizationServic
         otpResponse.setTransactionId(otpRequest.getTransactionId());
         otpResponse.setMaskedEmail(sendOtpResult.getMaskedEmail());
         otpResponse.setMaskedMobile(sendOtpResult.getMaskedMobile());
-        auditWrapper.logAudit(Action.LINK_SEND_OTP, ActionStatus.SUCCESS, AuditHelper.buildAuditDto(otpRequest.getTransactionId(), transaction), null);
+        AuditHelper.logAudit(auditWrapper, Action.LINK_SEND_OTP, ActionStatus.SUCCESS, otpRequest.getTransactionId(), transaction, null);
         return otpResponse;
     }
 
@@ -217,7 +217,7 @@ public class LinkedAuthorizationServiceImpl implements LinkedAuthorizationServic
 
         LinkedKycAuthResponse authRespDto = new LinkedKycAuthResponse();
         authRespDto.setLinkedTransactionId(linkedKycAuthRequest.getLinkedTransactionId());
-        auditWrapper.logAudit(Action.LINK_AUTHENTICATE, ActionStatus.SUCCESS, AuditHelper.buildAuditDto(null, transaction), null);
+        AuditHelper.logAudit(auditWrapper, Action.LINK_AUTHENTICATE, ActionStatus.SUCCESS, null, transaction, null);
         return authRespDto;
     }
 
@@ -240,7 +240,7 @@ public class LinkedAuthorizationServiceImpl implements LinkedAuthorizationServic
 
         LinkedConsentResponse authRespDto = new LinkedConsentResponse();
         authRespDto.setLinkedTransactionId(linkedConsentRequest.getLinkedTransactionId());
-        auditWrapper.logAudit(Action.SAVE_CONSENT, ActionStatus.SUCCESS, AuditHelper.buildAuditDto(linkedConsentRequest.getLinkedTransactionId(), transaction), null);
+        AuditHelper.logAudit(auditWrapper, Action.SAVE_CONSENT, ActionStatus.SUCCESS, linkedConsentRequest.getLinkedTransactionId(), transaction, null);
         return authRespDto;
     }
 
@@ -275,7 +275,7 @@ public class LinkedAuthorizationServiceImpl implements LinkedAuthorizationServic
 
         OIDCTransaction oidcTransaction = cacheUtilService.getConsentedTransaction(linkTransactionMetadata.getLinkedTransactionId());
         if(oidcTransaction != null) {
-        	auditWrapper.logAudit(Action.LINK_AUTH_CODE, ActionStatus.SUCCESS, AuditHelper.buildAuditDto(linkAuthCodeRequest.getTransactionId(), oidcTransaction), null);
+        	AuditHelper.logAudit(auditWrapper, Action.LINK_AUTH_CODE, ActionStatus.SUCCESS, linkAuthCodeRequest.getTransactionId(), oidcTransaction, null);
             deferredResult.setResult(authorizationHelperService.getLinkAuthStatusResponse(linkTransactionMetadata.getTransactionId(), oidcTransaction));
         } else {
             authorizationHelperService.addEntryInLinkAuthCodeStatusDeferredResultMap(linkTransactionMetadata.getLinkedTransactionId(), deferredResult);
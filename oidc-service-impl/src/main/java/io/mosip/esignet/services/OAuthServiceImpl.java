@@ -26,14 +26,22 @@ import io.mosip.esignet.core.util.*;
 import io.mosip.kernel.keymanagerservice.dto.AllCertificatesDataResponseDto;
 import io.mosip.kernel.keymanagerservice.service.KeymanagerService;
 import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static io.mosip.esignet.api.util.ErrorConstants.DATA_EXCHANGE_FAILED;
 import static io.mosip.esignet.core.constants.Constants.*;
@@ -67,10 +75,61 @@ public class OAuthServiceImpl implements OAuthService {
     @Value("${mosip.esignet.access-token-expire-seconds:60}")
     private int accessTokenExpireSeconds;
 
+    @Value("${mosip.esignet.token-response.pool-size:8}")
+    private int tokenResponsePoolSize;
+
+    /**
+     * Completes the token response once the KYC exchange returns, so token signing, cache writes and audit do not
+     * run on the thread completing the plugin call. Queue is not bounded, a rejected continuation would leave the
+     * token request waiting until the async request timeout.
+     */
+    private ExecutorService tokenResponseExecutor;
+
+    @PostConstruct
+    private void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        tokenResponseExecutor = Executors.newFixedThreadPool(tokenResponsePoolSize, runnable -> {
+            Thread thread = new Thread(runnable, "token-response-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    private void destroy() {
+        tokenResponseExecutor.shutdown();
+    }
+
 
     @Override
-    public TokenResponse getTokens(TokenRequest tokenRequest) throws EsignetException {
-        String codeHash = authorizationHelperService.getKeyHash(tokenRequest.getCode());
+    public CompletableFuture<TokenResponse> getTokensAsync(TokenRequest tokenRequest) {
+        try {
+            String codeHash = authorizationHelperService.getKeyHash(tokenRequest.getCode());
+            OIDCTransaction transaction = getAuthCodeTransaction(codeHash, tokenRequest);
+            //Logging context of the request thread is carried over to the thread completing the response
+            Map<String, String> mdcContext = MDC.getCopyOfContextMap();
+            return authenticationWrapper.doKycExchangeAsync(transaction.getRelyingPartyId(), transaction.getClientId(),
+                            buildKycExchangeDto(transaction))
+                    .handleAsync((kycExchangeResult, throwable) -> {
+                        if(mdcContext != null)
+                            MDC.setContextMap(mdcContext);
+                        try {
+                            Throwable cause = IdentityProviderUtil.unwrapCompletionException(throwable);
+                            if(cause instanceof KycExchangeException)
+                                throw handleKycExchangeFailure(codeHash, transaction, (KycExchangeException) cause);
+                            if(cause != null)
+                                throw new CompletionException(cause);
+                            return buildTokenResponse(codeHash, transaction, kycExchangeResult);
+                        } finally {
+                            MDC.clear();
+                        }
+                    }, tokenResponseExecutor);
+        } catch (EsignetException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private OIDCTransaction getAuthCodeTransaction(String codeHash, TokenRequest tokenRequest) {
         OIDCTransaction transaction = cacheUtilService.getAuthCodeTransaction(codeHash);
         if(transaction == null || transaction.getKycToken() == null)
             throw new InvalidRequestException(ErrorConstants.INVALID_TRANSACTION);
@@ -85,27 +144,30 @@ public class OAuthServiceImpl implements OAuthService {
         IdentityProviderUtil.validateRedirectURI(clientDetailDto.getRedirectUris(), tokenRequest.getRedirect_uri());
 
         authenticateClient(tokenRequest, clientDetailDto);
+        return transaction;
+    }
 
-        KycExchangeResult kycExchangeResult;
-        try {
-            KycExchangeDto kycExchangeDto = new KycExchangeDto();
-            kycExchangeDto.setTransactionId(transaction.getAuthTransactionId());
-            kycExchangeDto.setKycToken(transaction.getKycToken());
-            kycExchangeDto.setAcceptedClaims(transaction.getAcceptedClaims());
-            kycExchangeDto.setClaimsLocales(transaction.getClaimsLocales());
-            kycExchangeDto.setIndividualId(authorizationHelperService.getIndividualId(transaction));
-            kycExchangeResult = authenticationWrapper.doKycExchange(transaction.getRelyingPartyId(),
-                    transaction.getClientId(), kycExchangeDto);
-        } catch (KycExchangeException e) {
-            log.error("KYC exchange failed", e);
-            auditWrapper.logAudit(Action.DO_KYC_EXCHANGE, ActionStatus.ERROR, AuditHelper.buildAuditDto(codeHash, transaction), e);
-            throw new EsignetException(e.getErrorCode());
-        }
+    private KycExchangeDto buildKycExchangeDto(OIDCTransaction transaction) {
+        KycExchangeDto kycExchangeDto = new KycExchangeDto();
+        kycExchangeDto.setTransactionId(transaction.getAuthTransactionId());
+        kycExchangeDto.setKycToken(transaction.getKycToken());
+        kycExchangeDto.setAcceptedClaims(transaction.getAcceptedClaims());
+        kycExchangeDto.setClaimsLocales(transaction.getClaimsLocales());
+        kycExchangeDto.setIndividualId(authorizationHelperService.getIndividualId(transaction));
+        return kycExchangeDto;
+    }
+
+    private EsignetException handleKycExchangeFailure(String codeHash, OIDCTransaction transaction, KycExchangeException e) {
+        log.error("KYC exchange failed", e);
+        AuditHelper.logAudit(auditWrapper, Action.DO_KYC_EXCHANGE, ActionStatus.ERROR, codeHash, transaction, e);
+        return new EsignetException(e.getErrorCode());
+    }
 
+    private TokenResponse buildTokenResponse(String codeHash, OIDCTransaction transaction, KycExchangeResult kycExchangeResult) {
         if(kycExchangeResult == null || kycExchangeResult.getEncryptedKyc() == null)
             throw new EsignetException(DATA_EXCHANGE_FAILED);
 
-        auditWrapper.logAudit(Action.DO_KYC_EXCHANGE, ActionStatus.SUCCESS, AuditHelper.buildAuditDto(codeHash, transaction), null);
+        AuditHelper.logAudit(auditWrapper, Action.DO_KYC_EXCHANGE, ActionStatus.SUCCESS, codeHash, transaction, null);
 
         TokenResponse tokenResponse = new TokenResponse();
         tokenResponse.setAccess_token(tokenService.getAccessToken(transaction));
@@ -119,8 +181,7 @@ public class OAuthServiceImpl implements OAuthService {
         transaction.setEncryptedKyc(kycExchangeResult.getEncryptedKyc());
         cacheUtilService.setUserInfoTransaction(accessTokenHash, transaction);
 
-        auditWrapper.logAudit(Action.GENERATE_TOKEN, ActionStatus.SUCCESS, AuditHelper.buildAuditDto(codeHash,
-                transaction), null);
+        AuditHelper.logAudit(auditWrapper, Action.GENERATE_TOKEN, ActionStatus.SUCCESS, codeHash, transaction, null);
         return tokenResponse;
     }
 
@@ -61,13 +61,11 @@ public class OpenIdConnectServiceImpl implements OpenIdConnectService {
                 throw new NotAuthenticatedException();
 
             tokenService.verifyAccessToken(transaction.getClientId(), transaction.getPartnerSpecificUserToken(), tokenParts[1]);
-            auditWrapper.logAudit(Action.GET_USERINFO, ActionStatus.SUCCESS, AuditHelper.buildAuditDto(accessTokenHash,
-                    transaction), null);
+            AuditHelper.logAudit(auditWrapper, Action.GET_USERINFO, ActionStatus.SUCCESS, accessTokenHash, transaction, null);
             return transaction.getEncryptedKyc();
 
         } catch (EsignetException ex) {
-            auditWrapper.logAudit(Action.GET_USERINFO, ActionStatus.ERROR, AuditHelper.buildAuditDto(accessTokenHash,
-                    transaction), null);
+            AuditHelper.logAudit(auditWrapper, Action.GET_USERINFO, ActionStatus.ERROR, accessTokenHash, transaction, null);
             throw ex;
         }
     }
@@ -34,6 +34,7 @@ import javax.crypto.KeyGenerator;
 import javax.crypto.SecretKey;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 import static io.mosip.esignet.api.util.ErrorConstants.AUTH_FAILED;
 import static io.mosip.esignet.api.util.ErrorConstants.SEND_OTP_FAILED;
@@ -350,6 +351,112 @@ public class AuthorizationHelperServiceTest {
         }
     }
 
+    @Test
+    public void delegateSendOtpRequest_withDuplicateRequest_thenSendOtpOnce() throws SendOtpException {
+        ReflectionTestUtils.setField(authorizationHelperService, "sendOtpDedupeEnabled", true);
+        mockSendOtpCache();
+        OtpRequest otpRequest = new OtpRequest();
+        otpRequest.setIndividualId("individual-id");
+        otpRequest.setOtpChannels(Arrays.asList("email", "mobile"));
+        OIDCTransaction oidcTransaction = new OIDCTransaction();
+        oidcTransaction.setAuthTransactionId("auth-transaction-id");
+        oidcTransaction.setRelyingPartyId("rpid");
+        oidcTransaction.setClientId("client-id");
+        SendOtpResult sendOtpResult = new SendOtpResult(oidcTransaction.getAuthTransactionId(), "masked-email", "masked-mobile");
+        Mockito.when(authenticationWrapper.sendOtp(Mockito.anyString(), Mockito.anyString(), Mockito.any(SendOtpDto.class))).thenReturn(sendOtpResult);
+
+        authorizationHelperService.delegateSendOtpRequest(otpRequest, oidcTransaction);
+        otpRequest.setOtpChannels(Arrays.asList("mobile", "email"));
+        SendOtpResult result = authorizationHelperService.delegateSendOtpRequest(otpRequest, oidcTransaction);
+        Assert.assertEquals(sendOtpResult.getMaskedEmail(), result.getMaskedEmail());
+        Mockito.verify(authenticationWrapper, Mockito.times(1)).sendOtp(Mockito.anyString(), Mockito.anyString(), Mockito.any(SendOtpDto.class));
+
+        otpRequest.setOtpChannels(Arrays.asList("email"));
+        authorizationHelperService.delegateSendOtpRequest(otpRequest, oidcTransaction);
+        Mockito.verify(authenticationWrapper, Mockito.times(2)).sendOtp(Mockito.anyString(), Mockito.anyString(), Mockito.any(SendOtpDto.class));
+    }
+
+    @Test
+    public void delegateSendOtpRequest_withFailedDuplicateRequest_thenRetried() throws SendOtpException {
+        ReflectionTestUtils.setField(authorizationHelperService, "sendOtpDedupeEnabled", true);
+        mockSendOtpCache();
+        OtpRequest otpRequest = new OtpRequest();
+        otpRequest.setIndividualId("individual-id");
+        otpRequest.setOtpChannels(Arrays.asList("email"));
+        OIDCTransaction oidcTransaction = new OIDCTransaction();
+        oidcTransaction.setAuthTransactionId("auth-transaction-id");
+        oidcTransaction.setRelyingPartyId("rpid");
+        oidcTransaction.setClientId("client-id");
+        SendOtpResult sendOtpResult = new SendOtpResult(oidcTransaction.getAuthTransactionId(), "masked-email", "masked-mobile");
+        Mockito.when(authenticationWrapper.sendOtp(Mockito.anyString(), Mockito.anyString(), Mockito.any(SendOtpDto.class)))
+                .thenThrow(new SendOtpException("otp_channel_unavailable"))
+                .thenReturn(sendOtpResult);
+
+        try {
+            authorizationHelperService.delegateSendOtpRequest(otpRequest, oidcTransaction);
+            Assert.fail();
+        } catch (EsignetException ex) {
+            Assert.assertEquals("otp_channel_unavailable", ex.getErrorCode());
+        }
+        SendOtpResult result = authorizationHelperService.delegateSendOtpRequest(otpRequest, oidcTransaction);
+        Assert.assertEquals(sendOtpResult.getMaskedEmail(), result.getMaskedEmail());
+        Mockito.verify(authenticationWrapper, Mockito.times(2)).sendOtp(Mockito.anyString(), Mockito.anyString(), Mockito.any(SendOtpDto.class));
+    }
+
+    @Test
+    public void delegateSendOtpRequestAsync_withConcurrentDuplicateRequest_thenShareInFlightCall() throws Exception {
+        ReflectionTestUtils.setField(authorizationHelperService, "sendOtpDedupeEnabled", true);
+        Map<Object, Object> sendOtpCache = mockSendOtpCache();
+        OtpRequest otpRequest = new OtpRequest();
+        otpRequest.setIndividualId("individual-id");
+        otpRequest.setOtpChannels(Arrays.asList("email"));
+        OIDCTransaction oidcTransaction = new OIDCTransaction();
+        oidcTransaction.setAuthTransactionId("auth-transaction-id");
+        oidcTransaction.setRelyingPartyId("rpid");
+        oidcTransaction.setClientId("client-id");
+        CompletableFuture<SendOtpResult> sendOtpCall = new CompletableFuture<>();
+        Mockito.when(authenticationWrapper.sendOtpAsync(Mockito.anyString(), Mockito.anyString(), Mockito.any(SendOtpDto.class)))
+                .thenReturn(sendOtpCall);
+
+        CompletableFuture<SendOtpResult> first = authorizationHelperService.delegateSendOtpRequestAsync(otpRequest, oidcTransaction);
+        CompletableFuture<SendOtpResult> second = authorizationHelperService.delegateSendOtpRequestAsync(otpRequest, oidcTransaction);
+        Assert.assertTrue(sendOtpCache.isEmpty());
+
+        sendOtpCall.complete(new SendOtpResult(oidcTransaction.getAuthTransactionId(), "masked-email", "masked-mobile"));
+        Assert.assertEquals("masked-email", first.get().getMaskedEmail());
+        Assert.assertEquals("masked-email", second.get().getMaskedEmail());
+        Assert.assertEquals(1, sendOtpCache.size());
+        Mockito.verify(authenticationWrapper, Mockito.times(1)).sendOtpAsync(Mockito.anyString(), Mockito.anyString(), Mockito.any(SendOtpDto.class));
+    }
+
+    @Test
+    public void delegateSendOtpRequest_withResultCachedByOtherInstance_thenNotSent() throws SendOtpException {
+        ReflectionTestUtils.setField(authorizationHelperService, "sendOtpDedupeEnabled", true);
+        OtpRequest otpRequest = new OtpRequest();
+        otpRequest.setIndividualId("individual-id");
+        otpRequest.setOtpChannels(Arrays.asList("email"));
+        OIDCTransaction oidcTransaction = new OIDCTransaction();
+        oidcTransaction.setAuthTransactionId("auth-transaction-id");
+        SendOtpResult sendOtpResult = new SendOtpResult(oidcTransaction.getAuthTransactionId(), "masked-email", "masked-mobile");
+        Mockito.when(cacheUtilService.getSendOtpResult(Mockito.anyString())).thenReturn(sendOtpResult);
+
+        SendOtpResult result = authorizationHelperService.delegateSendOtpRequest(otpRequest, oidcTransaction);
+        Assert.assertEquals(sendOtpResult.getMaskedEmail(), result.getMaskedEmail());
+        Mockito.verify(authenticationWrapper, Mockito.never()).sendOtp(Mockito.anyString(), Mockito.anyString(), Mockito.any(SendOtpDto.class));
+    }
+
+    private Map<Object, Object> mockSendOtpCache() {
+        Map<Object, Object> sendOtpCache = new HashMap<>();
+        Mockito.when(cacheUtilService.getSendOtpResult(Mockito.anyString()))
+                .thenAnswer(invocation -> sendOtpCache.get(invocation.getArgument(0)));
+        Mockito.when(cacheUtilService.setSendOtpResult(Mockito.anyString(), Mockito.any(SendOtpResult.class)))
+                .thenAnswer(invocation -> {
+                    sendOtpCache.putIfAbsent(invocation.getArgument(0), invocation.getArgument(1));
+                    return invocation.getArgument(1);
+                });
+        return sendOtpCache;
+    }
+
     @Test
     public void getProvidedAuthFactors_withValidInput_thenPass() {
         Claims resolvedClaims = new Claims();
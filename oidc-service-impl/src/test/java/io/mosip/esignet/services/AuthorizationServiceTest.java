@@ -31,6 +31,9 @@ import org.mockito.junit.MockitoJUnitRunner;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
 
 import static io.mosip.esignet.core.spi.TokenService.ACR;
 import static org.mockito.ArgumentMatchers.any;
@@ -389,7 +392,7 @@ public class AuthorizationServiceTest {
         AuthRequest authRequest = new AuthRequest();
         authRequest.setTransactionId(transactionId);
         try {
-            authorizationServiceImpl.authenticateUser(authRequest);
+            authenticateUser(authRequest);
             Assert.fail();
         } catch (EsignetException ex) {
             Assert.assertTrue(ex.getErrorCode().equals(ErrorConstants.INVALID_TRANSACTION));
@@ -411,7 +414,8 @@ public class AuthorizationServiceTest {
         KycAuthResult kycAuthResult = new KycAuthResult();
         kycAuthResult.setKycToken("test-kyc-token");
         kycAuthResult.setPartnerSpecificUserToken("test-psut");
-        when(authenticationWrapper.doKycAuth(anyString(), anyString(), any())).thenReturn(kycAuthResult);
+        when(authenticationWrapper.doKycAuthAsync(anyString(), anyString(), any()))
+                .thenReturn(CompletableFuture.completedFuture(kycAuthResult));
 
         AuthRequest authRequest = new AuthRequest();
         authRequest.setTransactionId(transactionId);
@@ -420,11 +424,34 @@ public class AuthorizationServiceTest {
         authChallenges.add(getAuthChallengeDto("OTP"));
         authRequest.setChallengeList(authChallenges);
 
-        AuthResponse authResponse = authorizationServiceImpl.authenticateUser(authRequest);
+        AuthResponse authResponse = authenticateUser(authRequest);
         Assert.assertNotNull(authResponse);
         Assert.assertEquals(transactionId, authResponse.getTransactionId());
     }
 
+    @Test
+    public void authenticateAsync_withFailedKycAuth_thenFail() throws InterruptedException {
+        String transactionId = "test-transaction";
+        when(cacheUtilService.getPreAuthTransaction(transactionId)).thenReturn(createIdpTransaction(
+                new String[]{"mosip:idp:acr:generated-code"}));
+        when(authenticationContextClassRefUtil.getAuthFactors(new String[]{"mosip:idp:acr:generated-code"}))
+                .thenReturn(Arrays.asList(getAuthFactors("mosip:idp:acr:generated-code")));
+        when(authenticationWrapper.doKycAuthAsync(anyString(), anyString(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new KycAuthException("auth-failed")));
+
+        AuthRequest authRequest = new AuthRequest();
+        authRequest.setTransactionId(transactionId);
+        authRequest.setIndividualId("23423434234");
+        authRequest.setChallengeList(Arrays.asList(getAuthChallengeDto("OTP")));
+        try {
+            authorizationServiceImpl.authenticateUserAsync(authRequest).get();
+            Assert.fail();
+        } catch (ExecutionException ex) {
+            Assert.assertTrue(ex.getCause() instanceof EsignetException);
+            Assert.assertEquals("auth-failed", ((EsignetException) ex.getCause()).getErrorCode());
+        }
+    }
+
     @Test
     public void authenticate_multipleRegisteredAcrsWithInvalidSingleFactor_thenFail() throws EsignetException {
         String transactionId = "test-transaction";
@@ -445,7 +472,7 @@ public class AuthorizationServiceTest {
         authRequest.setChallengeList(authChallenges);
 
         try {
-            authorizationServiceImpl.authenticateUser(authRequest);
+            authenticateUser(authRequest);
             Assert.fail();
         } catch (EsignetException ex) {
             Assert.assertTrue(ex.getErrorCode().equals(ErrorConstants.AUTH_FACTOR_MISMATCH));
@@ -467,7 +494,8 @@ public class AuthorizationServiceTest {
         KycAuthResult kycAuthResult = new KycAuthResult();
         kycAuthResult.setKycToken("test-kyc-token");
         kycAuthResult.setPartnerSpecificUserToken("test-psut");
-        when(authenticationWrapper.doKycAuth(anyString(), anyString(), any())).thenReturn(kycAuthResult);
+        when(authenticationWrapper.doKycAuthAsync(anyString(), anyString(), any()))
+                .thenReturn(CompletableFuture.completedFuture(kycAuthResult));
 
         AuthRequest authRequest = new AuthRequest();
         authRequest.setTransactionId(transactionId);
@@ -477,7 +505,7 @@ public class AuthorizationServiceTest {
         authChallenges.add(getAuthChallengeDto("BIO"));
         authRequest.setChallengeList(authChallenges);
 
-        AuthResponse authResponse = authorizationServiceImpl.authenticateUser(authRequest);
+        AuthResponse authResponse = authenticateUser(authRequest);
         Assert.assertNotNull(authResponse);
         Assert.assertEquals(transactionId, authResponse.getTransactionId());
     }
@@ -503,7 +531,7 @@ public class AuthorizationServiceTest {
         authRequest.setChallengeList(authChallenges);
 
         try {
-            authorizationServiceImpl.authenticateUser(authRequest);
+            authenticateUser(authRequest);
             Assert.fail();
         } catch (EsignetException ex) {
             Assert.assertTrue(ex.getErrorCode().equals(ErrorConstants.AUTH_FACTOR_MISMATCH));
@@ -580,5 +608,11 @@ public class AuthorizationServiceTest {
         return acrAuthFactors;
     }
 
-
+    private AuthResponse authenticateUser(AuthRequest authRequest) {
+        try {
+            return authorizationServiceImpl.authenticateUserAsync(authRequest).join();
+        } catch (CompletionException e) {
+            throw (EsignetException) e.getCause();
+        }
+    }
 }
@@ -17,10 +17,15 @@ import org.springframework.cache.Cache.ValueWrapper;
 import org.springframework.cache.support.SimpleValueWrapper;
 import org.springframework.cache.CacheManager;
 
+import io.mosip.esignet.api.dto.SendOtpResult;
 import io.mosip.esignet.core.constants.Constants;
 import io.mosip.esignet.core.dto.LinkTransactionMetadata;
 import io.mosip.esignet.core.dto.OIDCTransaction;
 import io.mosip.esignet.core.exception.DuplicateLinkCodeException;
+import io.mosip.esignet.core.util.RequestTransactionHolder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 @RunWith(MockitoJUnitRunner.class)
 public class CacheUtilServiceTest {
@@ -68,6 +73,27 @@ public class CacheUtilServiceTest {
         Assert.assertNotNull(cacheUtilService.updateTransactionAndEvictLinkCode("123456789", "68392", transaction));
 	}
 	
+	@Test
+	public void getPreAuthTransaction_withTransactionHeldForRequest_thenCacheNotRead() {
+		OIDCTransaction transaction = new OIDCTransaction();
+		OIDCTransaction cachedTransaction = new OIDCTransaction();
+		Mockito.when(cache.get("123456789", OIDCTransaction.class)).thenReturn(cachedTransaction);
+		Mockito.when(cacheManager.getCache(Mockito.anyString())).thenReturn(cache);
+
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+		try {
+			RequestTransactionHolder.hold(Constants.PRE_AUTH_SESSION_CACHE, "123456789", transaction);
+			Assert.assertSame(transaction, cacheUtilService.getPreAuthTransaction("123456789"));
+			Mockito.verify(cacheManager, Mockito.never()).getCache(Mockito.anyString());
+			Assert.assertSame(cachedTransaction, cacheUtilService.getPreAuthTransaction("123456789"));
+
+			RequestTransactionHolder.hold(Constants.PRE_AUTH_SESSION_CACHE, "123456789", transaction);
+			Assert.assertSame(cachedTransaction, cacheUtilService.getAuthenticatedTransaction("123456789"));
+		} finally {
+			RequestContextHolder.resetRequestAttributes();
+		}
+	}
+
 	@Test
 	public void test_LinkTransactionMetadata_cache() {
 		LinkTransactionMetadata linkTransactionMetadata = new LinkTransactionMetadata("123456789", "987654321");
@@ -81,6 +107,17 @@ public class CacheUtilServiceTest {
         Assert.assertNotNull(cacheUtilService.setLinkedCode("987654321", linkTransactionMetadata));
 	}
 	
+	@Test
+	public void test_SendOtpResult_cache() {
+		SendOtpResult sendOtpResult = new SendOtpResult("123456789", "masked-email", "masked-mobile");
+
+		Mockito.when(cache.get("send-otp-key", SendOtpResult.class)).thenReturn(sendOtpResult);
+		Mockito.when(cacheManager.getCache(Constants.SEND_OTP_CACHE)).thenReturn(cache);
+
+		Assert.assertEquals(sendOtpResult, cacheUtilService.setSendOtpResult("send-otp-key", sendOtpResult));
+		Assert.assertEquals(sendOtpResult, cacheUtilService.getSendOtpResult("send-otp-key"));
+	}
+
 	@Test(expected = DuplicateLinkCodeException.class)
 	public void test_setLinkCodeGenerated_thenThowException() {
 		LinkTransactionMetadata linkTransactionMetadata = new LinkTransactionMetadata("123456789", "987654321");
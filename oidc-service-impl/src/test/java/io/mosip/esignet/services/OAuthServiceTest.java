@@ -23,17 +23,25 @@ import io.mosip.esignet.core.spi.TokenService;
 import io.mosip.kernel.keymanagerservice.dto.AllCertificatesDataResponseDto;
 import io.mosip.kernel.keymanagerservice.dto.CertificateDataResponseDto;
 import io.mosip.kernel.keymanagerservice.service.KeymanagerService;
+import org.junit.After;
 import org.junit.Assert;
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.slf4j.MDC;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static io.mosip.esignet.api.util.ErrorConstants.DATA_EXCHANGE_FAILED;
 import static io.mosip.esignet.core.constants.Constants.BEARER;
@@ -67,6 +75,17 @@ public class OAuthServiceTest {
     @Mock
     private AuditPlugin auditWrapper;
 
+    @Before
+    public void setUp() {
+        ReflectionTestUtils.setField(oAuthService, "tokenResponsePoolSize", 2);
+        ReflectionTestUtils.invokeMethod(oAuthService, "init");
+    }
+
+    @After
+    public void tearDown() {
+        ReflectionTestUtils.invokeMethod(oAuthService, "destroy");
+    }
+
     @Test
     public void getTokens_withValidRequest_thenPass() throws KycExchangeException {
         TokenRequest tokenRequest = new TokenRequest();
@@ -92,10 +111,11 @@ public class OAuthServiceTest {
         ReflectionTestUtils.setField(authorizationHelperService, "secureIndividualId", false);
         Mockito.when(cacheUtilService.getAuthCodeTransaction(Mockito.anyString())).thenReturn(oidcTransaction);
         Mockito.when(clientManagementService.getClientDetails(Mockito.anyString())).thenReturn(clientDetail);
-        Mockito.when(authenticationWrapper.doKycExchange(Mockito.anyString(), Mockito.anyString(), Mockito.any())).thenReturn(kycExchangeResult);
+        Mockito.when(authenticationWrapper.doKycExchangeAsync(Mockito.anyString(), Mockito.anyString(), Mockito.any()))
+                .thenReturn(CompletableFuture.completedFuture(kycExchangeResult));
         Mockito.when(tokenService.getAccessToken(Mockito.any())).thenReturn("test-access-token");
         Mockito.when(tokenService.getIDToken(Mockito.any())).thenReturn("test-id-token");
-        TokenResponse tokenResponse = oAuthService.getTokens(tokenRequest);
+        TokenResponse tokenResponse = getTokens(tokenRequest);
         Assert.assertNotNull(tokenResponse);
         Assert.assertNotNull(tokenResponse.getId_token());
         Assert.assertNotNull(tokenResponse.getAccess_token());
@@ -103,11 +123,57 @@ public class OAuthServiceTest {
         Assert.assertEquals(kycExchangeResult.getEncryptedKyc(), oidcTransaction.getEncryptedKyc());
     }
 
+    @Test
+    public void getTokens_withKycExchangeCompletedOnPluginThread_thenResponseBuiltOnTokenResponseThread() throws Exception {
+        TokenRequest tokenRequest = new TokenRequest();
+        tokenRequest.setCode("test-code");
+        tokenRequest.setClient_id("client-id");
+        tokenRequest.setRedirect_uri("https://test-redirect-uri/test-page");
+        tokenRequest.setClient_assertion_type(JWT_BEARER_TYPE);
+        tokenRequest.setClient_assertion("client-assertion");
+
+        OIDCTransaction oidcTransaction = new OIDCTransaction();
+        oidcTransaction.setClientId("client-id");
+        oidcTransaction.setKycToken("kyc-token");
+        oidcTransaction.setRelyingPartyId("rp-id");
+        oidcTransaction.setRedirectUri("https://test-redirect-uri/test-page");
+        ClientDetail clientDetail = new ClientDetail();
+        clientDetail.setRedirectUris(Arrays.asList("https://test-redirect-uri/**"));
+        KycExchangeResult kycExchangeResult = new KycExchangeResult();
+        kycExchangeResult.setEncryptedKyc("encrypted-kyc");
+
+        Mockito.when(authorizationHelperService.getKeyHash(Mockito.anyString())).thenReturn("code-hash");
+        Mockito.when(cacheUtilService.getAuthCodeTransaction(Mockito.anyString())).thenReturn(oidcTransaction);
+        Mockito.when(clientManagementService.getClientDetails(Mockito.anyString())).thenReturn(clientDetail);
+        ExecutorService pluginExecutor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "plugin-kyc-exchange-1"));
+        Mockito.when(authenticationWrapper.doKycExchangeAsync(Mockito.anyString(), Mockito.anyString(), Mockito.any()))
+                .thenReturn(CompletableFuture.supplyAsync(() -> kycExchangeResult, CompletableFuture.delayedExecutor(100,
+                        TimeUnit.MILLISECONDS, pluginExecutor)));
+        List<String> accessTokenContext = new ArrayList<>();
+        Mockito.when(tokenService.getAccessToken(Mockito.any())).thenAnswer(invocation -> {
+            accessTokenContext.add(Thread.currentThread().getName());
+            accessTokenContext.add(MDC.get("traceId"));
+            return "test-access-token";
+        });
+        Mockito.when(tokenService.getIDToken(Mockito.any())).thenReturn("test-id-token");
+
+        MDC.put("traceId", "test-trace-id");
+        try {
+            Assert.assertEquals("test-access-token", oAuthService.getTokensAsync(tokenRequest).get(5, TimeUnit.SECONDS)
+                    .getAccess_token());
+        } finally {
+            MDC.clear();
+            pluginExecutor.shutdown();
+        }
+        Assert.assertTrue(accessTokenContext.get(0).startsWith("token-response-"));
+        Assert.assertEquals("test-trace-id", accessTokenContext.get(1));
+    }
+
     @Test
     public void getTokens_withInvalidAuthCode_thenFail() {
         TokenRequest tokenRequest = new TokenRequest();
         try {
-            oAuthService.getTokens(tokenRequest);
+            getTokens(tokenRequest);
         } catch (InvalidRequestException ex) {
             Assert.assertEquals(INVALID_TRANSACTION, ex.getErrorCode());
         }
@@ -124,7 +190,7 @@ public class OAuthServiceTest {
         Mockito.when(cacheUtilService.getAuthCodeTransaction(Mockito.anyString())).thenReturn(oidcTransaction);
 
         try {
-            oAuthService.getTokens(tokenRequest);
+            getTokens(tokenRequest);
         } catch (InvalidRequestException ex) {
             Assert.assertEquals(INVALID_CLIENT_ID, ex.getErrorCode());
         }
@@ -144,7 +210,7 @@ public class OAuthServiceTest {
         Mockito.when(cacheUtilService.getAuthCodeTransaction(Mockito.anyString())).thenReturn(oidcTransaction);
 
         try {
-            oAuthService.getTokens(tokenRequest);
+            getTokens(tokenRequest);
         } catch (InvalidRequestException ex) {
             Assert.assertEquals(INVALID_REDIRECT_URI, ex.getErrorCode());
         }
@@ -154,7 +220,7 @@ public class OAuthServiceTest {
         tokenRequest.setRedirect_uri("https://test-redirect-uri/test/test-page");
         Mockito.when(clientManagementService.getClientDetails(Mockito.anyString())).thenReturn(clientDetail);
         try {
-            oAuthService.getTokens(tokenRequest);
+            getTokens(tokenRequest);
         } catch (InvalidRequestException ex) {
             Assert.assertEquals(INVALID_REDIRECT_URI, ex.getErrorCode());
         }
@@ -179,14 +245,14 @@ public class OAuthServiceTest {
         tokenRequest.setRedirect_uri("https://test-redirect-uri/test/test-page");
         Mockito.when(clientManagementService.getClientDetails(Mockito.anyString())).thenReturn(clientDetail);
         try {
-            oAuthService.getTokens(tokenRequest);
+            getTokens(tokenRequest);
         } catch (InvalidRequestException ex) {
             Assert.assertEquals(INVALID_ASSERTION_TYPE, ex.getErrorCode());
         }
 
         tokenRequest.setClient_assertion_type(JWT_BEARER_TYPE);
         try {
-            oAuthService.getTokens(tokenRequest);
+            getTokens(tokenRequest);
         } catch (InvalidRequestException ex) {
             Assert.assertEquals(INVALID_ASSERTION, ex.getErrorCode());
         }
@@ -215,15 +281,16 @@ public class OAuthServiceTest {
 
         KycExchangeResult kycExchangeResult = new KycExchangeResult();
         kycExchangeResult.setEncryptedKyc(null);
-        Mockito.when(authenticationWrapper.doKycExchange(Mockito.anyString(), Mockito.anyString(), Mockito.any())).thenReturn(null, kycExchangeResult);
+        Mockito.when(authenticationWrapper.doKycExchangeAsync(Mockito.anyString(), Mockito.anyString(), Mockito.any()))
+                .thenReturn(CompletableFuture.completedFuture(null), CompletableFuture.completedFuture(kycExchangeResult));
         try {
-            oAuthService.getTokens(tokenRequest);
+            getTokens(tokenRequest);
         } catch (EsignetException ex) {
             Assert.assertEquals(DATA_EXCHANGE_FAILED, ex.getErrorCode());
         }
 
         try {
-            oAuthService.getTokens(tokenRequest);
+            getTokens(tokenRequest);
         } catch (EsignetException ex) {
             Assert.assertEquals(DATA_EXCHANGE_FAILED, ex.getErrorCode());
         }
@@ -249,10 +316,10 @@ public class OAuthServiceTest {
         clientDetail.setRedirectUris(Arrays.asList("https://test-redirect-uri/**", "http://test-redirect-uri-2"));
         tokenRequest.setRedirect_uri("https://test-redirect-uri/test/test-page");
         Mockito.when(clientManagementService.getClientDetails(Mockito.anyString())).thenReturn(clientDetail);
-        Mockito.when(authenticationWrapper.doKycExchange(Mockito.anyString(), Mockito.anyString(), Mockito.any()))
-                .thenThrow(new KycExchangeException("test-err-1"));
+        Mockito.when(authenticationWrapper.doKycExchangeAsync(Mockito.anyString(), Mockito.anyString(), Mockito.any()))
+                .thenReturn(CompletableFuture.failedFuture(new KycExchangeException("test-err-1")));
         try {
-            oAuthService.getTokens(tokenRequest);
+            getTokens(tokenRequest);
             Assert.fail();
         } catch (EsignetException ex) {
             Assert.assertEquals("test-err-1", ex.getErrorCode());
@@ -300,4 +367,12 @@ public class OAuthServiceTest {
         Assert.assertNotNull(maps);
         Assert.assertTrue(!maps.isEmpty());
     }
+
+    private TokenResponse getTokens(TokenRequest tokenRequest) {
+        try {
+            return oAuthService.getTokensAsync(tokenRequest).join();
+        } catch (CompletionException e) {
+            throw (EsignetException) e.getCause();
+        }
+    }
 }